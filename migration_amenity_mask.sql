@@ -0,0 +1,33 @@
+-- ====================================================================
+-- Migration Script: Amenity bitmask on accommodation units
+-- Purpose: amenity filters become one (amenity_mask & ?) = ? predicate
+--          instead of a join on accommodation_unit_amenities per amenity.
+--          Bit positions follow the Amenity enum (append-only).
+-- ====================================================================
+
+USE turismdb;
+
+-- Add the mask column (created automatically with ddl-auto=update)
+ALTER TABLE accommodation_units
+ADD COLUMN amenity_mask BIGINT NOT NULL DEFAULT 0 COMMENT 'Bitmask of amenities, see Amenity enum';
+
+-- Backfill from the element-collection table; the application keeps it in sync afterwards
+UPDATE accommodation_units a
+SET a.amenity_mask = COALESCE((
+    SELECT BIT_OR(CASE REPLACE(REPLACE(LOWER(TRIM(am.amenity)), ' ', '_'), '-', '_')
+        WHEN 'wifi'             THEN 1
+        WHEN 'parking'          THEN 2
+        WHEN 'kitchen'          THEN 4
+        WHEN 'tv'               THEN 8
+        WHEN 'air_conditioning' THEN 16
+        WHEN 'bathroom'         THEN 32
+        WHEN 'balcony'          THEN 64
+        WHEN 'heating'          THEN 128
+        WHEN 'pool'             THEN 256
+        WHEN 'spa'              THEN 512
+        WHEN 'gym'              THEN 1024
+        WHEN 'restaurant'       THEN 2048
+        ELSE 0 END)
+    FROM accommodation_unit_amenities am
+    WHERE am.accommodation_unit_id = a.id
+), 0);
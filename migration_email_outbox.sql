@@ -0,0 +1,32 @@
+-- ====================================================================
+-- Migration Script: Transactional email outbox
+-- Purpose: emails are inserted into email_outbox in the same transaction
+--          as the booking/cancellation/token that triggers them and sent
+--          by background workers, with retries and a DEAD state.
+--          (The table is created automatically with ddl-auto=update;
+--          the index below is not.)
+-- ====================================================================
+
+USE turismdb;
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    kind VARCHAR(64) NOT NULL COMMENT 'Template name, e.g. BOOKING_CONFIRMATION',
+    sender VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255) NOT NULL COMMENT 'Comma separated addresses',
+    subject VARCHAR(500) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL COMMENT 'PENDING, SENDING, SENT or DEAD',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL COMMENT 'Retry time (PENDING) or lease end (SENDING)',
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6)
+);
+
+-- Workers claim due rows with: status IN ('PENDING','SENDING') AND next_attempt_at <= now
+-- ORDER BY next_attempt_at ... FOR UPDATE SKIP LOCKED (MySQL 8.0+)
+CREATE INDEX idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+
+-- Verify
+SELECT status, COUNT(*) FROM email_outbox GROUP BY status;
@@ -0,0 +1,69 @@
+-- ====================================================================
+-- Migration Script: Normalised location uniqueness
+-- Purpose: "one property per address" is enforced by a unique index on
+--          a folded copy of the location instead of scanning every unit.
+--          Folding = lowercase, no diacritics, punctuation as spaces,
+--          collapsed whitespace (TextNormalizer.normalizeLocation).
+-- Safe to re-run: every step checks what is already there.
+-- ====================================================================
+
+USE turismdb;
+
+-- Add the column, unless ddl-auto=update already created it
+SET @column_exists = (
+    SELECT COUNT(*) FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'accommodation_units'
+      AND COLUMN_NAME = 'normalized_location');
+SET @ddl = IF(@column_exists = 0,
+    'ALTER TABLE accommodation_units ADD COLUMN normalized_location VARCHAR(255) NULL COMMENT ''Folded location, see TextNormalizer.normalizeLocation''',
+    'SELECT ''normalized_location already exists'' AS info');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Approximate backfill: folds the Romanian diacritics, other non-alphanumerics
+-- become spaces. The application rewrites the exact value on the next save;
+-- rows it already wrote are left alone.
+UPDATE accommodation_units
+SET normalized_location = NULLIF(TRIM(REGEXP_REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            LOWER(location), 'ă', 'a'), 'â', 'a'), 'î', 'i'), 'ș', 's'), 'ş', 's'), 'ț', 't'), 'ţ', 't'),
+        '[^a-z0-9]+', ' ')), '')
+WHERE location IS NOT NULL
+  AND normalized_location IS NULL;
+
+-- Pre-existing duplicates must be resolved before the index can be created
+SELECT normalized_location, COUNT(*) AS units, GROUP_CONCAT(id) AS unit_ids
+FROM accommodation_units
+WHERE normalized_location IS NOT NULL
+GROUP BY normalized_location
+HAVING COUNT(*) > 1;
+
+-- Drop a unique key Hibernate generated while the mapping still declared unique = true
+SET @generated_key = (
+    SELECT MIN(INDEX_NAME) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'accommodation_units'
+      AND COLUMN_NAME = 'normalized_location'
+      AND NON_UNIQUE = 0
+      AND INDEX_NAME <> 'ux_accommodation_units_normalized_location');
+SET @ddl = IF(@generated_key IS NULL,
+    'SELECT ''no generated unique key on normalized_location'' AS info',
+    CONCAT('ALTER TABLE accommodation_units DROP INDEX `', @generated_key, '`'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The index the application checks for (AccommodationUnitService.saveUnit)
+SET @index_exists = (
+    SELECT COUNT(*) FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'accommodation_units'
+      AND INDEX_NAME = 'ux_accommodation_units_normalized_location');
+SET @ddl = IF(@index_exists = 0,
+    'CREATE UNIQUE INDEX ux_accommodation_units_normalized_location ON accommodation_units (normalized_location)',
+    'SELECT ''ux_accommodation_units_normalized_location already exists'' AS info');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,28 @@
+-- ====================================================================
+-- Migration Script: Owner notification digests
+-- Purpose: owners can receive their booking/cancellation notifications
+--          as an hourly or daily summary email; pending events wait in
+--          owner_digest_events until their digest is sent.
+--          (Both changes are applied automatically with ddl-auto=update;
+--          the index below is not.)
+-- ====================================================================
+
+USE turismdb;
+
+-- OFF = one email per event (previous behaviour), HOURLY, DAILY
+ALTER TABLE users ADD COLUMN email_digest_mode VARCHAR(16) NOT NULL DEFAULT 'OFF';
+
+CREATE TABLE IF NOT EXISTS owner_digest_events (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    owner_id BIGINT NOT NULL COMMENT 'users.id; no FK, events of deleted owners are dropped on flush',
+    booking_id BIGINT,
+    kind VARCHAR(32) NOT NULL COMMENT 'BOOKING or CANCELLATION',
+    line VARCHAR(1000) NOT NULL COMMENT 'Digest line rendered when the event happened',
+    created_at DATETIME(6) NOT NULL
+);
+
+-- Counted on every insert and locked (FOR UPDATE) per owner when a digest is sent
+CREATE INDEX idx_owner_digest_events_owner ON owner_digest_events (owner_id, id);
+
+-- Verify
+SELECT owner_id, COUNT(*), MIN(created_at) FROM owner_digest_events GROUP BY owner_id;
@@ -0,0 +1,28 @@
+-- ====================================================================
+-- Migration Script: Denormalised rating aggregates on accommodation units
+-- Purpose: rating filters/sorts read accommodation_units.rating instead of
+--          computing AVG(reviews.rating) per row; the application keeps
+--          rating_sum, review_count and rating up to date on every review
+--          insert/delete. Run once for data written before that.
+-- ====================================================================
+
+USE turismdb;
+
+-- Add the running sum of ratings (created automatically with ddl-auto=update)
+ALTER TABLE accommodation_units
+ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0 COMMENT 'Sum of review ratings';
+
+-- One-off rebuild from the reviews table
+-- (same as POST /api/admin/maintenance/rebuild-ratings)
+UPDATE accommodation_units a
+LEFT JOIN (
+    SELECT accommodation_unit_id, SUM(rating) AS rating_sum, COUNT(*) AS review_count
+    FROM reviews
+    GROUP BY accommodation_unit_id
+) r ON r.accommodation_unit_id = a.id
+SET a.rating_sum = COALESCE(r.rating_sum, 0),
+    a.review_count = COALESCE(r.review_count, 0),
+    a.rating = CASE WHEN COALESCE(r.review_count, 0) > 0 THEN r.rating_sum / r.review_count ELSE 0 END;
+
+-- Rating filters and sorts now use this column
+CREATE INDEX idx_accommodation_units_rating ON accommodation_units(rating);
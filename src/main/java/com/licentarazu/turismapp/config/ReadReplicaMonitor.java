@@ -0,0 +1,271 @@
+package com.licentarazu.turismapp.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
+/**
+ * Decides whether a read-only transaction may use the read replica, and keeps the numbers
+ * behind that decision.
+ *
+ * Reads go to the primary instead when the current user committed a write less than
+ * read-your-writes-window-ms ago (their own change may not have reached the replica yet),
+ * or when the last lag probe found the replica more than max-lag-seconds behind, stopped,
+ * or unreachable. Until the first probe succeeds the replica is treated as unhealthy.
+ *
+ * Without app.datasource.replica.url there is no replica: the monitor stays disabled and
+ * only reports that in stats().
+ */
+@Component
+public class ReadReplicaMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaMonitor.class);
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final long readYourWritesWindowMillis;
+    private final int maxPinnedUsers;
+
+    // User (email) -> time until which their reads stay on the primary
+    private final ConcurrentHashMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private volatile boolean healthy = false;
+    private volatile boolean replicating = false;
+    private volatile Long lagSeconds;
+    private volatile Instant lastCheckedAt;
+    private volatile String lastError;
+    private final AtomicLong maxObservedLagSeconds = new AtomicLong();
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong pinnedReads = new AtomicLong();
+    private final AtomicLong lagFallbackReads = new AtomicLong();
+    private final AtomicLong pinnedWrites = new AtomicLong();
+    private final AtomicLong failedChecks = new AtomicLong();
+
+    @Autowired
+    public ReadReplicaMonitor(@Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${app.datasource.replica.read-your-writes-window-ms:5000}") long readYourWritesWindowMillis,
+            @Value("${app.datasource.replica.max-pinned-users:10000}") int maxPinnedUsers) {
+        this(replica.getIfAvailable(), maxLagSeconds, readYourWritesWindowMillis, maxPinnedUsers);
+    }
+
+    ReadReplicaMonitor(DataSource replica, long maxLagSeconds, long readYourWritesWindowMillis, int maxPinnedUsers) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.readYourWritesWindowMillis = readYourWritesWindowMillis;
+        this.maxPinnedUsers = Math.max(1, maxPinnedUsers);
+    }
+
+    public boolean isEnabled() {
+        return replica != null;
+    }
+
+    /**
+     * How long after a change a replica read may still miss it: caches that store read-only
+     * results should not store a load that started this soon after their last invalidation.
+     */
+    public long staleReadWindowMillis() {
+        return isEnabled() ? maxLagSeconds * 1000 : 0;
+    }
+
+    // ===== ROUTING =====
+
+    /**
+     * Called by ReplicaRoutingDataSource for a read-only transaction.
+     */
+    boolean useReplica() {
+        if (!isEnabled()) {
+            return false;
+        }
+        if (isPinned(currentUser())) {
+            pinnedReads.incrementAndGet();
+            return false;
+        }
+        if (!healthy) {
+            lagFallbackReads.incrementAndGet();
+            return false;
+        }
+        replicaReads.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Called by ReplicaRoutingDataSource for a read-write transaction: once it commits, the
+     * user's reads stay on the primary for the read-your-writes window.
+     */
+    void writeTransactionStarted() {
+        String user = currentUser();
+        if (!isEnabled() || user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        afterCommit(() -> pin(user));
+    }
+
+    private void pin(String user) {
+        long now = System.currentTimeMillis();
+        pinnedUntil.put(user, now + readYourWritesWindowMillis);
+        pinnedWrites.incrementAndGet();
+
+        if (pinnedUntil.size() > maxPinnedUsers) {
+            pinnedUntil.values().removeIf(until -> until <= now);
+            // Still full: forget arbitrary users, they only lose read-your-writes
+            Iterator<String> users = pinnedUntil.keySet().iterator();
+            while (pinnedUntil.size() > maxPinnedUsers && users.hasNext()) {
+                if (!users.next().equals(user)) {
+                    users.remove();
+                }
+            }
+        }
+    }
+
+    private boolean isPinned(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            pinnedUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    // Anonymous catalog traffic has no writes of its own to read back
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // ===== LAG PROBE =====
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        if (!isEnabled()) {
+            return;
+        }
+        try (Connection connection = replica.getConnection()) {
+            try {
+                probe(connection, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLSyntaxErrorException e) {
+                // MySQL before 8.0.22 and MariaDB only know the old spelling
+                probe(connection, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        } catch (SQLException e) {
+            recordFailure(e);
+        }
+    }
+
+    private void probe(Connection connection, String sql, String lagColumn) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet status = statement.executeQuery(sql)) {
+            if (!status.next()) {
+                // Not configured as a replica (e.g. a second local instance for testing)
+                recordProbe(null, false);
+                return;
+            }
+            long lag = status.getLong(lagColumn);
+            recordProbe(status.wasNull() ? null : lag, true);
+        }
+    }
+
+    /**
+     * Outcome of a probe: lag is null when the instance is standalone or, for a replica,
+     * when its replication threads are stopped.
+     */
+    void recordProbe(Long lag, boolean isReplicating) {
+        boolean nowHealthy = !isReplicating || (lag != null && lag <= maxLagSeconds);
+        if (lag != null) {
+            maxObservedLagSeconds.accumulateAndGet(lag, Math::max);
+        }
+        replicating = isReplicating;
+        lagSeconds = lag;
+        lastCheckedAt = Instant.now();
+        lastError = null;
+        if (nowHealthy != healthy) {
+            if (nowHealthy) {
+                logger.info("✅ Read replica in use (lag: {} s)", lag != null ? lag : "n/a, standalone");
+            } else {
+                logger.warn("⚠️ Read replica bypassed: lag {} s exceeds {} s",
+                        lag != null ? lag : "unknown (replication stopped)", maxLagSeconds);
+            }
+        }
+        healthy = nowHealthy;
+    }
+
+    private void recordFailure(SQLException e) {
+        failedChecks.incrementAndGet();
+        lastCheckedAt = Instant.now();
+        lastError = e.getMessage();
+        if (healthy) {
+            logger.warn("⚠️ Read replica bypassed: lag probe failed: {}", e.getMessage());
+        }
+        healthy = false;
+    }
+
+    // ===== STATS =====
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        if (!isEnabled()) {
+            return stats;
+        }
+        stats.put("healthy", healthy);
+        stats.put("replicating", replicating);
+        stats.put("lagSeconds", lagSeconds);
+        stats.put("maxObservedLagSeconds", maxObservedLagSeconds.get());
+        stats.put("maxLagSeconds", maxLagSeconds);
+        stats.put("lastCheckedAt", lastCheckedAt != null ? lastCheckedAt.toString() : null);
+        stats.put("lastError", lastError);
+        stats.put("failedChecks", failedChecks.get());
+        stats.put("replicaReads", replicaReads.get());
+        stats.put("pinnedReads", pinnedReads.get());
+        stats.put("lagFallbackReads", lagFallbackReads.get());
+        stats.put("pinnedWrites", pinnedWrites.get());
+        stats.put("pinnedUsers", pinnedUntil.size());
+        stats.put("readYourWritesWindowMs", readYourWritesWindowMillis);
+        if (replica instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            stats.put("poolActive", pool.getActiveConnections());
+            stats.put("poolIdle", pool.getIdleConnections());
+            stats.put("poolWaiting", pool.getThreadsAwaitingConnection());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,45 @@
+package com.licentarazu.turismapp.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes each physical connection to the primary or to the read replica pool.
+ *
+ * Read-only transactions go to the replica when ReadReplicaMonitor allows it; read-write
+ * transactions and anything outside a transaction (lazy loading in the view, startup)
+ * go to the primary. The decision is taken when the physical connection is fetched, so
+ * this must sit behind a LazyConnectionDataSourceProxy: Hibernate asks for a connection
+ * as soon as a transaction begins, before Spring has marked it read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadReplicaMonitor monitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadReplicaMonitor monitor) {
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return monitor.useReplica() ? Route.REPLICA : Route.PRIMARY;
+        }
+        monitor.writeTransactionStarted();
+        return Route.PRIMARY;
+    }
+}
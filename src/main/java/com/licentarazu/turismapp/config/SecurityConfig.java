@@ -61,6 +61,7 @@ public class SecurityConfig {
                 // ✅ PUBLIC UNITS ENDPOINTS - HIGHEST PRIORITY for public access
                 .requestMatchers("/api/units/public/**").permitAll()
                 .requestMatchers("/api/units/public").permitAll()
+                .requestMatchers("/api/units/facets").permitAll()
                 
                 // ✅ DEBUG ENDPOINTS (DEV ONLY) - Allow public access for debugging date filtering
                 .requestMatchers("/api/units/debug/**").permitAll()
@@ -69,10 +70,15 @@ public class SecurityConfig {
                 // Public units endpoints - specific endpoints first
                 .requestMatchers("/api/units/search").permitAll()
                 .requestMatchers("/api/units/filter").permitAll()
+                .requestMatchers("/api/units/cards").permitAll()
                 .requestMatchers("/api/units/available").permitAll()
                 .requestMatchers("/api/units/proximity").permitAll()
                 .requestMatchers("/api/units/advanced-filter").permitAll()
+                .requestMatchers("/api/units/flexible-availability").permitAll()
+                .requestMatchers("/api/units/batch").permitAll()
+                .requestMatchers("/api/locations/suggest").permitAll()
                 .requestMatchers("/api/units/{id}/photos").permitAll()
+                .requestMatchers("/api/units/{id}/calendar").permitAll()
                 .requestMatchers("/api/units/{id}").permitAll()
                 .requestMatchers("/api/units").permitAll()
                 
@@ -144,14 +150,20 @@ public class SecurityConfig {
             "Access-Control-Request-Method",
             "Access-Control-Request-Headers",
             "X-Requested-With",
-            "Cache-Control"
+            "Cache-Control",
+            "If-None-Match",
+            "If-Modified-Since",
+            "Idempotency-Key"
         ));
         
         // Expose headers that the frontend can access
         configuration.setExposedHeaders(Arrays.asList(
             "Authorization",
             "Access-Control-Allow-Origin",
-            "Access-Control-Allow-Credentials"
+            "Access-Control-Allow-Credentials",
+            "ETag",
+            "Last-Modified",
+            "Idempotent-Replayed"
         ));
         
         // Allow credentials (important for JWT tokens and cookies)
@@ -15,6 +15,7 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -34,19 +35,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.licentarazu.turismapp.dto.AccommodationUnitDTO;
 import com.licentarazu.turismapp.dto.AccommodationUnitWithPhotosDTO;
+import com.licentarazu.turismapp.dto.AvailabilityCalendarDTO;
 import com.licentarazu.turismapp.dto.ProfitReportDTO;
+import com.licentarazu.turismapp.dto.UnitCardDTO;
+import com.licentarazu.turismapp.dto.UnitPageDTO;
+import com.licentarazu.turismapp.dto.UnitPageRequest;
+import com.licentarazu.turismapp.dto.UnitSearchCriteria;
 import com.licentarazu.turismapp.model.AccommodationPhoto;
 import com.licentarazu.turismapp.model.AccommodationUnit;
+import com.licentarazu.turismapp.model.Amenity;
 import com.licentarazu.turismapp.model.User;
 import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
 import com.licentarazu.turismapp.repository.UserRepository;
 import com.licentarazu.turismapp.service.AccommodationPhotoService;
 import com.licentarazu.turismapp.service.AccommodationUnitService;
+import com.licentarazu.turismapp.service.CatalogVersionService;
+import com.licentarazu.turismapp.service.JsonStreamingService;
 import com.licentarazu.turismapp.service.PdfReportService;
 import com.licentarazu.turismapp.util.AccommodationUnitMapper;
 
@@ -57,23 +67,42 @@ import com.licentarazu.turismapp.util.AccommodationUnitMapper;
                 RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS })
 public class AccommodationUnitController {
 
+    private static final int MAX_CALENDAR_NIGHTS = 731;
+    private static final int MAX_FLEXIBLE_ALTERNATIVES = 10;
+
     private final AccommodationUnitService unitService;
     private final UserRepository userRepository;
     private final AccommodationUnitRepository unitRepository;
     private final AccommodationPhotoService photoService;
     private final PdfReportService pdfReportService;
+    private final CatalogVersionService catalogVersions;
+    private final JsonStreamingService jsonStreamingService;
 
     @Autowired
     public AccommodationUnitController(AccommodationUnitService unitService,
             UserRepository userRepository,
             AccommodationUnitRepository unitRepository,
             AccommodationPhotoService photoService,
-            PdfReportService pdfReportService) {
+            PdfReportService pdfReportService,
+            CatalogVersionService catalogVersions,
+            JsonStreamingService jsonStreamingService) {
         this.unitService = unitService;
         this.userRepository = userRepository;
         this.unitRepository = unitRepository;
         this.photoService = photoService;
         this.pdfReportService = pdfReportService;
+        this.catalogVersions = catalogVersions;
+        this.jsonStreamingService = jsonStreamingService;
+    }
+
+    // ✅ Conditional GET: answers If-None-Match / If-Modified-Since from the version stamp alone.
+    // On a miss the ETag and Last-Modified headers are already set for the full response.
+    private static boolean notModified(WebRequest request, CatalogVersionService.Stamp stamp) {
+        return request.checkNotModified(stamp.getETag(), stamp.getLastModified());
+    }
+
+    private static <T> ResponseEntity<T> notModifiedResponse() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
     }
 
     // ✅ Enhanced unit creation with authentication, ownership, and location
@@ -101,23 +130,66 @@ public class AccommodationUnitController {
         }
     }
 
-    // Returnează toate unitățile
+    // Returnează toate unitățile (paginat cu limit/after; altfel streamed, cu memorie constantă)
     @GetMapping
-    public List<AccommodationUnit> getAllUnits() {
-        return unitService.getAllUnits();
+    public ResponseEntity<?> getAllUnits(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon) {
+        if (limit != null || after != null) {
+            return page(new UnitSearchCriteria(), new UnitPageRequest(sort, order, after, limit, lat, lon));
+        }
+        return jsonStreamingService.jsonArray(unitService::streamAllUnits, AccommodationUnit.class);
     }
 
-    // Caută după locație
+    // Caută după locație (paginat cu limit/after)
     @GetMapping("/search")
-    public List<AccommodationUnit> searchByLocation(@RequestParam String location) {
-        return unitService.searchByLocation(location);
+    public ResponseEntity<?> searchByLocation(
+            @RequestParam String location,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon) {
+        if (limit != null || after != null) {
+            UnitSearchCriteria criteria = new UnitSearchCriteria();
+            criteria.setLocation(location);
+            return page(criteria, new UnitPageRequest(sort, order, after, limit, lat, lon));
+        }
+        return ResponseEntity.ok(unitService.searchByLocation(location));
+    }
+
+    // Keyset page over the catalog index; bad sort/cursor values are client errors
+    private ResponseEntity<?> page(UnitSearchCriteria criteria, UnitPageRequest pageRequest) {
+        try {
+            return ResponseEntity.ok(unitService.getPublicUnitPage(criteria, pageRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ Mai multe unități după ID (favorite, istoric, comparație): 2 interogări în loc de 2 per unitate
+    @GetMapping("/batch")
+    public ResponseEntity<?> getUnitsByIds(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(unitService.getUnitsByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Caută după ID cu fotografii
     @GetMapping("/{id}")
-    public ResponseEntity<AccommodationUnitWithPhotosDTO> getUnitById(@PathVariable Long id) {
+    public ResponseEntity<AccommodationUnitWithPhotosDTO> getUnitById(@PathVariable Long id, WebRequest request) {
+        if (notModified(request, catalogVersions.unit(id))) {
+            return notModifiedResponse();
+        }
         try {
-            Optional<AccommodationUnit> unitOpt = unitService.getById(id);
+            Optional<AccommodationUnit> unitOpt = unitService.getDetailById(id);
             if (unitOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -129,7 +201,7 @@ public class AccommodationUnitController {
                 .toList();
             
             AccommodationUnitWithPhotosDTO response = new AccommodationUnitWithPhotosDTO(unit, photoUrls);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -203,30 +275,80 @@ public class AccommodationUnitController {
 
     // Filtrare după locație, preț, capacitate și tip
     @GetMapping("/filter")
-    public List<AccommodationUnit> filterUnits(@RequestParam(required = false) String location,
+    public ResponseEntity<?> filterUnits(@RequestParam(required = false) String location,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Integer minCapacity,
             @RequestParam(required = false) Integer maxCapacity,
             @RequestParam(required = false) String type,
-            @RequestParam(required = false) Double minRating) {
-        return unitService.getFilteredUnits(location, minPrice, maxPrice, minCapacity, maxCapacity, type, minRating);
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String amenities,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon) {
+        if (limit != null || after != null) {
+            UnitSearchCriteria criteria = new UnitSearchCriteria(null, location, null, type,
+                    minPrice, maxPrice, minCapacity, minRating);
+            criteria.setMaxCapacity(maxCapacity);
+            criteria.setAmenities(amenities);
+            return page(criteria, new UnitPageRequest(sort, order, after, limit, lat, lon));
+        }
+        return ResponseEntity.ok(unitService.getFilteredUnits(location, minPrice, maxPrice, minCapacity, maxCapacity,
+                type, minRating, Amenity.filterMask(amenities)));
+    }
+
+    // ✅ Carduri pentru listă (aceleași filtre ca /filter): doar câmpurile afișate, dintr-o singură interogare
+    @GetMapping("/cards")
+    public ResponseEntity<List<UnitCardDTO>> getUnitCards(@RequestParam(required = false) String location,
+            @RequestParam(required = false) String county,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) Integer maxCapacity,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String amenities) {
+        UnitSearchCriteria criteria = new UnitSearchCriteria(null, location, county, type,
+                minPrice, maxPrice, minCapacity, minRating);
+        criteria.setMaxCapacity(maxCapacity);
+        criteria.setAmenities(amenities);
+        return ResponseEntity.ok(unitService.getUnitCards(criteria));
     }
 
     // Returnează unitățile disponibile într-un interval
     @GetMapping("/available")
-    public List<AccommodationUnit> getAvailableUnits(
+    public ResponseEntity<?> getAvailableUnits(
             @RequestParam("checkIn") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
-            @RequestParam("checkOut") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
-        return unitService.findAvailableUnits(checkIn, checkOut);
+            @RequestParam("checkOut") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon) {
+        if (limit != null || after != null) {
+            UnitSearchCriteria criteria = new UnitSearchCriteria();
+            criteria.setCheckIn(checkIn);
+            criteria.setCheckOut(checkOut);
+            return page(criteria, new UnitPageRequest(sort, order, after, limit, lat, lon));
+        }
+        return ResponseEntity.ok(unitService.findAvailableUnits(checkIn, checkOut));
     }
 
-    // Returnează unitățile de cazare aflate într-o rază (km) față de un oraș dat
+    // Returnează unitățile de cazare aflate într-o rază (km) față de un oraș sau de coordonatele lat/lon.
+    // Cu k: cele mai apropiate k unități; cu sort=distance: rezultatele ordonate după distanță.
     @GetMapping("/proximity")
     public List<AccommodationUnit> getUnitsNearCity(
-            @RequestParam("city") String city,
-            @RequestParam("radius") double radiusKm) {
-        return unitService.findUnitsNearCity(city, radiusKm);
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "lat", required = false) Double latitude,
+            @RequestParam(value = "lon", required = false) Double longitude,
+            @RequestParam(value = "radius", required = false) Double radiusKm,
+            @RequestParam(value = "k", required = false) Integer k,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return unitService.findUnitsNear(latitude, longitude, city, radiusKm, k, "distance".equalsIgnoreCase(sort));
     }
 
     // ✅ Returnează doar unitățile deținute de utilizatorul logat
@@ -296,7 +418,7 @@ public class AccommodationUnitController {
 
     // ✅ Public endpoint for unit search and filtering (used by UnitsListPage.jsx)
     @GetMapping("/public")
-    public ResponseEntity<List<AccommodationUnitDTO>> getPublicUnits(
+    public ResponseEntity<?> getPublicUnits(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String county,
@@ -307,7 +429,18 @@ public class AccommodationUnitController {
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) String amenities,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            WebRequest request) {
+
+        if (notModified(request, catalogVersions.catalog())) {
+            return notModifiedResponse();
+        }
 
         System.out.println("🌐 PUBLIC ENDPOINT ACCESSED - /api/units/public");
         System.out.println("=== PUBLIC UNITS REQUEST DEBUG ===");
@@ -321,58 +454,30 @@ public class AccommodationUnitController {
         System.out.println("Date range: " + checkIn + " to " + checkOut);
         System.out.println("========================================");
         
-        // Debug: Check total units in database first
-        List<AccommodationUnit> allUnits = unitRepository.findAllActiveAndAvailable();
-        System.out.println("📊 TOTAL ACTIVE UNITS IN DB: " + allUnits.size());
-        
-        List<AccommodationUnit> units;
-        
-        // If no filters are provided, get ALL active units
-        if (isNoFiltersProvided(search, location, county, type, minPrice, maxPrice, capacity, minRating, checkIn, checkOut)) {
-            System.out.println("No filters provided, getting all active and available units");
-            units = unitRepository.findAllActiveAndAvailable();
-            System.out.println("Found " + units.size() + " active units");
-        } else {
-            System.out.println("Filters provided, applying repository filtering...");
-            
-            // For search, apply it as location filter if no specific location/county provided
-            String locationFilter = null;
-            if (county != null && !county.isEmpty()) {
-                locationFilter = county;
-                System.out.println("Using county filter: " + county);
-            } else if (location != null && !location.isEmpty()) {
-                locationFilter = location;
-                System.out.println("Using location filter: " + location);
-            } else if (search != null && !search.isEmpty()) {
-                locationFilter = search;
-                System.out.println("Using search as location filter: " + search);
-            }
+        System.out.println("📊 TOTAL ACTIVE UNITS IN CATALOG: " + unitService.getCatalogSize());
+
+        // Catalog filters are answered by the in-memory catalog index (no filters = all active units)
+        UnitSearchCriteria criteria = new UnitSearchCriteria(search, location, county, type,
+                minPrice, maxPrice, capacity, minRating);
+        criteria.setAmenities(amenities);
+        if (criteria.getLocationFilter() != null) {
+            System.out.println("Using location filter: " + criteria.getLocationFilter());
+        }
+        if (criteria.getTextFilter() != null) {
+            System.out.println("Applying additional search filtering for: " + criteria.getTextFilter());
+        }
 
-            units = unitService.getFilteredUnits(
-                    locationFilter,
-                    minPrice,
-                    maxPrice,
-                    capacity,
-                    null, // maxCapacity not needed for this endpoint
-                    type,
-                    minRating
-            );
-            System.out.println("Units after repository filtering: " + units.size());
-            
-            // If search is provided and we haven't used it as location filter, apply additional name/description filtering
-            if (search != null && !search.isEmpty() && !search.equals(locationFilter)) {
-                System.out.println("Applying additional search filtering for: " + search);
-                final String searchTerm = search.toLowerCase();
-                units = units.stream()
-                        .filter(unit -> 
-                            (unit.getName() != null && unit.getName().toLowerCase().contains(searchTerm)) ||
-                            (unit.getDescription() != null && unit.getDescription().toLowerCase().contains(searchTerm)) ||
-                            (unit.getLocation() != null && unit.getLocation().toLowerCase().contains(searchTerm)) ||
-                            (unit.getCounty() != null && unit.getCounty().toLowerCase().contains(searchTerm))
-                        )
-                        .toList();
-                System.out.println("Units after search filtering: " + units.size());
+        // ✅ Keyset pagination: one bounded page plus the cursor of the next one
+        if (limit != null || after != null) {
+            if (checkIn != null && checkOut != null) {
+                if (checkIn.isAfter(checkOut) || checkIn.isBefore(LocalDate.now())) {
+                    System.out.println("❌ Invalid date range for paginated request");
+                    return ResponseEntity.ok(new UnitPageDTO(List.of(), null, sort, order));
+                }
+                criteria.setCheckIn(checkIn);
+                criteria.setCheckOut(checkOut);
             }
+            return page(criteria, new UnitPageRequest(sort, order, after, limit, lat, lon));
         }
 
         // ✅ Apply date-based availability filter if check-in and check-out dates are provided
@@ -389,16 +494,71 @@ public class AccommodationUnitController {
                 return ResponseEntity.ok(List.of()); // Return empty list for past dates
             }
 
-            // Filter units that are available in the given date range
-            units = unitService.filterUnitsByAvailability(units, checkIn, checkOut);
-            System.out.println("📊 Units after date filtering: " + units.size());
+            criteria.setCheckIn(checkIn);
+            criteria.setCheckOut(checkOut);
         }
 
-        // Convert entities to DTOs to prevent circular references
-        List<AccommodationUnitDTO> unitDTOs = AccommodationUnitMapper.toDTOList(units);
-        System.out.println("Returning " + unitDTOs.size() + " units as DTOs");
+        // Catalog filters plus availability, served from the search result cache when possible
+        List<AccommodationUnitDTO> units = unitService.getPublicUnits(criteria);
+
+        System.out.println("Returning " + units.size() + " units as DTOs");
         
-        return ResponseEntity.ok(unitDTOs);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(units);
+    }
+
+    // ✅ Flexible dates: "any 3 nights in July" - free stays per unit in one request; takes the same filters as /public
+    @GetMapping("/flexible-availability")
+    public ResponseEntity<?> getFlexibleAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam int nights,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(defaultValue = "3") int alternatives,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String county,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String amenities) {
+        UnitSearchCriteria criteria = new UnitSearchCriteria(search, location, county, type,
+                minPrice, maxPrice, capacity, minRating);
+        criteria.setAmenities(amenities);
+        try {
+            return ResponseEntity.ok(unitService.findFlexibleAvailability(criteria, from, to, nights, checkIn,
+                    Math.min(alternatives, MAX_FLEXIBLE_ALTERNATIVES)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ Facet counts for the filter sidebar; takes the same filters as /public
+    @GetMapping("/facets")
+    public ResponseEntity<?> getPublicUnitFacets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String county,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String amenities,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        UnitSearchCriteria criteria = new UnitSearchCriteria(search, location, county, type,
+                minPrice, maxPrice, capacity, minRating);
+        criteria.setAmenities(amenities);
+        if (checkIn != null && checkOut != null) {
+            if (!checkIn.isBefore(checkOut)) {
+                return ResponseEntity.badRequest().body("checkOut must be after checkIn");
+            }
+            criteria.setCheckIn(checkIn);
+            criteria.setCheckOut(checkOut);
+        }
+        return ResponseEntity.ok(unitService.getPublicUnitFacets(criteria));
     }
 
     // ✅ Update unit status (for owners)
@@ -517,7 +677,7 @@ public class AccommodationUnitController {
         try {
             List<AccommodationUnit> allUnits = unitRepository.findAll();
             List<AccommodationUnit> availableUnits = unitRepository.findByFiltersWithRating(
-                    null, null, null, null, null, null, null);
+                    null, null, null, null, null, null, null, 0L);
 
             Map<String, Object> debugInfo = new HashMap<>();
             debugInfo.put("totalUnits", allUnits.size());
@@ -680,12 +840,35 @@ public class AccommodationUnitController {
         }
     }
 
+    // ✅ Calendarul de disponibilitate al unei unități (implicit: următoarele 3 luni)
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<?> getUnitCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!unitRepository.existsById(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unit not found");
+        }
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusMonths(3);
+        if (!end.isAfter(start)) {
+            return ResponseEntity.badRequest().body("'to' must be after 'from'");
+        }
+        if (end.toEpochDay() - start.toEpochDay() > MAX_CALENDAR_NIGHTS) {
+            return ResponseEntity.badRequest().body("Calendar range is limited to " + MAX_CALENDAR_NIGHTS + " nights");
+        }
+        return ResponseEntity.ok(new AvailabilityCalendarDTO(id, start, end, unitService.getCalendarRuns(id, start, end)));
+    }
+
     // Endpoint pentru obținerea fotografiilor unei unități
     @GetMapping("/{id}/photos")
-    public ResponseEntity<List<AccommodationPhoto>> getUnitPhotos(@PathVariable Long id) {
+    public ResponseEntity<List<AccommodationPhoto>> getUnitPhotos(@PathVariable Long id, WebRequest request) {
+        if (notModified(request, catalogVersions.unit(id))) {
+            return notModifiedResponse();
+        }
         try {
             List<AccommodationPhoto> photos = photoService.getPhotosByUnitId(id);
-            return ResponseEntity.ok(photos);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(photos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -725,22 +908,6 @@ public class AccommodationUnitController {
         }
     }
 
-    // Helper method to check if no filters are provided
-    private boolean isNoFiltersProvided(String search, String location, String county, String type, 
-                                      Double minPrice, Double maxPrice, Integer capacity, Double minRating,
-                                      LocalDate checkIn, LocalDate checkOut) {
-        return (search == null || search.isEmpty()) &&
-               (location == null || location.isEmpty()) &&
-               (county == null || county.isEmpty()) &&
-               (type == null || type.isEmpty()) &&
-               minPrice == null &&
-               maxPrice == null &&
-               capacity == null &&
-               minRating == null &&
-               checkIn == null &&
-               checkOut == null;
-    }
-
     // Helper method to save photo files and return their URLs
     private List<String> savePhotoFiles(MultipartFile[] photos) throws IOException {
         List<String> photoUrls = new ArrayList<>();
@@ -1,12 +1,19 @@
 package com.licentarazu.turismapp.controller;
 
+import com.licentarazu.turismapp.config.ReadReplicaMonitor;
 import com.licentarazu.turismapp.dto.OwnerApplicationResponse;
 import com.licentarazu.turismapp.model.OwnerApplication;
 import com.licentarazu.turismapp.model.Role;
 import com.licentarazu.turismapp.model.User;
 import com.licentarazu.turismapp.repository.UserRepository;
 import com.licentarazu.turismapp.security.JwtUtil;
+import com.licentarazu.turismapp.service.EmailOutboxService;
+import com.licentarazu.turismapp.service.IdempotencyStore;
 import com.licentarazu.turismapp.service.OwnerApplicationService;
+import com.licentarazu.turismapp.service.ReviewService;
+import com.licentarazu.turismapp.service.SearchResultCache;
+import com.licentarazu.turismapp.service.OwnerDigestService;
+import com.licentarazu.turismapp.service.SmtpTransportPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +25,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -41,6 +49,27 @@ public class AdminController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ReadReplicaMonitor readReplicaMonitor;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private SmtpTransportPool smtpTransportPool;
+
+    @Autowired
+    private OwnerDigestService ownerDigestService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     /**
      * Admin login for dashboard access - requires fresh authentication
      */
@@ -137,6 +166,130 @@ public class AdminController {
         }
     }
 
+    /**
+     * Rebuild the denormalised rating sum/count/average of every unit from the reviews table
+     */
+    @PostMapping("/maintenance/rebuild-ratings")
+    public ResponseEntity<?> rebuildRatingAggregates(Authentication authentication) {
+        try {
+            String email = authentication.getName();
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+            // Verify admin role
+            if (!user.getRole().equals(Role.ADMIN)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Access denied", "message", "Admin access required"));
+            }
+
+            int updatedUnits = reviewService.rebuildRatingAggregates();
+            logger.info("Rating aggregates rebuilt for {} units by {}", updatedUnits, email);
+            return ResponseEntity.ok(Map.of("updatedUnits", updatedUnits));
+
+        } catch (Exception e) {
+            logger.error("Failed to rebuild rating aggregates: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error", "message", "Failed to rebuild rating aggregates"));
+        }
+    }
+
+    /**
+     * Hit/miss/eviction counters of the public search result cache
+     */
+    @GetMapping("/maintenance/search-cache")
+    public ResponseEntity<?> getSearchCacheStats(Authentication authentication) {
+        String email = authentication.getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Verify admin role
+        if (!user.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Access denied", "message", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(searchResultCache.stats());
+    }
+
+    /**
+     * Idempotency-Key store: stored responses, replays and duplicates that waited for the first request
+     */
+    @GetMapping("/maintenance/idempotency")
+    public ResponseEntity<?> getIdempotencyStats(Authentication authentication) {
+        String email = authentication.getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Verify admin role
+        if (!user.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Access denied", "message", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(idempotencyStore.stats());
+    }
+
+    /**
+     * Read replica state: lag, routing counters and replica pool usage
+     */
+    @GetMapping("/maintenance/replica")
+    public ResponseEntity<?> getReadReplicaStats(Authentication authentication) {
+        String email = authentication.getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Verify admin role
+        if (!user.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Access denied", "message", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(readReplicaMonitor.stats());
+    }
+
+    /**
+     * Email outbox: messages per status, the most recent undeliverable ones, SMTP connection reuse
+     * and owner notifications waiting for their digest
+     */
+    @GetMapping("/maintenance/email-outbox")
+    public ResponseEntity<?> getEmailOutboxStats(Authentication authentication) {
+        String email = authentication.getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Verify admin role
+        if (!user.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Access denied", "message", "Admin access required"));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>(emailOutboxService.stats());
+        stats.put("smtp", smtpTransportPool.stats());
+        stats.put("ownerDigests", ownerDigestService.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Retry an email that was moved to DEAD (e.g. after fixing the SMTP credentials)
+     */
+    @PostMapping("/maintenance/email-outbox/{emailId}/requeue")
+    public ResponseEntity<?> requeueEmail(@PathVariable Long emailId, Authentication authentication) {
+        String email = authentication.getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Verify admin role
+        if (!user.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Access denied", "message", "Admin access required"));
+        }
+
+        if (!emailOutboxService.requeue(emailId)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Email " + emailId + " is not in DEAD status"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Email " + emailId + " queued for delivery"));
+    }
+
     /**
      * Approve an owner application
      */
@@ -91,14 +91,9 @@ public class AuthController {
                 
                 // If user exists but is not enabled, resend confirmation email
                 if (!user.getEnabled()) {
-                    // Delete old confirmation tokens for this user
-                    confirmationTokenService.deleteTokensForUser(user);
-                    
-                    // Create new confirmation token and send email
-                    ConfirmationToken confirmationToken = confirmationTokenService.createConfirmationToken(user);
-                    
+                    // Replace old confirmation tokens and send email
                     try {
-                        emailService.sendConfirmationEmail(user.getEmail(), confirmationToken.getToken());
+                        confirmationTokenService.issueConfirmation(user);
                         
                         return ResponseEntity.ok(Map.of(
                             "message", "Email already registered but not confirmed. A new confirmation email has been sent.",
@@ -182,10 +177,8 @@ public class AuthController {
             }
 
             // Create confirmation token and send email
-            ConfirmationToken confirmationToken = confirmationTokenService.createConfirmationToken(savedUser);
-            
             try {
-                emailService.sendConfirmationEmail(savedUser.getEmail(), confirmationToken.getToken());
+                confirmationTokenService.issueConfirmation(savedUser);
                 
                 // Create response
                 UserResponseDTO userResponse = new UserResponseDTO();
@@ -322,11 +315,8 @@ public class AuthController {
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
                 
-                // Create password reset token
-                PasswordResetToken resetToken = passwordResetService.createPasswordResetToken(user);
-                
-                // Send password reset email
-                emailService.sendPasswordResetEmail(user.getEmail(), resetToken.getToken());
+                // Create password reset token and send email
+                passwordResetService.requestPasswordReset(user);
             }
             
             return ResponseEntity.ok(Map.of(
@@ -430,12 +420,9 @@ public class AuthController {
                     ));
             }
             
-            // Delete old tokens and create new one
-            confirmationTokenService.deleteTokensForUser(user);
-            ConfirmationToken confirmationToken = confirmationTokenService.createConfirmationToken(user);
-            
+            // Delete old tokens, create new one and send email
             try {
-                emailService.sendConfirmationEmail(user.getEmail(), confirmationToken.getToken());
+                confirmationTokenService.issueConfirmation(user);
                 
                 return ResponseEntity.ok(Map.of(
                     "message", "Confirmation email has been resent successfully",
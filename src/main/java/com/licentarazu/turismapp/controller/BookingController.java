@@ -7,6 +7,7 @@ import com.licentarazu.turismapp.model.BookingStatus;
 import com.licentarazu.turismapp.dto.BookingRequestDTO;
 import com.licentarazu.turismapp.dto.BookingResponseDTO;
 import com.licentarazu.turismapp.service.BookingService;
+import com.licentarazu.turismapp.service.JsonStreamingService;
 import com.licentarazu.turismapp.repository.UserRepository;
 import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.slf4j.Logger;
@@ -21,7 +23,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -34,13 +35,15 @@ public class BookingController {
     private final BookingService bookingService;
     private final UserRepository userRepository;
     private final AccommodationUnitRepository unitRepository;
+    private final JsonStreamingService jsonStreamingService;
 
     @Autowired
     public BookingController(BookingService bookingService, UserRepository userRepository,
-            AccommodationUnitRepository unitRepository) {
+            AccommodationUnitRepository unitRepository, JsonStreamingService jsonStreamingService) {
         this.bookingService = bookingService;
         this.userRepository = userRepository;
         this.unitRepository = unitRepository;
+        this.jsonStreamingService = jsonStreamingService;
     }
 
     // ✅ Enhanced booking creation with proper DTO handling and debug logging
@@ -140,10 +143,10 @@ public class BookingController {
         }
     }
 
-    // Returnează toate rezervările existente
+    // Returnează toate rezervările existente (streamed, memorie constantă indiferent de numărul lor)
     @GetMapping
-    public List<Booking> getAllBookings() {
-        return bookingService.getAllBookings();
+    public ResponseEntity<StreamingResponseBody> getAllBookings() {
+        return jsonStreamingService.jsonArray(bookingService::streamAllBookings, Booking.class);
     }
 
     // Returnează toate rezervările pentru o unitate de cazare
@@ -200,13 +203,8 @@ public class BookingController {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        // Get owner's units
-        List<AccommodationUnit> ownerUnits = unitRepository.findByOwner(user);
-
-        // Get all bookings for owner's units
-        List<Booking> ownerBookings = ownerUnits.stream()
-                .flatMap(unit -> bookingService.getBookingsByUnit(unit.getId()).stream())
-                .collect(Collectors.toList());
+        // All bookings for the owner's units, in one query
+        List<Booking> ownerBookings = bookingService.getBookingsByOwner(user);
 
         return ResponseEntity.ok(ownerBookings);
     }
@@ -4,6 +4,7 @@ import com.licentarazu.turismapp.model.AccommodationUnit;
 import com.licentarazu.turismapp.model.User;
 import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
 import com.licentarazu.turismapp.repository.UserRepository;
+import com.licentarazu.turismapp.service.CatalogIndexService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,14 +31,17 @@ public class FileUploadController {
 
     private final AccommodationUnitRepository unitRepository;
     private final UserRepository userRepository;
+    private final CatalogIndexService catalogIndex;
     
     // Upload directory
     private final String uploadDir = "uploads/units/";
 
     @Autowired
-    public FileUploadController(AccommodationUnitRepository unitRepository, UserRepository userRepository) {
+    public FileUploadController(AccommodationUnitRepository unitRepository, UserRepository userRepository,
+            CatalogIndexService catalogIndex) {
         this.unitRepository = unitRepository;
         this.userRepository = userRepository;
+        this.catalogIndex = catalogIndex;
     }
 
     @PostMapping("/unit/{unitId}/images")
@@ -95,6 +99,7 @@ public class FileUploadController {
             unit.setImages(currentImages);
             
             AccommodationUnit savedUnit = unitRepository.save(unit);
+            catalogIndex.upsert(savedUnit);
 
             return ResponseEntity.ok(Map.of(
                 "message", "Images uploaded successfully",
@@ -138,7 +143,7 @@ public class FileUploadController {
             if (currentImages != null) {
                 currentImages.remove(imageUrl);
                 unit.setImages(currentImages);
-                unitRepository.save(unit);
+                catalogIndex.upsert(unitRepository.save(unit));
             }
 
             // Try to delete the physical file
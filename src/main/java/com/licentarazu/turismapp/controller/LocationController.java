@@ -0,0 +1,31 @@
+package com.licentarazu.turismapp.controller;
+
+import com.licentarazu.turismapp.service.GazetteerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/locations")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:3000", "http://127.0.0.1:5173", "http://127.0.0.1:5174"}, allowCredentials = "true")
+public class LocationController {
+
+    private static final int MAX_SUGGESTIONS = 25;
+
+    private final GazetteerService gazetteer;
+
+    @Autowired
+    public LocationController(GazetteerService gazetteer) {
+        this.gazetteer = gazetteer;
+    }
+
+    // ✅ Autocomplete localități/județe: prefix, fără diacritice, tolerează o greșeală de tastare
+    @GetMapping("/suggest")
+    public ResponseEntity<List<GazetteerService.Locality>> suggest(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(gazetteer.suggest(q, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+}
@@ -5,6 +5,7 @@ import com.licentarazu.turismapp.model.User;
 import com.licentarazu.turismapp.service.ReviewService;
 import com.licentarazu.turismapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -47,6 +48,23 @@ public class ReviewController {
         }
     }
 
+    // ✅ Delete own review
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteReview(@PathVariable Long id, Authentication authentication) {
+        try {
+            String email = authentication.getName();
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+            reviewService.deleteReview(id, user.getId());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // ✅ Get all reviews for a unit
     @GetMapping("/unit/{unitId}")
     public List<Review> getReviewsByUnit(@PathVariable Long unitId) {
@@ -1,11 +1,18 @@
 package com.licentarazu.turismapp.controller;
 
+import com.licentarazu.turismapp.model.EmailDigestMode;
 import com.licentarazu.turismapp.model.User;
+import com.licentarazu.turismapp.service.JsonStreamingService;
+import com.licentarazu.turismapp.service.OwnerDigestService;
 import com.licentarazu.turismapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -16,10 +23,16 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    // Obține toți utilizatorii
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    private OwnerDigestService ownerDigestService;
+
+    // Obține toți utilizatorii (streamed, memorie constantă indiferent de numărul lor)
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        return jsonStreamingService.jsonArray(userService::streamAllUsers, User.class);
     }
 
     // Înregistrare utilizator nou (cu parolă hashuită)
@@ -40,5 +53,25 @@ public class UserController {
     public Optional<User> getUserByEmail(@PathVariable String email) {
         return userService.getUserByEmail(email);
     }
-}
 
+    // Modul de notificare al proprietarului: un email per rezervare (OFF) sau rezumat HOURLY / DAILY
+    @GetMapping("/me/email-digest")
+    public ResponseEntity<?> getEmailDigest(Authentication authentication) {
+        User user = userService.getUserByEmail(authentication.getName())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return ResponseEntity.ok(Map.of(
+                "mode", user.getEmailDigestMode(),
+                "pendingEvents", ownerDigestService.countPending(user.getId())));
+    }
+
+    // Body: {"mode": "DAILY"}
+    @PutMapping("/me/email-digest")
+    public ResponseEntity<?> updateEmailDigest(@RequestBody Map<String, String> request, Authentication authentication) {
+        try {
+            EmailDigestMode mode = ownerDigestService.updateMode(authentication.getName(), request.get("mode"));
+            return ResponseEntity.ok(Map.of("mode", mode));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -37,6 +37,35 @@ public class AccommodationUnitDTO {
     // Default constructor
     public AccommodationUnitDTO() {}
 
+    // Shallow copy (lists are shared), for changing a DTO that other threads may be reading
+    public AccommodationUnitDTO(AccommodationUnitDTO other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.description = other.description;
+        this.location = other.location;
+        this.county = other.county;
+        this.phone = other.phone;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.pricePerNight = other.pricePerNight;
+        this.capacity = other.capacity;
+        this.available = other.available;
+        this.createdAt = other.createdAt;
+        this.type = other.type;
+        this.rating = other.rating;
+        this.reviewCount = other.reviewCount;
+        this.totalBookings = other.totalBookings;
+        this.monthlyRevenue = other.monthlyRevenue;
+        this.status = other.status;
+        this.images = other.images;
+        this.amenities = other.amenities;
+        this.ownerId = other.ownerId;
+        this.ownerFirstName = other.ownerFirstName;
+        this.ownerLastName = other.ownerLastName;
+        this.ownerEmail = other.ownerEmail;
+        this.photoUrls = other.photoUrls;
+    }
+
     // Getters and setters
     public Long getId() {
         return id;
@@ -0,0 +1,35 @@
+package com.licentarazu.turismapp.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Nopțile din [from, to) ca lungimi de secvențe alternante: [libere, ocupate, libere, ...]
+public class AvailabilityCalendarDTO {
+    private Long unitId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Integer> runs;
+
+    public AvailabilityCalendarDTO(Long unitId, LocalDate from, LocalDate to, List<Integer> runs) {
+        this.unitId = unitId;
+        this.from = from;
+        this.to = to;
+        this.runs = runs;
+    }
+
+    public Long getUnitId() {
+        return unitId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public List<Integer> getRuns() {
+        return runs;
+    }
+}
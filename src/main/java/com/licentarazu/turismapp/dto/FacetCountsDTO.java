@@ -0,0 +1,47 @@
+package com.licentarazu.turismapp.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts for the search sidebar. total is the number of units matching every filter; each
+ * dimension's counts apply all filters except that dimension's own, so they show what the
+ * guest would get by changing just that filter. Rating bands are cumulative ("4+" includes 4.5+).
+ */
+public class FacetCountsDTO {
+    private long total;
+    private Map<String, Long> counties = new TreeMap<>();
+    private Map<String, Long> types = new TreeMap<>();
+    private Map<String, Long> priceBuckets = new LinkedHashMap<>();
+    private Map<String, Long> capacityBuckets = new LinkedHashMap<>();
+    private Map<String, Long> ratingBands = new LinkedHashMap<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCounties() {
+        return counties;
+    }
+
+    public Map<String, Long> getTypes() {
+        return types;
+    }
+
+    public Map<String, Long> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public Map<String, Long> getCapacityBuckets() {
+        return capacityBuckets;
+    }
+
+    public Map<String, Long> getRatingBands() {
+        return ratingBands;
+    }
+}
@@ -0,0 +1,53 @@
+package com.licentarazu.turismapp.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A unit with free stays of the requested length inside a date range. When the guest also
+ * gave exact dates, requestedAvailable says whether those are free; if they are not, the
+ * windows are the free stays closest to them. Otherwise the windows are the earliest free
+ * stays, none overlapping another.
+ */
+public class FlexibleAvailabilityDTO {
+    private AccommodationUnitDTO unit;
+    private Boolean requestedAvailable;
+    private List<StayWindow> windows = new ArrayList<>();
+
+    public FlexibleAvailabilityDTO(AccommodationUnitDTO unit, Boolean requestedAvailable, List<StayWindow> windows) {
+        this.unit = unit;
+        this.requestedAvailable = requestedAvailable;
+        this.windows = windows;
+    }
+
+    public AccommodationUnitDTO getUnit() {
+        return unit;
+    }
+
+    public Boolean getRequestedAvailable() {
+        return requestedAvailable;
+    }
+
+    public List<StayWindow> getWindows() {
+        return windows;
+    }
+
+    public static class StayWindow {
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        public StayWindow(LocalDate checkIn, LocalDate checkOut) {
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        public LocalDate getCheckIn() {
+            return checkIn;
+        }
+
+        public LocalDate getCheckOut() {
+            return checkOut;
+        }
+    }
+}
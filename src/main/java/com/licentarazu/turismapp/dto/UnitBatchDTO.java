@@ -0,0 +1,22 @@
+package com.licentarazu.turismapp.dto;
+
+import java.util.List;
+
+// Rezultatul unui batch lookup: unitățile găsite în ordinea cererii și ID-urile care nu există
+public class UnitBatchDTO {
+    private List<AccommodationUnitWithPhotosDTO> units;
+    private List<Long> missingIds;
+
+    public UnitBatchDTO(List<AccommodationUnitWithPhotosDTO> units, List<Long> missingIds) {
+        this.units = units;
+        this.missingIds = missingIds;
+    }
+
+    public List<AccommodationUnitWithPhotosDTO> getUnits() {
+        return units;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
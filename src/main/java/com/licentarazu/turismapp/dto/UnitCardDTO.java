@@ -0,0 +1,63 @@
+package com.licentarazu.turismapp.dto;
+
+// Câmpurile unui card din listă, citite direct printr-o proiecție (fără entități Hibernate)
+public class UnitCardDTO {
+    private Long id;
+    private String name;
+    private String location;
+    private String county;
+    private Double pricePerNight;
+    private int capacity;
+    private Double rating;
+    private String imageUrl;
+    private String ownerName;
+
+    public UnitCardDTO(Long id, String name, String location, String county, Double pricePerNight,
+            int capacity, Double rating, String imageUrl, String ownerName) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.county = county;
+        this.pricePerNight = pricePerNight;
+        this.capacity = capacity;
+        this.rating = rating;
+        this.imageUrl = imageUrl;
+        this.ownerName = ownerName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getCounty() {
+        return county;
+    }
+
+    public Double getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Double getRating() {
+        return rating;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getOwnerName() {
+        return ownerName;
+    }
+}
@@ -0,0 +1,34 @@
+package com.licentarazu.turismapp.dto;
+
+import java.util.List;
+
+// O pagină din lista de unități; nextCursor este null pe ultima pagină
+public class UnitPageDTO {
+    private List<AccommodationUnitDTO> items;
+    private String nextCursor;
+    private String sort;
+    private String order;
+
+    public UnitPageDTO(List<AccommodationUnitDTO> items, String nextCursor, String sort, String order) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.sort = sort;
+        this.order = order;
+    }
+
+    public List<AccommodationUnitDTO> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,55 @@
+package com.licentarazu.turismapp.dto;
+
+/**
+ * Keyset page request for the unit listings: sort key, direction, the cursor of the
+ * last row already seen (null for the first page) and the page size.
+ * Supported sort keys: createdAt, price, rating, capacity, distance (needs latitude and
+ * longitude), relevance (needs a search term) and rank (weighted mix of relevance, rating,
+ * review count, price fit and distance, see RankingWeights). Ties are broken on id.
+ * Without an explicit sort/order the index picks relevance when searching, createdAt
+ * otherwise, descending for createdAt/rating/relevance/rank and ascending for the rest.
+ */
+public class UnitPageRequest {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private String sort;
+    private String order;
+    private String after;
+    private int limit;
+    private Double latitude;
+    private Double longitude;
+
+    public UnitPageRequest(String sort, String order, String after, Integer limit, Double latitude, Double longitude) {
+        this.sort = sort;
+        this.order = order;
+        this.after = after;
+        this.limit = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+}
@@ -0,0 +1,159 @@
+package com.licentarazu.turismapp.dto;
+
+import java.time.LocalDate;
+
+import com.licentarazu.turismapp.model.Amenity;
+
+/**
+ * Filter parameters accepted by the public unit listing (/api/units/public).
+ * When checkIn/checkOut are set, only units free for the whole stay are returned.
+ */
+public class UnitSearchCriteria {
+    private String search;
+    private String location;
+    private String county;
+    private String type;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer capacity;
+    private Double minRating;
+    private Integer maxCapacity;
+    private String amenities;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    public UnitSearchCriteria() {}
+
+    public UnitSearchCriteria(String search, String location, String county, String type,
+                              Double minPrice, Double maxPrice, Integer capacity, Double minRating) {
+        this.search = search;
+        this.location = location;
+        this.county = county;
+        this.type = type;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.capacity = capacity;
+        this.minRating = minRating;
+    }
+
+    // Same precedence as the repository filter: county, then location
+    public String getLocationFilter() {
+        if (county != null && !county.isEmpty()) {
+            return county;
+        }
+        if (location != null && !location.isEmpty()) {
+            return location;
+        }
+        return null;
+    }
+
+    // Free-text term, matched against name/description/location/county by the full-text index
+    public String getTextFilter() {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        return search;
+    }
+
+    // Getters and setters
+    public String getSearch() {
+        return search;
+    }
+
+    public void setSearch(String search) {
+        this.search = search;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getCounty() {
+        return county;
+    }
+
+    public void setCounty(String county) {
+        this.county = county;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public Double getMinRating() {
+        return minRating;
+    }
+
+    public void setMinRating(Double minRating) {
+        this.minRating = minRating;
+    }
+
+    // Comma-separated amenity codes ("wifi,parking,pool"); a unit must have all of them
+    public String getAmenities() {
+        return amenities;
+    }
+
+    public void setAmenities(String amenities) {
+        this.amenities = amenities;
+    }
+
+    public long getAmenityMask() {
+        return Amenity.filterMask(amenities);
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(Integer maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
+}
@@ -6,6 +6,9 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.licentarazu.turismapp.util.TextNormalizer;
+
+import org.hibernate.annotations.BatchSize;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.CollectionTable;
@@ -18,13 +21,32 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
+// Fetch plans per read use-case. A graph joins at most one collection (they are bags);
+// the other collections, and units referenced from bookings, are loaded in batches.
+@NamedEntityGraph(name = AccommodationUnit.GRAPH_CARD,
+        attributeNodes = @NamedAttributeNode("owner"))
+@NamedEntityGraph(name = AccommodationUnit.GRAPH_DETAIL,
+        attributeNodes = { @NamedAttributeNode("owner"), @NamedAttributeNode("amenities") })
+@NamedEntityGraph(name = AccommodationUnit.GRAPH_OWNER_DASHBOARD,
+        attributeNodes = { @NamedAttributeNode("owner"), @NamedAttributeNode("images") })
+@BatchSize(size = AccommodationUnit.FETCH_BATCH_SIZE)
 @Entity
 @Table(name = "accommodation_units")
 public class AccommodationUnit {
 
+    public static final String GRAPH_CARD = "AccommodationUnit.card";
+    public static final String GRAPH_DETAIL = "AccommodationUnit.detail";
+    public static final String GRAPH_OWNER_DASHBOARD = "AccommodationUnit.ownerDashboard";
+
+    public static final int FETCH_BATCH_SIZE = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,6 +58,12 @@ public class AccommodationUnit {
 
     private String location;
 
+    // Folded form of location (see TextNormalizer.normalizeLocation); one property per address,
+    // enforced by ux_accommodation_units_normalized_location (migration_normalized_location.sql)
+    @JsonIgnore
+    @Column(name = "normalized_location")
+    private String normalizedLocation;
+
     private String county; // County/Județ field
     
     private String phone; // Contact phone number
@@ -55,11 +83,18 @@ public class AccommodationUnit {
     private String type; // ex: "Hotel", "Cabană", "Apartament"
 
     // Additional fields for frontend compatibility
-    @Column(nullable = false)
+    // Rating aggregates are only written by the increment UPDATEs in AccommodationUnitRepository
+    // (updatable = false), so saving a stale unit entity can never overwrite them
+    @Column(nullable = false, updatable = false)
     private Double rating = 0.0;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer reviewCount = 0;
+
+    // Suma ratingurilor; rating = ratingSum / reviewCount
+    @JsonIgnore
+    @Column(nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long ratingSum = 0L;
     
     @Column(nullable = false)
     private Integer totalBookings = 0;
@@ -71,15 +106,22 @@ public class AccommodationUnit {
     private String status = "active"; // Default to active
 
     @ElementCollection
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @CollectionTable(name = "accommodation_unit_images", joinColumns = @JoinColumn(name = "accommodation_unit_id"))
     @Column(name = "image_url")
     private List<String> images = new ArrayList<>();
 
     @ElementCollection
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @CollectionTable(name = "accommodation_unit_amenities", joinColumns = @JoinColumn(name = "accommodation_unit_id"))
     @Column(name = "amenity")
     private List<String> amenities = new ArrayList<>();
 
+    // Bitmask of the amenities (see Amenity), kept in sync with the list above for (mask & ?) = ? filtering
+    @JsonIgnore
+    @Column(name = "amenity_mask", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long amenityMask = 0L;
+
     @ManyToOne(optional = false)
     @JoinColumn(name = "owner_id", nullable = false)
     @JsonIgnore // Prevent serialization of owner to avoid circular references
@@ -94,6 +136,7 @@ public class AccommodationUnit {
     private List<Review> reviews = new ArrayList<>();
 
     @OneToMany(mappedBy = "accommodationUnit", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @JsonIgnore // Prevent serialization of photos to avoid circular references
     private List<AccommodationPhoto> photos = new ArrayList<>();
 
@@ -147,6 +190,11 @@ public class AccommodationUnit {
 
     public void setLocation(String location) {
         this.location = location;
+        this.normalizedLocation = TextNormalizer.normalizeLocation(location);
+    }
+
+    public String getNormalizedLocation() {
+        return normalizedLocation;
     }
 
     public String getCounty() {
@@ -237,6 +285,14 @@ public class AccommodationUnit {
         this.reviewCount = reviewCount;
     }
 
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
     public Integer getTotalBookings() {
         return totalBookings;
     }
@@ -275,6 +331,19 @@ public class AccommodationUnit {
 
     public void setAmenities(List<String> amenities) {
         this.amenities = amenities;
+        this.amenityMask = Amenity.toMask(amenities);
+    }
+
+    public long getAmenityMask() {
+        return amenityMask;
+    }
+
+    // Also covers in-place changes to the amenities list and entities bound without setters
+    @PrePersist
+    @PreUpdate
+    void syncDerivedColumns() {
+        this.amenityMask = Amenity.toMask(amenities);
+        this.normalizedLocation = TextNormalizer.normalizeLocation(location);
     }
 
     public User getOwner() {
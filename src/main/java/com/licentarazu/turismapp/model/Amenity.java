@@ -0,0 +1,84 @@
+package com.licentarazu.turismapp.model;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Fixed amenity dictionary; each amenity owns one bit of AccommodationUnit.amenityMask.
+ * The bit is the ordinal, so new amenities must only ever be appended (max 63).
+ */
+public enum Amenity {
+    WIFI("wifi"),
+    PARKING("parking"),
+    KITCHEN("kitchen"),
+    TV("tv"),
+    AIR_CONDITIONING("air_conditioning"),
+    BATHROOM("bathroom"),
+    BALCONY("balcony"),
+    HEATING("heating"),
+    POOL("pool"),
+    SPA("spa"),
+    GYM("gym"),
+    RESTAURANT("restaurant");
+
+    // Never set on a unit: a filter containing an unknown amenity matches nothing
+    public static final long UNKNOWN_BIT = 1L << 63;
+
+    private final String code;
+
+    Amenity(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    // "Air Conditioning", "air-conditioning" and "air_conditioning" are the same amenity
+    public static Amenity fromCode(String value) {
+        if (value == null) {
+            return null;
+        }
+        String code = value.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        for (Amenity amenity : values()) {
+            if (amenity.code.equals(code)) {
+                return amenity;
+            }
+        }
+        return null;
+    }
+
+    // Mask of a unit's amenities; values outside the dictionary are not encoded
+    public static long toMask(Collection<String> amenities) {
+        long mask = 0L;
+        if (amenities != null) {
+            for (String value : amenities) {
+                Amenity amenity = fromCode(value);
+                if (amenity != null) {
+                    mask |= amenity.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    // Mask required by a comma-separated filter such as "wifi,parking,pool" (0 = no filter)
+    public static long filterMask(String csv) {
+        long mask = 0L;
+        if (csv == null || csv.isBlank()) {
+            return mask;
+        }
+        for (String value : csv.split(",")) {
+            if (value.isBlank()) {
+                continue;
+            }
+            Amenity amenity = fromCode(value);
+            mask |= amenity != null ? amenity.bit() : UNKNOWN_BIT;
+        }
+        return mask;
+    }
+}
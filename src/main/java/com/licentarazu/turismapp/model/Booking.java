@@ -4,9 +4,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+// Booking lists map the unit (and its owner) of every row: join them in the same statement
+@NamedEntityGraph(name = Booking.GRAPH_LIST,
+        attributeNodes = @NamedAttributeNode(value = "accommodationUnit", subgraph = "unit"),
+        subgraphs = @NamedSubgraph(name = "unit", attributeNodes = @NamedAttributeNode("owner")))
 @Entity
 public class Booking {
 
+    public static final String GRAPH_LIST = "Booking.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
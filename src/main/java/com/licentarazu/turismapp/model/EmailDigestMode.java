@@ -0,0 +1,7 @@
+package com.licentarazu.turismapp.model;
+
+public enum EmailDigestMode {
+    OFF,      // One email per booking / cancellation (default)
+    HOURLY,   // Owner notifications grouped into at most one summary per hour
+    DAILY     // Owner notifications grouped into one summary per day
+}
@@ -0,0 +1,8 @@
+package com.licentarazu.turismapp.model;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
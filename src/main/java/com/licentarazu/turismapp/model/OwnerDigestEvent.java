@@ -0,0 +1,94 @@
+package com.licentarazu.turismapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A booking or cancellation waiting to be reported to its owner in the next digest email.
+ *
+ * The line is rendered when the event happens (a snapshot of the booking), so flushing a
+ * digest does not reload bookings. ownerId is a plain column: events of a deleted owner
+ * are dropped at the next flush.
+ */
+@Entity
+@Table(name = "owner_digest_events")
+public class OwnerDigestEvent {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String CANCELLATION = "CANCELLATION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    private Long bookingId;
+
+    // BOOKING or CANCELLATION
+    @Column(nullable = false, length = 32)
+    private String kind;
+
+    @Column(nullable = false, length = 1000)
+    private String line;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public OwnerDigestEvent() {
+    }
+
+    public OwnerDigestEvent(Long ownerId, Long bookingId, String kind, String line) {
+        this.ownerId = ownerId;
+        this.bookingId = bookingId;
+        this.kind = kind;
+        this.line = line;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public void setLine(String line) {
+        this.line = line;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
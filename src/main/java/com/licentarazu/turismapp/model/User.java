@@ -33,6 +33,11 @@ public class User {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OwnerStatus ownerStatus = OwnerStatus.NONE;
+
+    // Booking/cancellation emails for this user's properties: one per event or a periodic summary
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailDigestMode emailDigestMode = EmailDigestMode.OFF;
     
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
@@ -118,6 +123,14 @@ public class User {
         this.ownerStatus = ownerStatus;
     }
 
+    public EmailDigestMode getEmailDigestMode() {
+        return emailDigestMode;
+    }
+
+    public void setEmailDigestMode(EmailDigestMode emailDigestMode) {
+        this.emailDigestMode = emailDigestMode;
+    }
+
     public List<Review> getReviews() {
         return reviews;
     }
@@ -1,5 +1,6 @@
 package com.licentarazu.turismapp.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,9 @@ import com.licentarazu.turismapp.model.AccommodationPhoto;
 public interface AccommodationPhotoRepository extends JpaRepository<AccommodationPhoto, Long> {
     
     List<AccommodationPhoto> findByAccommodationUnitId(Long accommodationUnitId);
+
+    // Photos of several units in one IN query, grouped by unit and in insertion order within a unit
+    List<AccommodationPhoto> findByAccommodationUnitIdInOrderByAccommodationUnitIdAscIdAsc(Collection<Long> accommodationUnitIds);
     
     void deleteByAccommodationUnitId(Long accommodationUnitId);
     
@@ -1,17 +1,36 @@
 package com.licentarazu.turismapp.repository;
 
+import com.licentarazu.turismapp.dto.UnitCardDTO;
 import com.licentarazu.turismapp.model.AccommodationUnit;
+import com.licentarazu.turismapp.model.BookingStatus;
+import com.licentarazu.turismapp.model.ReservationStatus;
 import com.licentarazu.turismapp.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface AccommodationUnitRepository extends JpaRepository<AccommodationUnit, Long> {
 
+    // Location uniqueness probes, served by the unique index on normalized_location
+    boolean existsByNormalizedLocation(String normalizedLocation);
+
+    boolean existsByNormalizedLocationAndIdNot(String normalizedLocation, Long id);
+
+    @EntityGraph(AccommodationUnit.GRAPH_CARD)
     @Query("SELECT DISTINCT a FROM AccommodationUnit a " +
             "LEFT JOIN FETCH a.photos " +
             "WHERE a.available = true AND a.status = 'active' " +
@@ -21,8 +40,8 @@ public interface AccommodationUnitRepository extends JpaRepository<Accommodation
             "AND (:minCapacity IS NULL OR a.capacity >= :minCapacity) " +
             "AND (:maxCapacity IS NULL OR a.capacity <= :maxCapacity) " +
             "AND (:type IS NULL OR :type = '' OR a.type = :type) " +
-            "AND (:minRating IS NULL OR " +
-            "     (SELECT COALESCE(AVG(r.rating), 0) FROM Review r WHERE r.accommodationUnit = a) >= :minRating)")
+            "AND (:minRating IS NULL OR a.rating >= :minRating) " +
+            "AND (:amenityMask = 0 OR bitand(a.amenityMask, :amenityMask) = :amenityMask)")
     List<AccommodationUnit> findByFiltersWithRating(
             @Param("location") String location,
             @Param("minPrice") Double minPrice,
@@ -30,26 +49,151 @@ public interface AccommodationUnitRepository extends JpaRepository<Accommodation
             @Param("minCapacity") Integer minCapacity,
             @Param("maxCapacity") Integer maxCapacity,
             @Param("type") String type,
-            @Param("minRating") Double minRating
+            @Param("minRating") Double minRating,
+            @Param("amenityMask") long amenityMask
+    );
+
+    // Same filters, projected straight to card fields: one statement, no managed entities.
+    // The element collection has no order column, so the card image is the smallest image URL.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.licentarazu.turismapp.dto.UnitCardDTO(a.id, a.name, a.location, a.county, " +
+            "a.pricePerNight, a.capacity, a.rating, " +
+            "(SELECT MIN(img) FROM AccommodationUnit u JOIN u.images img WHERE u.id = a.id), " +
+            "TRIM(CONCAT(COALESCE(o.firstName, ''), ' ', COALESCE(o.lastName, '')))) " +
+            "FROM AccommodationUnit a JOIN a.owner o " +
+            "WHERE a.available = true AND a.status = 'active' " +
+            "AND (:location IS NULL OR :location = '' OR LOWER(a.location) LIKE LOWER(CONCAT('%', :location, '%')) OR LOWER(a.county) LIKE LOWER(CONCAT('%', :location, '%'))) " +
+            "AND (:minPrice IS NULL OR a.pricePerNight >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR a.pricePerNight <= :maxPrice) " +
+            "AND (:minCapacity IS NULL OR a.capacity >= :minCapacity) " +
+            "AND (:maxCapacity IS NULL OR a.capacity <= :maxCapacity) " +
+            "AND (:type IS NULL OR :type = '' OR a.type = :type) " +
+            "AND (:minRating IS NULL OR a.rating >= :minRating) " +
+            "AND (:amenityMask = 0 OR bitand(a.amenityMask, :amenityMask) = :amenityMask) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<UnitCardDTO> findCardsByFilters(
+            @Param("location") String location,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("minCapacity") Integer minCapacity,
+            @Param("maxCapacity") Integer maxCapacity,
+            @Param("type") String type,
+            @Param("minRating") Double minRating,
+            @Param("amenityMask") long amenityMask
     );
 
     List<AccommodationUnit> findByLocationContainingIgnoreCase(String location);
 
+    @EntityGraph(AccommodationUnit.GRAPH_OWNER_DASHBOARD)
     List<AccommodationUnit> findByOwner(User owner);
+
+    // Unit detail page: owner and amenities in one statement
+    @EntityGraph(AccommodationUnit.GRAPH_DETAIL)
+    Optional<AccommodationUnit> findDetailById(Long id);
+
+    // Several detail pages at once (batch lookup): one IN query with the same fetch plan
+    @EntityGraph(AccommodationUnit.GRAPH_DETAIL)
+    List<AccommodationUnit> findDetailByIdIn(Collection<Long> ids);
     
     // Find all active and available units for public browsing with photos
+    @EntityGraph(AccommodationUnit.GRAPH_CARD)
     @Query("SELECT DISTINCT a FROM AccommodationUnit a LEFT JOIN FETCH a.photos WHERE a.available = true AND a.status = 'active' ORDER BY a.createdAt DESC")
     List<AccommodationUnit> findAllActiveAndAvailable();
     
     // Find all units by owner including inactive ones with photos
+    @EntityGraph(AccommodationUnit.GRAPH_CARD)
     @Query("SELECT DISTINCT a FROM AccommodationUnit a LEFT JOIN FETCH a.photos WHERE a.owner = :owner ORDER BY a.createdAt DESC")
     List<AccommodationUnit> findAllByOwnerOrdered(@Param("owner") User owner);
     
     // Find all active and available units with photos
+    @EntityGraph(AccommodationUnit.GRAPH_CARD)
     @Query("SELECT DISTINCT a FROM AccommodationUnit a LEFT JOIN FETCH a.photos WHERE a.available = true AND a.status = 'active' ORDER BY a.createdAt DESC")
     List<AccommodationUnit> findAllActiveUnits();
+
+    // Same units, read row by row for streamed responses (photos are not part of the JSON)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT a FROM AccommodationUnit a WHERE a.available = true AND a.status = 'active' ORDER BY a.createdAt DESC")
+    Stream<AccommodationUnit> streamAllActiveUnits();
     
     // Find units by owner with proper ordering and photos
+    @EntityGraph(AccommodationUnit.GRAPH_CARD)
     @Query("SELECT DISTINCT a FROM AccommodationUnit a LEFT JOIN FETCH a.photos WHERE a.owner = :owner ORDER BY a.createdAt DESC")
     List<AccommodationUnit> findByOwnerOrderByCreatedAtDesc(@Param("owner") User owner);
+
+    // Apply one review insert (+rating, +1) or delete (-rating, -1) to the unit's rating aggregates.
+    // rating is assigned first so it is computed from the pre-update values on every database
+    // (MySQL evaluates single-table SET assignments left to right).
+    @Modifying
+    @Query("UPDATE AccommodationUnit a SET " +
+            "a.rating = CASE WHEN a.reviewCount + :countDelta > 0 " +
+            "     THEN (a.ratingSum + :ratingDelta) * 1.0 / (a.reviewCount + :countDelta) ELSE 0.0 END, " +
+            "a.ratingSum = a.ratingSum + :ratingDelta, " +
+            "a.reviewCount = a.reviewCount + :countDelta " +
+            "WHERE a.id = :unitId")
+    int applyRatingDelta(@Param("unitId") Long unitId,
+                         @Param("ratingDelta") long ratingDelta,
+                         @Param("countDelta") int countDelta);
+
+    // Recompute every unit's rating aggregates from the reviews table (one-off rebuild)
+    @Modifying
+    @Query("UPDATE AccommodationUnit a SET " +
+            "a.ratingSum = COALESCE((SELECT SUM(r.rating) FROM Review r WHERE r.accommodationUnit = a), 0), " +
+            "a.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.accommodationUnit = a), " +
+            "a.rating = COALESCE((SELECT AVG(r.rating) FROM Review r WHERE r.accommodationUnit = a), 0.0)")
+    int rebuildRatingAggregates();
+
+    @Query("SELECT a.rating FROM AccommodationUnit a WHERE a.id = :unitId")
+    Double findRatingById(@Param("unitId") Long unitId);
+
+    // Row lock on one unit until the end of the transaction (booking admission); the entity is not loaded
+    @Query(value = "SELECT id FROM accommodation_units WHERE id = :unitId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("unitId") Long unitId);
+
+    // [id, latitude, longitude] of every unit with coordinates, for the spatial index
+    @Query("SELECT a.id, a.latitude, a.longitude FROM AccommodationUnit a " +
+            "WHERE a.latitude IS NOT NULL AND a.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+
+    // Availability anti-join: ids from the candidate set with no overlapping booking or reservation.
+    // Two stays overlap when (checkIn < otherCheckOut) AND (checkOut > otherCheckIn).
+    @Query("SELECT a.id FROM AccommodationUnit a WHERE a.id IN :unitIds " +
+            "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.accommodationUnit = a " +
+            "     AND b.status IN :bookingStatuses AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn) " +
+            "AND NOT EXISTS (SELECT 1 FROM Reservation r WHERE r.unit = a " +
+            "     AND r.status IN :reservationStatuses AND r.startDate < :checkOut AND r.endDate > :checkIn)")
+    List<Long> findAvailableUnitIds(
+            @Param("unitIds") Collection<Long> unitIds,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("bookingStatuses") Collection<BookingStatus> bookingStatuses,
+            @Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses
+    );
+
+    // One unit, ignoring the reservation being re-admitted (a status change must not conflict with itself)
+    @Query("SELECT a.id FROM AccommodationUnit a WHERE a.id = :unitId " +
+            "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.accommodationUnit = a " +
+            "     AND b.status IN :bookingStatuses AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn) " +
+            "AND NOT EXISTS (SELECT 1 FROM Reservation r WHERE r.unit = a AND r.id <> :excludedReservationId " +
+            "     AND r.status IN :reservationStatuses AND r.startDate < :checkOut AND r.endDate > :checkIn)")
+    List<Long> findIfAvailableExcludingReservation(
+            @Param("unitId") Long unitId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("bookingStatuses") Collection<BookingStatus> bookingStatuses,
+            @Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses,
+            @Param("excludedReservationId") Long excludedReservationId
+    );
+
+    // Same anti-join over the whole catalog (units marked available)
+    @Query("SELECT a FROM AccommodationUnit a WHERE a.available = true " +
+            "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.accommodationUnit = a " +
+            "     AND b.status IN :bookingStatuses AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn) " +
+            "AND NOT EXISTS (SELECT 1 FROM Reservation r WHERE r.unit = a " +
+            "     AND r.status IN :reservationStatuses AND r.startDate < :checkOut AND r.endDate > :checkIn)")
+    List<AccommodationUnit> findAvailableUnits(
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("bookingStatuses") Collection<BookingStatus> bookingStatuses,
+            @Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses
+    );
 }
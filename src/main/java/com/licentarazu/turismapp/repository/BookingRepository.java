@@ -4,17 +4,33 @@ import com.licentarazu.turismapp.model.Booking;
 import com.licentarazu.turismapp.model.BookingStatus;
 import com.licentarazu.turismapp.model.AccommodationUnit;
 import com.licentarazu.turismapp.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Listele de rezervări citesc unitatea și proprietarul fiecărui rând: se încarcă în același SELECT
+    @Override
+    @EntityGraph(Booking.GRAPH_LIST)
+    List<Booking> findAll();
+
+    // Toate rezervările, citite rând cu rând pentru răspunsuri streamed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT b FROM Booking b")
+    Stream<Booking> streamAll();
+
     // Returnează rezervările care se suprapun cu intervalul dat
     List<Booking> findByAccommodationUnitAndCheckOutDateAfterAndCheckInDateBefore(
             AccommodationUnit accommodationUnit,
@@ -30,13 +46,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     );
 
     // Find all bookings for a specific accommodation unit
+    @EntityGraph(Booking.GRAPH_LIST)
     List<Booking> findByAccommodationUnit(AccommodationUnit accommodationUnit);
 
+    @EntityGraph(Booking.GRAPH_LIST)
+    List<Booking> findByAccommodationUnit_Id(Long unitId);
+
     // Find bookings by owner (through accommodation unit)
+    @EntityGraph(Booking.GRAPH_LIST)
     @Query("SELECT b FROM Booking b WHERE b.accommodationUnit.owner = :owner")
     List<Booking> findByOwner(@Param("owner") User owner);
     
     // Find bookings by guest email
+    @EntityGraph(Booking.GRAPH_LIST)
     List<Booking> findByGuestEmail(String guestEmail);
     
     // Status-based queries for profit calculations
@@ -64,4 +86,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     // Find confirmed/completed bookings for accommodation unit
     List<Booking> findByAccommodationUnitAndStatusIn(AccommodationUnit accommodationUnit, List<BookingStatus> statuses);
+
+    // Booked intervals overlapping [from, to) for the availability calendar: [unitId, checkIn, checkOut]
+    @Query("SELECT b.accommodationUnit.id, b.checkInDate, b.checkOutDate FROM Booking b " +
+            "WHERE b.status IN :statuses AND b.checkInDate < :to AND b.checkOutDate > :from")
+    List<Object[]> findStayIntervals(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("statuses") List<BookingStatus> statuses);
+
+    @Query("SELECT b.accommodationUnit.id, b.checkInDate, b.checkOutDate FROM Booking b " +
+            "WHERE b.accommodationUnit.id = :unitId AND b.status IN :statuses AND b.checkInDate < :to AND b.checkOutDate > :from")
+    List<Object[]> findStayIntervalsByUnit(@Param("unitId") Long unitId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to, @Param("statuses") List<BookingStatus> statuses);
 }
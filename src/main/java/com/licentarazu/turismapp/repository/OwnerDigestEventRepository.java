@@ -0,0 +1,21 @@
+package com.licentarazu.turismapp.repository;
+
+import com.licentarazu.turismapp.model.OwnerDigestEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OwnerDigestEventRepository extends JpaRepository<OwnerDigestEvent, Long> {
+
+    long countByOwnerId(Long ownerId);
+
+    // Held by the flushing transaction, so concurrent flushes of one owner send each event once
+    @Query(value = "SELECT * FROM owner_digest_events WHERE owner_id = :ownerId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<OwnerDigestEvent> lockByOwnerId(@Param("ownerId") Long ownerId);
+
+    // [ownerId, oldest event time] for every owner with a pending digest
+    @Query("SELECT e.ownerId, MIN(e.createdAt) FROM OwnerDigestEvent e GROUP BY e.ownerId")
+    List<Object[]> findPendingOwners();
+}
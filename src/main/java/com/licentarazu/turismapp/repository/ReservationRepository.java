@@ -1,6 +1,7 @@
 package com.licentarazu.turismapp.repository;
 
 import com.licentarazu.turismapp.model.Reservation;
+import com.licentarazu.turismapp.model.ReservationStatus;
 import com.licentarazu.turismapp.dto.MonthlyProfitDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -32,4 +33,15 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             "GROUP BY YEAR(r.startDate), MONTH(r.startDate)")
     List<MonthlyProfitDTO> findMonthlyProfitsByUnitId(@Param("unitId") Long unitId);
 
+    // Intervale rezervate care se suprapun cu [from, to), pentru calendarul de disponibilitate: [unitId, start, end]
+    @Query("SELECT r.unit.id, r.startDate, r.endDate FROM Reservation r " +
+            "WHERE r.status IN :statuses AND r.startDate < :to AND r.endDate > :from")
+    List<Object[]> findStayIntervals(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("statuses") List<ReservationStatus> statuses);
+
+    @Query("SELECT r.unit.id, r.startDate, r.endDate FROM Reservation r " +
+            "WHERE r.unit.id = :unitId AND r.status IN :statuses AND r.startDate < :to AND r.endDate > :from")
+    List<Object[]> findStayIntervalsByUnit(@Param("unitId") Long unitId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to, @Param("statuses") List<ReservationStatus> statuses);
+
 }
@@ -1,6 +1,9 @@
 package com.licentarazu.turismapp.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -9,31 +12,55 @@ import org.springframework.transaction.annotation.Transactional;
 import com.licentarazu.turismapp.model.AccommodationPhoto;
 import com.licentarazu.turismapp.repository.AccommodationPhotoRepository;
 
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
 @Service
 @Transactional
 public class AccommodationPhotoService {
     
     @Autowired
     private AccommodationPhotoRepository photoRepository;
+
+    @Autowired
+    private CatalogVersionService catalogVersions;
     
     public List<AccommodationPhoto> getPhotosByUnitId(Long unitId) {
         return photoRepository.findByAccommodationUnitId(unitId);
     }
     
+    // Photo URLs of several units with one query, keyed by unit id
+    public Map<Long, List<String>> getPhotoUrlsByUnitIds(Collection<Long> unitIds) {
+        return photoRepository.findByAccommodationUnitIdInOrderByAccommodationUnitIdAscIdAsc(unitIds).stream()
+                .collect(Collectors.groupingBy(AccommodationPhoto::getAccommodationUnitId,
+                        Collectors.mapping(AccommodationPhoto::getPhotoUrl, Collectors.toList())));
+    }
+
     public AccommodationPhoto savePhoto(AccommodationPhoto photo) {
-        return photoRepository.save(photo);
+        AccommodationPhoto savedPhoto = photoRepository.save(photo);
+        photosChanged(savedPhoto.getAccommodationUnitId());
+        return savedPhoto;
     }
     
     public void savePhotos(List<AccommodationPhoto> photos) {
         photoRepository.saveAll(photos);
+        photos.stream().map(AccommodationPhoto::getAccommodationUnitId).distinct().forEach(this::photosChanged);
     }
     
     public void deletePhotosByUnitId(Long unitId) {
         photoRepository.deleteByAccommodationUnitId(unitId);
+        photosChanged(unitId);
     }
     
     public void deletePhoto(Long photoId) {
-        photoRepository.deleteById(photoId);
+        photoRepository.findById(photoId).ifPresent(photo -> {
+            photoRepository.delete(photo);
+            photosChanged(photo.getAccommodationUnitId());
+        });
+    }
+
+    // New ETag for /api/units/{id} and /api/units/{id}/photos once the change is committed
+    private void photosChanged(Long unitId) {
+        afterCommit(() -> catalogVersions.unitChanged(unitId));
     }
     
     public long countPhotosByUnitId(Long unitId) {
@@ -3,12 +3,21 @@ package com.licentarazu.turismapp.service;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,35 +25,60 @@ import com.licentarazu.turismapp.model.AccommodationPhoto;
 import com.licentarazu.turismapp.model.AccommodationUnit;
 import com.licentarazu.turismapp.model.Booking;
 import com.licentarazu.turismapp.model.BookingStatus;
-import com.licentarazu.turismapp.model.Reservation;
-import com.licentarazu.turismapp.model.ReservationStatus;
 import com.licentarazu.turismapp.model.User;
 import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
 import com.licentarazu.turismapp.repository.BookingRepository;
 import com.licentarazu.turismapp.repository.ReservationRepository;
-import com.licentarazu.turismapp.util.GeoUtils;
+import com.licentarazu.turismapp.util.AccommodationUnitMapper;
+import com.licentarazu.turismapp.util.TextNormalizer;
+import com.licentarazu.turismapp.dto.AccommodationUnitDTO;
+import com.licentarazu.turismapp.dto.AccommodationUnitWithPhotosDTO;
+import com.licentarazu.turismapp.dto.FacetCountsDTO;
+import com.licentarazu.turismapp.dto.FlexibleAvailabilityDTO;
 import com.licentarazu.turismapp.dto.ProfitReportDTO;
+import com.licentarazu.turismapp.dto.UnitBatchDTO;
+import com.licentarazu.turismapp.dto.UnitCardDTO;
+import com.licentarazu.turismapp.dto.UnitPageDTO;
+import com.licentarazu.turismapp.dto.UnitPageRequest;
+import com.licentarazu.turismapp.dto.UnitSearchCriteria;
 
 @Service
 public class AccommodationUnitService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AccommodationUnitService.class);
+
     private final AccommodationUnitRepository accommodationUnitRepository;
     private final BookingRepository bookingRepository;
     private final ReservationRepository reservationRepository;
-    private final CityCoordinatesService cityCoordinatesService;
+    private final GazetteerService gazetteer;
     private final AccommodationPhotoService photoService;
+    private final CatalogIndexService catalogIndex;
+    private final AvailabilityService availabilityService;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final SpatialIndexService spatialIndex;
+    private final SearchResultCache searchCache;
 
     @Autowired
     public AccommodationUnitService(AccommodationUnitRepository accommodationUnitRepository,
             BookingRepository bookingRepository,
             ReservationRepository reservationRepository,
-            CityCoordinatesService cityCoordinatesService,
-            AccommodationPhotoService photoService) {
+            GazetteerService gazetteer,
+            AccommodationPhotoService photoService,
+            CatalogIndexService catalogIndex,
+            AvailabilityService availabilityService,
+            AvailabilityCalendar availabilityCalendar,
+            SpatialIndexService spatialIndex,
+            SearchResultCache searchCache) {
         this.accommodationUnitRepository = accommodationUnitRepository;
         this.bookingRepository = bookingRepository;
         this.reservationRepository = reservationRepository;
-        this.cityCoordinatesService = cityCoordinatesService;
+        this.gazetteer = gazetteer;
         this.photoService = photoService;
+        this.catalogIndex = catalogIndex;
+        this.availabilityService = availabilityService;
+        this.availabilityCalendar = availabilityCalendar;
+        this.spatialIndex = spatialIndex;
+        this.searchCache = searchCache;
     }
 
     // ✅ Enhanced unit creation with location uniqueness validation
@@ -53,44 +87,83 @@ public class AccommodationUnitService {
         validateLocationUniqueness(unit.getLocation());
 
         unit.setCreatedAt(LocalDate.now());
-        return accommodationUnitRepository.save(unit);
+        AccommodationUnit savedUnit = saveUnit(unit);
+        catalogIndex.upsert(savedUnit);
+        spatialIndex.upsert(savedUnit);
+        return savedUnit;
     }
 
-    // ✅ Validate that no other property exists at the same location
-    private void validateLocationUniqueness(String location) {
-        if (location == null || location.trim().isEmpty()) {
-            throw new IllegalArgumentException("Location is required");
-        }
+    private static final String NORMALIZED_LOCATION_INDEX = "ux_accommodation_units_normalized_location";
 
-        String normalizedLocation = location.trim().toLowerCase();
-        List<AccommodationUnit> existingUnits = accommodationUnitRepository.findAll();
+    private static final String DUPLICATE_LOCATION_MESSAGE =
+            "A property already exists at this location. Please verify the address.";
 
-        for (AccommodationUnit existingUnit : existingUnits) {
-            if (existingUnit.getLocation() != null &&
-                    existingUnit.getLocation().trim().toLowerCase().equals(normalizedLocation)) {
-                throw new IllegalStateException(
-                        "A property already exists at this location. Please verify the address.");
-            }
+    // ✅ Validate that no other property exists at the same location (indexed probe on normalized_location)
+    private void validateLocationUniqueness(String location) {
+        String normalizedLocation = requireNormalizedLocation(location);
+        if (accommodationUnitRepository.existsByNormalizedLocation(normalizedLocation)) {
+            throw new IllegalStateException(DUPLICATE_LOCATION_MESSAGE);
         }
     }
 
     // ✅ Validate location uniqueness for updates (excluding current unit)
     private void validateLocationUniquenessForUpdate(String location, Long excludeUnitId) {
-        if (location == null || location.trim().isEmpty()) {
+        String normalizedLocation = requireNormalizedLocation(location);
+        boolean taken = excludeUnitId != null
+                ? accommodationUnitRepository.existsByNormalizedLocationAndIdNot(normalizedLocation, excludeUnitId)
+                : accommodationUnitRepository.existsByNormalizedLocation(normalizedLocation);
+        if (taken) {
+            throw new IllegalStateException(DUPLICATE_LOCATION_MESSAGE);
+        }
+    }
+
+    private static String requireNormalizedLocation(String location) {
+        String normalizedLocation = TextNormalizer.normalizeLocation(location);
+        if (normalizedLocation == null) {
             throw new IllegalArgumentException("Location is required");
         }
+        return normalizedLocation;
+    }
 
-        String normalizedLocation = location.trim().toLowerCase();
-        List<AccommodationUnit> existingUnits = accommodationUnitRepository.findAll();
+    // The probe above can race with a concurrent insert; the unique index has the final word
+    private AccommodationUnit saveUnit(AccommodationUnit unit) {
+        geocodeIfMissing(unit);
+        try {
+            return accommodationUnitRepository.saveAndFlush(unit);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateLocation(e)) {
+                throw new IllegalStateException(DUPLICATE_LOCATION_MESSAGE, e);
+            }
+            throw e;
+        }
+    }
 
-        for (AccommodationUnit existingUnit : existingUnits) {
-            if (!existingUnit.getId().equals(excludeUnitId) &&
-                    existingUnit.getLocation() != null &&
-                    existingUnit.getLocation().trim().toLowerCase().equals(normalizedLocation)) {
-                throw new IllegalStateException(
-                        "A property already exists at this location. Please verify the address.");
+    // Only the location index means "duplicate address"; other violations (owner FK, NOT NULL...) are bugs
+    private static boolean isDuplicateLocation(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // MySQL 8 reports the key as "accommodation_units.ux_..."
+                String constraint = violation.getConstraintName();
+                return constraint != null
+                        && constraint.toLowerCase(Locale.ROOT).contains(NORMALIZED_LOCATION_INDEX);
             }
         }
+        return false;
+    }
+
+    // Units saved without coordinates get those of their locality, so proximity search can find them
+    private void geocodeIfMissing(AccommodationUnit unit) {
+        if (unit.getLatitude() != null && unit.getLongitude() != null) {
+            return;
+        }
+        double[] coordinates = gazetteer.geocode(unit.getLocation(), unit.getCounty());
+        if (coordinates != null) {
+            unit.setLatitude(coordinates[0]);
+            unit.setLongitude(coordinates[1]);
+            logger.info("📍 Geocoded '{}' to {}, {}", unit.getLocation(), coordinates[0], coordinates[1]);
+        } else {
+            logger.warn("⚠️ Could not geocode '{}'", unit.getLocation());
+        }
     }
 
     // Returnează toate unitățile active și disponibile
@@ -98,6 +171,11 @@ public class AccommodationUnitService {
         return accommodationUnitRepository.findAllActiveUnits();
     }
 
+    // Aceleași unități ca Stream (se consumă într-o tranzacție, vezi JsonStreamingService)
+    public Stream<AccommodationUnit> streamAllUnits() {
+        return accommodationUnitRepository.streamAllActiveUnits();
+    }
+
     // Caută după locație (parțial, fără case-sensitive)
     public List<AccommodationUnit> searchByLocation(String location) {
         return accommodationUnitRepository.findByLocationContainingIgnoreCase(location);
@@ -108,9 +186,58 @@ public class AccommodationUnitService {
         return accommodationUnitRepository.findById(id);
     }
 
+    // Pagina de detaliu: proprietarul și facilitățile vin în același SELECT
+    public Optional<AccommodationUnit> getDetailById(Long id) {
+        return accommodationUnitRepository.findDetailById(id);
+    }
+
+    public static final int MAX_BATCH_IDS = 300;
+
+    /**
+     * Detail view of several units (favourites, booking history, comparison): one IN query
+     * for the units and one for their photos, results in the order of the requested ids
+     * (duplicates dropped), unknown ids reported separately.
+     */
+    @Transactional(readOnly = true)
+    public UnitBatchDTO getUnitsByIds(List<Long> ids) {
+        List<Long> requested = ids.stream().filter(id -> id != null).distinct().toList();
+        if (requested.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("Se pot cere cel mult " + MAX_BATCH_IDS + " unități odată.");
+        }
+        if (requested.isEmpty()) {
+            return new UnitBatchDTO(List.of(), List.of());
+        }
+
+        Map<Long, AccommodationUnit> unitsById = new HashMap<>();
+        for (AccommodationUnit unit : accommodationUnitRepository.findDetailByIdIn(requested)) {
+            unitsById.put(unit.getId(), unit);
+        }
+        Map<Long, List<String>> photoUrls = photoService.getPhotoUrlsByUnitIds(unitsById.keySet());
+
+        List<AccommodationUnitWithPhotosDTO> units = new ArrayList<>(unitsById.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            AccommodationUnit unit = unitsById.get(id);
+            if (unit == null) {
+                missing.add(id);
+            } else {
+                units.add(new AccommodationUnitWithPhotosDTO(unit, photoUrls.getOrDefault(id, List.of())));
+            }
+        }
+        return new UnitBatchDTO(units, missing);
+    }
+
     // Șterge unitate
     public void deleteById(Long id) {
         accommodationUnitRepository.deleteById(id);
+        catalogIndex.remove(id);
+        spatialIndex.remove(id);
+        availabilityCalendar.removeUnit(id);
+    }
+
+    // Booked nights of a unit in [from, to), run-length encoded
+    public List<Integer> getCalendarRuns(Long unitId, LocalDate from, LocalDate to) {
+        return availabilityCalendar.encodeRuns(unitId, from, to);
     }
 
     // ✅ Enhanced unit update with location validation
@@ -135,15 +262,190 @@ public class AccommodationUnitService {
         existingUnit.setDescription(updatedUnit.getDescription());
         existingUnit.setAvailable(updatedUnit.isAvailable());
 
-        return accommodationUnitRepository.save(existingUnit);
+        AccommodationUnit savedUnit = saveUnit(existingUnit);
+        catalogIndex.upsert(savedUnit);
+        spatialIndex.upsert(savedUnit);
+        return savedUnit;
+    }
+
+    // Longest range a flexible-date search may scan
+    private static final int MAX_FLEXIBLE_RANGE_DAYS = 366;
+
+    /**
+     * Flexible-date search: catalog units (criteria dates are ignored) with free stays of
+     * `nights` nights inside [from, to). With checkIn set, units free on exactly
+     * [checkIn, checkIn + nights) come first with that single window; the others get up to
+     * `alternatives` free stays closest to it. Without checkIn every unit gets its earliest
+     * `alternatives` non-overlapping free stays. Units with no free stay are left out.
+     */
+    public List<FlexibleAvailabilityDTO> findFlexibleAvailability(UnitSearchCriteria criteria, LocalDate from,
+            LocalDate to, int nights, LocalDate checkIn, int alternatives) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Intervalul from/to este invalid.");
+        }
+        if (nights <= 0 || nights > to.toEpochDay() - from.toEpochDay()) {
+            throw new IllegalArgumentException("Numărul de nopți trebuie să încapă în interval.");
+        }
+        if (to.toEpochDay() - from.toEpochDay() > MAX_FLEXIBLE_RANGE_DAYS) {
+            throw new IllegalArgumentException("Intervalul poate avea cel mult " + MAX_FLEXIBLE_RANGE_DAYS + " de zile.");
+        }
+        if (alternatives <= 0) {
+            throw new IllegalArgumentException("alternatives trebuie să fie pozitiv.");
+        }
+        LocalDate today = LocalDate.now();
+        if (from.isBefore(today)) {
+            from = today;
+            if (to.toEpochDay() - from.toEpochDay() < nights) {
+                return List.of();
+            }
+        }
+
+        criteria.setCheckIn(null);
+        criteria.setCheckOut(null);
+        List<AccommodationUnitDTO> units = getPublicUnits(criteria);
+        Map<Long, List<LocalDate>> freeCheckIns = availabilityCalendar.freeCheckIns(
+                units.stream().map(AccommodationUnitDTO::getId).toList(), from, to, nights);
+
+        List<FlexibleAvailabilityDTO> exact = new ArrayList<>();
+        List<FlexibleAvailabilityDTO> others = new ArrayList<>();
+        for (AccommodationUnitDTO unit : units) {
+            List<LocalDate> starts = freeCheckIns.getOrDefault(unit.getId(), List.of());
+            if (starts.isEmpty()) {
+                continue;
+            }
+            if (checkIn == null) {
+                others.add(new FlexibleAvailabilityDTO(unit, null, pickWindows(starts, nights, alternatives)));
+            } else if (starts.contains(checkIn)) {
+                exact.add(new FlexibleAvailabilityDTO(unit, true,
+                        List.of(new FlexibleAvailabilityDTO.StayWindow(checkIn, checkIn.plusDays(nights)))));
+            } else {
+                long preferred = checkIn.toEpochDay();
+                List<LocalDate> closest = new ArrayList<>(starts);
+                closest.sort(Comparator.comparingLong((LocalDate start) -> Math.abs(start.toEpochDay() - preferred))
+                        .thenComparing(Comparator.naturalOrder()));
+                others.add(new FlexibleAvailabilityDTO(unit, false, pickWindows(closest, nights, alternatives)));
+            }
+        }
+        exact.addAll(others);
+        return exact;
+    }
+
+    // Greedy pick of up to `limit` stays from the candidates, in candidate order, skipping overlaps
+    private static List<FlexibleAvailabilityDTO.StayWindow> pickWindows(List<LocalDate> candidates, int nights,
+            int limit) {
+        List<FlexibleAvailabilityDTO.StayWindow> windows = new ArrayList<>();
+        for (LocalDate start : candidates) {
+            LocalDate end = start.plusDays(nights);
+            boolean overlaps = windows.stream()
+                    .anyMatch(w -> start.isBefore(w.getCheckOut()) && end.isAfter(w.getCheckIn()));
+            if (!overlaps) {
+                windows.add(new FlexibleAvailabilityDTO.StayWindow(start, end));
+                if (windows.size() == limit) {
+                    break;
+                }
+            }
+        }
+        windows.sort(Comparator.comparing(FlexibleAvailabilityDTO.StayWindow::getCheckIn));
+        return windows;
     }
 
-    // Filtrare după locație, preț, capacitate și tip
+    // ✅ Public catalog listing - cached per normalised filter set; checkIn/checkOut (if set) filter by availability
+    @Transactional(readOnly = true)
+    public List<AccommodationUnitDTO> getPublicUnits(UnitSearchCriteria criteria) {
+        UnitSearchCriteria widened = SearchResultCache.widen(criteria);
+        List<AccommodationUnitDTO> units = searchCache.get(SearchResultCache.Key.of("public", widened),
+                () -> loadPublicUnits(widened));
+        return SearchResultCache.narrowToPrice(units, AccommodationUnitDTO::getPricePerNight,
+                criteria.getMinPrice(), criteria.getMaxPrice());
+    }
+
+    // Served from the in-memory catalog index once it is built
+    private List<AccommodationUnitDTO> loadPublicUnits(UnitSearchCriteria criteria) {
+        List<AccommodationUnitDTO> units;
+        if (catalogIndex.isReady()) {
+            units = catalogIndex.search(criteria);
+        } else {
+            units = loadPublicUnitsFromDatabase(criteria);
+        }
+        if (criteria.getCheckIn() != null && criteria.getCheckOut() != null) {
+            units = filterUnitDTOsByAvailability(units, criteria.getCheckIn(), criteria.getCheckOut());
+        }
+        return units;
+    }
+
+    // Index still loading (startup): fall back to the database
+    private List<AccommodationUnitDTO> loadPublicUnitsFromDatabase(UnitSearchCriteria criteria) {
+        List<AccommodationUnit> units = loadFilteredUnits(criteria.getLocationFilter(), criteria.getMinPrice(),
+                criteria.getMaxPrice(), criteria.getCapacity(), criteria.getMaxCapacity(), criteria.getType(),
+                criteria.getMinRating(), criteria.getAmenityMask());
+        String textFilter = criteria.getTextFilter();
+        if (textFilter != null) {
+            final String searchTerm = TextNormalizer.fold(textFilter);
+            units = units.stream()
+                    .filter(unit ->
+                        TextNormalizer.fold(unit.getName()).contains(searchTerm) ||
+                        TextNormalizer.fold(unit.getDescription()).contains(searchTerm) ||
+                        TextNormalizer.fold(unit.getLocation()).contains(searchTerm) ||
+                        TextNormalizer.fold(unit.getCounty()).contains(searchTerm)
+                    )
+                    .toList();
+        }
+        return AccommodationUnitMapper.toDTOList(units);
+    }
+
+    // ✅ Keyset-paginated listing over the catalog index (active and available units)
+    public UnitPageDTO getPublicUnitPage(UnitSearchCriteria criteria, UnitPageRequest pageRequest) {
+        if (!catalogIndex.isReady()) {
+            catalogIndex.rebuild();
+        }
+        return catalogIndex.page(criteria, pageRequest);
+    }
+
+    // ✅ Facet counts for the public search sidebar
+    public FacetCountsDTO getPublicUnitFacets(UnitSearchCriteria criteria) {
+        if (!catalogIndex.isReady()) {
+            catalogIndex.rebuild();
+        }
+        return catalogIndex.facets(criteria);
+    }
+
+    public int getCatalogSize() {
+        return catalogIndex.size();
+    }
+
+    // ✅ Card view of the catalog filters: a single projection query, cached like the other listings
+    @Transactional(readOnly = true)
+    public List<UnitCardDTO> getUnitCards(UnitSearchCriteria criteria) {
+        UnitSearchCriteria widened = SearchResultCache.widen(criteria);
+        List<UnitCardDTO> cards = searchCache.get(SearchResultCache.Key.of("cards", widened),
+                () -> accommodationUnitRepository.findCardsByFilters(widened.getLocationFilter(),
+                        widened.getMinPrice(), widened.getMaxPrice(), widened.getCapacity(),
+                        widened.getMaxCapacity(), widened.getType(), widened.getMinRating(),
+                        widened.getAmenityMask()));
+        return SearchResultCache.narrowToPrice(cards, UnitCardDTO::getPricePerNight,
+                criteria.getMinPrice(), criteria.getMaxPrice());
+    }
+
+    // Filtrare după locație, preț, capacitate și tip (cached per normalised filter set)
+    @Transactional(readOnly = true)
     public List<AccommodationUnit> getFilteredUnits(String location, Double minPrice, Double maxPrice,
             Integer minCapacity, Integer maxCapacity, String type,
-            Double minRating) {
+            Double minRating, long amenityMask) {
+        String cleanLocation = SearchResultCache.clean(location);
+        String cleanType = SearchResultCache.clean(type);
+        SearchResultCache.Key key = new SearchResultCache.Key("filter", null, cleanLocation, cleanType,
+                minPrice, maxPrice, minCapacity, maxCapacity, minRating, amenityMask, null, null);
+        List<AccommodationUnit> units = searchCache.get(key, () -> loadFilteredUnits(cleanLocation,
+                SearchResultCache.bucketFloor(minPrice), SearchResultCache.bucketCeil(maxPrice),
+                minCapacity, maxCapacity, cleanType, minRating, amenityMask));
+        return SearchResultCache.narrowToPrice(units, AccommodationUnit::getPricePerNight, minPrice, maxPrice);
+    }
+
+    private List<AccommodationUnit> loadFilteredUnits(String location, Double minPrice, Double maxPrice,
+            Integer minCapacity, Integer maxCapacity, String type,
+            Double minRating, long amenityMask) {
         
-        System.out.println("🔍 SERVICE: getFilteredUnits called with parameters:");
+        System.out.println("🔍 SERVICE: loadFilteredUnits called with parameters:");
         System.out.println("  - location: '" + location + "'");
         System.out.println("  - minPrice: " + minPrice);
         System.out.println("  - maxPrice: " + maxPrice);
@@ -151,10 +453,17 @@ public class AccommodationUnitService {
         System.out.println("  - maxCapacity: " + maxCapacity);
         System.out.println("  - type: '" + type + "'");
         System.out.println("  - minRating: " + minRating);
+        logger.debug("loadFilteredUnits amenityMask: {}", Long.toBinaryString(amenityMask));
         
         List<AccommodationUnit> result = accommodationUnitRepository.findByFiltersWithRating(
-                location, minPrice, maxPrice, minCapacity, maxCapacity, type, minRating);
+                location, minPrice, maxPrice, minCapacity, maxCapacity, type, minRating, amenityMask);
         
+        // Cached results outlive the session: load the lazy collections the JSON view needs
+        result.forEach(unit -> {
+            unit.getImages().size();
+            unit.getAmenities().size();
+        });
+
         System.out.println("🎯 SERVICE: Repository returned " + result.size() + " units");
         if (result.size() > 0) {
             System.out.println("  - First unit: " + result.get(0).getName() + " (ID: " + result.get(0).getId() + ")");
@@ -165,48 +474,81 @@ public class AccommodationUnitService {
 
     // ✅ Filtrare după disponibilitate într-un interval check-in / check-out
     public List<AccommodationUnit> findAvailableUnits(LocalDate checkIn, LocalDate checkOut) {
-        List<AccommodationUnit> allUnits = accommodationUnitRepository.findAll();
-        List<AccommodationUnit> availableUnits = new ArrayList<>();
+        return availabilityService.findAvailableUnits(checkIn, checkOut);
+    }
 
-        for (AccommodationUnit unit : allUnits) {
-            List<Booking> overlappingBookings = bookingRepository
-                    .findByAccommodationUnitAndCheckOutDateAfterAndCheckInDateBefore(unit, checkIn, checkOut);
+    // Returnează unitățile de cazare aflate într-o rază (km) față de un oraș dat
+    public List<AccommodationUnit> findUnitsNearCity(String city, double radiusKm) {
+        return findUnitsNear(null, null, city, radiusKm, null, false);
+    }
 
-            if (overlappingBookings.isEmpty() && unit.isAvailable()) {
-                availableUnits.add(unit);
-            }
+    /**
+     * Units around a point given either as raw coordinates or as a known city name.
+     * With k set, returns the k nearest units (within radiusKm if that is set too);
+     * otherwise all units within radiusKm, optionally sorted nearest first.
+     */
+    public List<AccommodationUnit> findUnitsNear(Double latitude, Double longitude, String city,
+            Double radiusKm, Integer k, boolean sortByDistance) {
+        double[] center = resolveCenter(latitude, longitude, city);
+        if (k == null && radiusKm == null) {
+            throw new IllegalArgumentException("Specificați raza (radius) sau numărul de rezultate (k).");
+        }
+        if (k != null && k <= 0) {
+            throw new IllegalArgumentException("k trebuie să fie pozitiv.");
         }
 
-        return availableUnits;
+        List<SpatialIndexService.Neighbor> neighbors;
+        if (k != null) {
+            neighbors = spatialIndex().nearest(center[0], center[1], k, radiusKm);
+        } else {
+            neighbors = spatialIndex().withinRadius(center[0], center[1], radiusKm);
+            if (sortByDistance) {
+                neighbors.sort(Comparator.comparingDouble(SpatialIndexService.Neighbor::getDistanceKm));
+            }
+        }
+        return loadInOrder(neighbors);
     }
 
-    // Returnează unitățile de cazare aflate într-o rază (km) față de un oraș dat
-    public List<AccommodationUnit> findUnitsNearCity(String city, double radiusKm) {
-        double[] targetCoords = cityCoordinatesService.getCoordinates(city);
-        if (targetCoords == null) {
+    private double[] resolveCenter(Double latitude, Double longitude, String city) {
+        if (latitude != null && longitude != null) {
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                throw new IllegalArgumentException("Coordonate invalide.");
+            }
+            return new double[]{latitude, longitude};
+        }
+        if (city == null || city.isBlank()) {
+            throw new IllegalArgumentException("Specificați un oraș sau coordonatele lat/lon.");
+        }
+        GazetteerService.Locality locality = gazetteer.resolve(city);
+        if (locality == null) {
             throw new IllegalArgumentException("Orașul introdus nu este recunoscut.");
         }
+        return new double[]{locality.getLatitude(), locality.getLongitude()};
+    }
 
-        double targetLat = targetCoords[0];
-        double targetLon = targetCoords[1];
-
-        List<AccommodationUnit> allUnits = accommodationUnitRepository.findAll();
-        List<AccommodationUnit> nearbyUnits = new ArrayList<>();
-
-        for (AccommodationUnit unit : allUnits) {
-            if (unit.getLatitude() == null || unit.getLongitude() == null)
-                continue;
-
-            double distance = GeoUtils.distanceInKm(
-                    targetLat, targetLon,
-                    unit.getLatitude(), unit.getLongitude());
+    // The index is built on ApplicationReadyEvent; build it on demand if a request arrives first
+    private SpatialIndexService spatialIndex() {
+        if (!spatialIndex.isReady()) {
+            spatialIndex.rebuild();
+        }
+        return spatialIndex;
+    }
 
-            if (distance <= radiusKm) {
-                nearbyUnits.add(unit);
+    // Load the units for the given neighbours with one query, keeping the neighbours' order
+    private List<AccommodationUnit> loadInOrder(List<SpatialIndexService.Neighbor> neighbors) {
+        List<Long> ids = neighbors.stream().map(SpatialIndexService.Neighbor::getUnitId).toList();
+        Map<Long, AccommodationUnit> unitsById = new HashMap<>();
+        for (AccommodationUnit unit : accommodationUnitRepository.findAllById(ids)) {
+            unitsById.put(unit.getId(), unit);
+        }
+        List<AccommodationUnit> units = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AccommodationUnit unit = unitsById.get(id);
+            if (unit != null) {
+                units.add(unit);
             }
         }
-
-        return nearbyUnits;
+        return units;
     }
 
     // Filtrare avansată: proximitate + disponibilitate
@@ -216,32 +558,18 @@ public class AccommodationUnitService {
             throw new IllegalArgumentException(
                     "Toate filtrele avansate sunt obligatorii: location, radiusKm, checkIn, checkOut");
         }
-        double[] targetCoords = cityCoordinatesService.getCoordinates(location);
-        if (targetCoords == null) {
-            throw new IllegalArgumentException("Orașul introdus nu este recunoscut.");
-        }
-        double targetLat = targetCoords[0];
-        double targetLon = targetCoords[1];
-        List<AccommodationUnit> allUnits = accommodationUnitRepository.findAll();
-        List<AccommodationUnit> filtered = new ArrayList<>();
-        for (AccommodationUnit unit : allUnits) {
-            if (unit.getLatitude() == null || unit.getLongitude() == null)
-                continue;
-            double distance = GeoUtils.distanceInKm(targetLat, targetLon, unit.getLatitude(), unit.getLongitude());
-            if (distance > radiusKm)
-                continue;
-            // Check availability
-            List<Booking> overlapping = bookingRepository
-                    .findByAccommodationUnitAndCheckOutDateAfterAndCheckInDateBefore(
-                            unit, checkIn, checkOut);
-            if (overlapping.isEmpty() && unit.isAvailable()) {
-                filtered.add(unit);
+        List<AccommodationUnit> nearby = new ArrayList<>();
+        for (AccommodationUnit unit : findUnitsNear(null, null, location, radiusKm, null, false)) {
+            if (unit.isAvailable()) {
+                nearby.add(unit);
             }
         }
-        return filtered;
+        // Check availability for all nearby units at once
+        return filterUnitsByAvailability(nearby, checkIn, checkOut);
     }
 
     // ✅ Enhanced profit calculation - only confirmed/completed bookings, using totalPrice
+    @Transactional(readOnly = true)
     public List<ProfitResult> calculateProfit(int months, User owner) {
         List<AccommodationUnit> myUnits = accommodationUnitRepository.findByOwner(owner);
         LocalDate now = LocalDate.now();
@@ -268,6 +596,7 @@ public class AccommodationUnitService {
     }
 
     // ✅ Enhanced monthly profit calculation - only confirmed/completed bookings, using totalPrice
+    @Transactional(readOnly = true)
     public List<MonthlyProfitResult> getMonthlyProfit(int months, User owner) {
         LocalDate now = LocalDate.now();
         LocalDate fromDate = (months > 0) ? now.minusMonths(months) : LocalDate.MIN;
@@ -298,6 +627,7 @@ public class AccommodationUnitService {
         return result;
     }
 
+    @Transactional(readOnly = true)
     public List<PredictedProfitDTO> predictFutureProfits(int historyMonths, int predictMonths, User owner) {
         List<MonthlyProfitResult> history = getMonthlyProfit(historyMonths, owner);
         int n = history.size();
@@ -331,6 +661,7 @@ public class AccommodationUnitService {
     /**
      * Get all accommodation units owned by a specific user (ordered by creation date)
      */
+    @Transactional(readOnly = true)
     public List<AccommodationUnit> getUnitsByOwner(User owner) {
         System.out.println("=== SERVICE: GET UNITS BY OWNER ===");
         System.out.println("Owner: " + owner.getEmail() + " (ID: " + owner.getId() + ")");
@@ -351,6 +682,7 @@ public class AccommodationUnitService {
     /**
      * Get the top performing unit based on total revenue
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getTopPerformingUnit(User owner) {
         List<AccommodationUnit> ownerUnits = accommodationUnitRepository.findByOwner(owner);
 
@@ -388,6 +720,7 @@ public class AccommodationUnitService {
     }
 
     // ✅ Enhanced profit analytics - only confirmed/completed bookings, using totalPrice
+    @Transactional(readOnly = true)
     public Map<String, Double> getOwnerProfitAnalytics(User owner, int months) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusMonths(months);
@@ -421,6 +754,7 @@ public class AccommodationUnitService {
     }
 
     // ✅ Get total profit for owner across all time
+    @Transactional(readOnly = true)
     public Double getOwnerTotalProfit(User owner) {
         // ✅ Use efficient repository method to get only confirmed/completed bookings
         List<BookingStatus> validStatuses = List.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
@@ -437,6 +771,7 @@ public class AccommodationUnitService {
     }
 
     // ✅ Get profit summary with different time periods for dashboard
+    @Transactional(readOnly = true)
     public Map<String, Object> getOwnerProfitSummary(User owner) {
         Map<String, Object> summary = new TreeMap<>();
 
@@ -460,71 +795,24 @@ public class AccommodationUnitService {
     }
 
     // ✅ Filter units by date availability (checks both Booking and Reservation
-    // entities)
+    // entities) - one set-based query for the whole candidate list, order preserved
     public List<AccommodationUnit> filterUnitsByAvailability(List<AccommodationUnit> units, LocalDate checkIn,
             LocalDate checkOut) {
+        Set<Long> availableIds = availabilityService.findAvailableUnitIds(
+                units.stream().map(AccommodationUnit::getId).toList(), checkIn, checkOut);
         return units.stream()
-                .filter(unit -> isUnitAvailable(unit, checkIn, checkOut))
+                .filter(unit -> availableIds.contains(unit.getId()))
                 .toList();
     }
 
-    // ✅ Check if a unit is available for the given date range
-    private boolean isUnitAvailable(AccommodationUnit unit, LocalDate checkIn, LocalDate checkOut) {
-        System.out.println("🔍 Checking availability for unit " + unit.getId() + " from " + checkIn + " to " + checkOut);
-        
-        // Check both Booking and Reservation entities for conflicts
-        
-        // 1. Check Bookings (if they exist)
-        try {
-            List<Booking> existingBookings = bookingRepository.findByAccommodationUnitAndStatusIn(
-                unit, 
-                List.of(BookingStatus.CONFIRMED, BookingStatus.PENDING)
-            );
-            
-            for (Booking booking : existingBookings) {
-                if (datesOverlap(checkIn, checkOut, booking.getCheckInDate(), booking.getCheckOutDate())) {
-                    System.out.println("❌ Unit " + unit.getId() + " unavailable - overlaps with booking " + booking.getId() + 
-                                     " (" + booking.getCheckInDate() + " to " + booking.getCheckOutDate() + ")");
-                    return false;
-                }
-            }
-            System.out.println("✅ No conflicting bookings found for unit " + unit.getId());
-        } catch (Exception e) {
-            System.out.println("⚠️ Could not check bookings (might not exist): " + e.getMessage());
-        }
-        
-        // 2. Check Reservations (main conflict source based on your SQL)
-        try {
-            // 🔧 FIXED: Get ALL reservations for this unit and filter manually for accurate results
-            List<Reservation> allUnitReservations = reservationRepository.findByUnitId(unit.getId());
-            List<Reservation> conflictingReservations = allUnitReservations.stream()
-                .filter(res -> res.getStatus() == ReservationStatus.CONFIRMED)
-                .filter(res -> datesOverlap(checkIn, checkOut, res.getStartDate(), res.getEndDate()))
+    // ✅ Same availability filter for catalog index results
+    public List<AccommodationUnitDTO> filterUnitDTOsByAvailability(List<AccommodationUnitDTO> units, LocalDate checkIn,
+            LocalDate checkOut) {
+        Set<Long> availableIds = availabilityService.findAvailableUnitIds(
+                units.stream().map(AccommodationUnitDTO::getId).toList(), checkIn, checkOut);
+        return units.stream()
+                .filter(unit -> availableIds.contains(unit.getId()))
                 .toList();
-            
-            if (!conflictingReservations.isEmpty()) {
-                System.out.println("❌ Unit " + unit.getId() + " unavailable - has " + conflictingReservations.size() + " confirmed reservations");
-                for (Reservation res : conflictingReservations) {
-                    System.out.println("   - Reservation " + res.getId() + ": " + res.getStartDate() + " to " + res.getEndDate() + " (status: " + res.getStatus() + ")");
-                }
-                return false;
-            }
-            System.out.println("✅ No conflicting reservations found for unit " + unit.getId());
-        } catch (Exception e) {
-            System.out.println("⚠️ Could not check reservations: " + e.getMessage());
-            // If we can't check reservations but SQL shows they exist, this is the problem
-            return false;
-        }
-        
-        System.out.println("✅ Unit " + unit.getId() + " is available for the requested dates");
-        return true;
-    }
-    
-    // ✅ Check if two date ranges overlap
-    private boolean datesOverlap(LocalDate checkIn1, LocalDate checkOut1, LocalDate checkIn2, LocalDate checkOut2) {
-        // Two date ranges overlap if: 
-        // (checkIn1 < checkOut2) AND (checkOut1 > checkIn2)
-        return checkIn1.isBefore(checkOut2) && checkOut1.isAfter(checkIn2);
     }
 
     @Transactional
@@ -591,7 +879,7 @@ public class AccommodationUnitService {
         unit.setImages(new ArrayList<>(photoUrls));
         
         System.out.println("Saving unit to database...");
-        AccommodationUnit savedUnit = accommodationUnitRepository.save(unit);
+        AccommodationUnit savedUnit = saveUnit(unit);
         System.out.println("Unit saved with ID: " + savedUnit.getId());
         System.out.println("Saved unit - Status: " + savedUnit.getStatus() + ", Available: " + savedUnit.isAvailable());
         
@@ -608,6 +896,9 @@ public class AccommodationUnitService {
             System.err.println("Warning: Failed to save to photo service: " + e.getMessage());
         }
         
+        catalogIndex.upsert(savedUnit, photoUrls);
+        spatialIndex.upsert(savedUnit);
+
         System.out.println("Unit creation completed successfully");
         return savedUnit;
     }
@@ -634,7 +925,7 @@ public class AccommodationUnitService {
         // Validate location uniqueness for update
         validateLocationUniquenessForUpdate(unit.getLocation(), unit.getId());
         
-        AccommodationUnit savedUnit = accommodationUnitRepository.save(unit);
+        AccommodationUnit savedUnit = saveUnit(unit);
         
         // Also save to photo service if it exists (for backward compatibility)
         try {
@@ -648,11 +939,15 @@ public class AccommodationUnitService {
             // Log but don't fail if photo service is unavailable
             System.err.println("Warning: Failed to update photo service: " + e.getMessage());
         }
+
+        catalogIndex.upsert(savedUnit, allImageUrls);
+        spatialIndex.upsert(savedUnit);
         
         return savedUnit;
     }
 
     // ✅ Generate profit report data for PDF export
+    @Transactional(readOnly = true)
     public ProfitReportDTO generateProfitReportData(User owner, int months) {
         // Get owner's units
         List<AccommodationUnit> ownerUnits = accommodationUnitRepository.findByOwner(owner);
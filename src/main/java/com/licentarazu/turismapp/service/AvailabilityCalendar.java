@@ -0,0 +1,418 @@
+package com.licentarazu.turismapp.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.licentarazu.turismapp.model.Booking;
+import com.licentarazu.turismapp.model.Reservation;
+import com.licentarazu.turismapp.repository.BookingRepository;
+import com.licentarazu.turismapp.repository.ReservationRepository;
+
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
+/**
+ * Per-unit bitmap of booked nights over a rolling 24-month window.
+ *
+ * Bit i of a unit's bitmap is set when the night starting on (windowStart + i) is taken
+ * by a CONFIRMED/PENDING booking or a CONFIRMED reservation. The window starts on the
+ * first day of the current month and is rebuilt when the month changes. Bitmaps are
+ * copy-on-write, so readers never lock; writers are serialised on this instance, and a
+ * unit reloaded from the database is swapped in whole once its queries have run.
+ */
+@Service
+public class AvailabilityCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCalendar.class);
+
+    private static final int WINDOW_MONTHS = 24;
+
+    // Lock-free reloads of a unit retried before loading under the monitor
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final ReservationRepository reservationRepository;
+    private final SearchResultCache searchCache;
+    private final CatalogVersionService catalogVersions;
+
+    private volatile Window window;
+
+    @Autowired
+    public AvailabilityCalendar(BookingRepository bookingRepository, ReservationRepository reservationRepository,
+            SearchResultCache searchCache, CatalogVersionService catalogVersions) {
+        this.bookingRepository = bookingRepository;
+        this.reservationRepository = reservationRepository;
+        this.searchCache = searchCache;
+        this.catalogVersions = catalogVersions;
+    }
+
+    // ===== BUILD =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDate start = LocalDate.now().withDayOfMonth(1);
+        Window fresh = new Window(start, start.plusMonths(WINDOW_MONTHS));
+
+        for (Object[] row : bookingRepository.findStayIntervals(fresh.start, fresh.end,
+                AvailabilityService.BLOCKING_BOOKING_STATUSES)) {
+            fresh.mark((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+        }
+        for (Object[] row : reservationRepository.findStayIntervals(fresh.start, fresh.end,
+                AvailabilityService.BLOCKING_RESERVATION_STATUSES)) {
+            fresh.mark((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+        }
+
+        window = fresh;
+        logger.info("✅ Availability calendar built for {} units ({} to {})",
+                fresh.bookedNights.size(), fresh.start, fresh.end);
+    }
+
+    // Current window, rolled forward when the month has changed since it was built
+    private Window current() {
+        Window w = window;
+        if (w != null && !w.start.equals(LocalDate.now().withDayOfMonth(1))) {
+            rebuild();
+            w = window;
+        }
+        return w;
+    }
+
+    // ===== QUERIES =====
+
+    /**
+     * Whether the calendar can answer for [checkIn, checkOut) without going to the database.
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        Window w = current();
+        return w != null && checkIn != null && checkOut != null && checkIn.isBefore(checkOut)
+                && !checkIn.isBefore(w.start) && !checkOut.isAfter(w.end);
+    }
+
+    /**
+     * True when no night in [checkIn, checkOut) is booked. Only valid when {@link #covers} is true.
+     */
+    public boolean isFree(Long unitId, LocalDate checkIn, LocalDate checkOut) {
+        Window w = current();
+        long[] bits = w.bookedNights.get(unitId);
+        return bits == null || !anySet(bits, w.offset(checkIn), w.offset(checkOut));
+    }
+
+    /**
+     * Nights in [from, to) run-length encoded as alternating run lengths, starting with
+     * a (possibly empty) run of free nights: [free, booked, free, booked, ...].
+     */
+    public List<Integer> encodeRuns(Long unitId, LocalDate from, LocalDate to) {
+        long[] bits;
+        int offset;
+        if (covers(from, to)) {
+            Window w = current();
+            bits = w.bookedNights.getOrDefault(unitId, new long[0]);
+            offset = w.offset(from);
+        } else {
+            // Outside the cached window: build a one-off bitmap for this unit and range
+            long[] loaded = loadUnit(new Window(from, to), unitId);
+            bits = loaded != null ? loaded : new long[0];
+            offset = 0;
+        }
+        return encodeRuns(bits, offset, (int) (to.toEpochDay() - from.toEpochDay()));
+    }
+
+    // Run lengths of bits [offset, offset + nights), starting with the free run
+    static List<Integer> encodeRuns(long[] bits, int offset, int nights) {
+        List<Integer> runs = new ArrayList<>();
+        boolean booked = false;
+        int run = 0;
+        for (int night = 0; night < nights; night++) {
+            if (isSet(bits, offset + night) != booked) {
+                runs.add(run);
+                booked = !booked;
+                run = 0;
+            }
+            run++;
+        }
+        runs.add(run);
+        return runs;
+    }
+
+    /**
+     * For each unit, every check-in date in [from, to) that starts `nights` free nights
+     * ending by `to`, in date order. One pass over each unit's bitmap; ranges outside the
+     * cached window are loaded for all units with one query per table.
+     */
+    public Map<Long, List<LocalDate>> freeCheckIns(Collection<Long> unitIds, LocalDate from, LocalDate to, int nights) {
+        Window w;
+        int offset;
+        if (covers(from, to)) {
+            w = current();
+            offset = w.offset(from);
+        } else {
+            w = new Window(from, to);
+            for (Object[] row : bookingRepository.findStayIntervals(from, to,
+                    AvailabilityService.BLOCKING_BOOKING_STATUSES)) {
+                w.mark((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+            }
+            for (Object[] row : reservationRepository.findStayIntervals(from, to,
+                    AvailabilityService.BLOCKING_RESERVATION_STATUSES)) {
+                w.mark((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+            }
+            offset = 0;
+        }
+
+        int length = (int) (to.toEpochDay() - from.toEpochDay());
+        Map<Long, List<LocalDate>> checkIns = new LinkedHashMap<>();
+        for (Long unitId : unitIds) {
+            long[] bits = w.bookedNights.getOrDefault(unitId, new long[0]);
+            List<LocalDate> starts = new ArrayList<>();
+            int run = 0;
+            for (int night = 0; night < length; night++) {
+                run = isSet(bits, offset + night) ? 0 : run + 1;
+                if (run >= nights) {
+                    starts.add(from.plusDays(night - nights + 1));
+                }
+            }
+            checkIns.put(unitId, starts);
+        }
+        return checkIns;
+    }
+
+    // ===== UPDATES (applied after the surrounding transaction commits) =====
+
+    public void bookingSaved(Booking booking) {
+        if (booking.getAccommodationUnit() == null) {
+            return;
+        }
+        Long unitId = booking.getAccommodationUnit().getId();
+        if (AvailabilityService.BLOCKING_BOOKING_STATUSES.contains(booking.getStatus())) {
+            markBooked(unitId, booking.getCheckInDate(), booking.getCheckOutDate());
+        } else {
+            refreshUnit(unitId, booking.getCheckInDate(), booking.getCheckOutDate());
+        }
+    }
+
+    public void reservationSaved(Reservation reservation) {
+        if (reservation.getUnit() == null) {
+            return;
+        }
+        Long unitId = reservation.getUnit().getId();
+        if (AvailabilityService.BLOCKING_RESERVATION_STATUSES.contains(reservation.getStatus())) {
+            markBooked(unitId, reservation.getStartDate(), reservation.getEndDate());
+        } else {
+            refreshUnit(unitId, reservation.getStartDate(), reservation.getEndDate());
+        }
+    }
+
+    public void markBooked(Long unitId, LocalDate checkIn, LocalDate checkOut) {
+        afterCommit(() -> {
+            synchronized (this) {
+                Window w = window;
+                if (w != null) {
+                    w.mark(unitId, checkIn, checkOut);
+                    w.modifications++;
+                }
+            }
+            searchCache.invalidateDates(checkIn, checkOut);
+            catalogVersions.unitChanged(unitId);
+        });
+    }
+
+    /**
+     * Reload one unit from the database, e.g. after a cancellation may have freed nights.
+     */
+    public void refreshUnit(Long unitId) {
+        refreshUnit(unitId, null, null);
+    }
+
+    /**
+     * Same as {@link #refreshUnit(Long)} when the freed nights [from, to) are known, so only
+     * cached searches overlapping them are dropped.
+     */
+    public void refreshUnit(Long unitId, LocalDate from, LocalDate to) {
+        afterCommit(() -> {
+            reloadUnit(unitId);
+            searchCache.invalidateDates(from, to);
+            catalogVersions.unitChanged(unitId);
+        });
+    }
+
+    public void removeUnit(Long unitId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                Window w = window;
+                if (w != null) {
+                    w.bookedNights.remove(unitId);
+                    w.modifications++;
+                }
+            }
+        });
+    }
+
+    // The unit's bitmap is rebuilt from the database outside the monitor and then replaced in
+    // one put, so readers see either the old or the new nights, never an empty bitmap. If a
+    // mark was applied while the queries ran, the load may have missed it: load again.
+    private void reloadUnit(Long unitId) {
+        for (int attempt = 0; attempt < MAX_RELOAD_ATTEMPTS; attempt++) {
+            Window w;
+            long seen;
+            synchronized (this) {
+                w = window;
+                if (w == null) {
+                    return;
+                }
+                seen = w.modifications;
+            }
+            long[] bits = loadUnit(w, unitId);
+            synchronized (this) {
+                if (window != w) {
+                    return;   // rebuilt meanwhile, from the database
+                }
+                if (w.modifications == seen) {
+                    w.publish(unitId, bits);
+                    return;
+                }
+            }
+        }
+        // Constant writes to the calendar: load while holding the monitor
+        synchronized (this) {
+            Window w = window;
+            if (w != null) {
+                w.publish(unitId, loadUnit(w, unitId));
+            }
+        }
+    }
+
+    // Nights of one unit within w, from both tables; null when none is booked
+    private long[] loadUnit(Window w, Long unitId) {
+        long[] bits = new long[w.words];
+        boolean any = false;
+        for (Object[] row : bookingRepository.findStayIntervalsByUnit(unitId, w.start, w.end,
+                AvailabilityService.BLOCKING_BOOKING_STATUSES)) {
+            any |= w.setStay(bits, (LocalDate) row[1], (LocalDate) row[2]);
+        }
+        for (Object[] row : reservationRepository.findStayIntervalsByUnit(unitId, w.start, w.end,
+                AvailabilityService.BLOCKING_RESERVATION_STATUSES)) {
+            any |= w.setStay(bits, (LocalDate) row[1], (LocalDate) row[2]);
+        }
+        return any ? bits : null;
+    }
+
+    // ===== BIT OPERATIONS =====
+
+    static boolean isSet(long[] bits, int index) {
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    // Any bit set in [from, to), testing whole 64-night words at a time
+    static boolean anySet(long[] bits, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        if (firstWord >= bits.length) {
+            return false;
+        }
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return (bits[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((bits[firstWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = firstWord + 1; i < lastWord && i < bits.length; i++) {
+            if (bits[i] != 0) {
+                return true;
+            }
+        }
+        return lastWord < bits.length && (bits[lastWord] & lastMask) != 0;
+    }
+
+    // Set bits [from, to), whole 64-night words at a time; bits must be long enough
+    static void setRange(long[] bits, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        bits[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            bits[i] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    /**
+     * Bitmaps for one date window; [start, end) in nights.
+     */
+    static class Window {
+        final LocalDate start;
+        final LocalDate end;
+        final int words;
+        final Map<Long, long[]> bookedNights = new ConcurrentHashMap<>();
+        long modifications = 0;   // guarded by the calendar's monitor
+
+        Window(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+            this.words = (int) ((end.toEpochDay() - start.toEpochDay() + 63) / 64);
+        }
+
+        int offset(LocalDate date) {
+            return (int) (date.toEpochDay() - start.toEpochDay());
+        }
+
+        // Set the nights of [checkIn, checkOut) that fall inside the window; false if none does
+        boolean setStay(long[] bits, LocalDate checkIn, LocalDate checkOut) {
+            if (checkIn == null || checkOut == null) {
+                return false;
+            }
+            int from = Math.max(0, offset(checkIn));
+            int to = Math.min(offset(end), offset(checkOut));
+            if (from >= to) {
+                return false;
+            }
+            setRange(bits, from, to);
+            return true;
+        }
+
+        // Copy-on-write: readers keep using the previous array until the new one is published
+        void mark(Long unitId, LocalDate checkIn, LocalDate checkOut) {
+            if (unitId == null) {
+                return;
+            }
+            long[] previous = bookedNights.get(unitId);
+            long[] bits = previous != null ? previous.clone() : new long[words];
+            if (setStay(bits, checkIn, checkOut)) {
+                bookedNights.put(unitId, bits);
+            }
+        }
+
+        // Replace a unit's bitmap in one step; null means no booked nights
+        void publish(Long unitId, long[] bits) {
+            if (bits == null) {
+                bookedNights.remove(unitId);
+            } else {
+                bookedNights.put(unitId, bits);
+            }
+            modifications++;
+        }
+    }
+}
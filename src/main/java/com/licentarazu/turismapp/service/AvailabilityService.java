@@ -0,0 +1,111 @@
+package com.licentarazu.turismapp.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.licentarazu.turismapp.model.AccommodationUnit;
+import com.licentarazu.turismapp.model.BookingStatus;
+import com.licentarazu.turismapp.model.ReservationStatus;
+import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
+
+/**
+ * Set-based availability checks for a whole candidate set of units.
+ *
+ * A unit is unavailable for [checkIn, checkOut) when it has a CONFIRMED or PENDING
+ * booking, or a CONFIRMED reservation, overlapping that range. Ranges inside the
+ * AvailabilityCalendar window are answered from its bitmaps; otherwise each call costs
+ * one query per chunk of candidate ids instead of two queries per unit. Admitting a new
+ * stay (isUnitAvailable) also treats PENDING reservations as taken.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
+
+    // Keep the IN (...) list well below driver/optimizer limits
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    static final List<BookingStatus> BLOCKING_BOOKING_STATUSES = List.of(BookingStatus.CONFIRMED, BookingStatus.PENDING);
+    static final List<ReservationStatus> BLOCKING_RESERVATION_STATUSES = List.of(ReservationStatus.CONFIRMED);
+    // Admission is stricter than search: a PENDING reservation holds its nights until it is confirmed
+    // or cancelled, otherwise two pending requests for the same nights could both be confirmed
+    static final List<ReservationStatus> ADMISSION_RESERVATION_STATUSES =
+            List.of(ReservationStatus.CONFIRMED, ReservationStatus.PENDING);
+
+    private final AccommodationUnitRepository accommodationUnitRepository;
+    private final AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    public AvailabilityService(AccommodationUnitRepository accommodationUnitRepository,
+            AvailabilityCalendar availabilityCalendar) {
+        this.accommodationUnitRepository = accommodationUnitRepository;
+        this.availabilityCalendar = availabilityCalendar;
+    }
+
+    /**
+     * Return the subset of unitIds that is free for the whole [checkIn, checkOut) range.
+     */
+    public Set<Long> findAvailableUnitIds(Collection<Long> unitIds, LocalDate checkIn, LocalDate checkOut) {
+        Set<Long> available = new HashSet<>();
+        if (unitIds == null || unitIds.isEmpty()) {
+            return available;
+        }
+
+        if (availabilityCalendar.covers(checkIn, checkOut)) {
+            for (Long unitId : unitIds) {
+                if (availabilityCalendar.isFree(unitId, checkIn, checkOut)) {
+                    available.add(unitId);
+                }
+            }
+            return available;
+        }
+
+        List<Long> candidates = new ArrayList<>(new LinkedHashSet<>(unitIds));
+        for (int from = 0; from < candidates.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = candidates.subList(from, Math.min(from + MAX_IDS_PER_QUERY, candidates.size()));
+            available.addAll(accommodationUnitRepository.findAvailableUnitIds(
+                    chunk, checkIn, checkOut, BLOCKING_BOOKING_STATUSES, BLOCKING_RESERVATION_STATUSES));
+        }
+
+        logger.debug("Availability {} to {}: {} of {} candidate units free",
+                checkIn, checkOut, available.size(), candidates.size());
+        return available;
+    }
+
+    /**
+     * Whether one unit can admit a new stay for [checkIn, checkOut), asked of the database.
+     * This is the admission check (run under the unit's lock): unlike the calendar, the
+     * database also sees stays just committed by other application instances, and PENDING
+     * reservations count as taken (ADMISSION_RESERVATION_STATUSES).
+     */
+    public boolean isUnitAvailable(Long unitId, LocalDate checkIn, LocalDate checkOut) {
+        return !accommodationUnitRepository.findAvailableUnitIds(List.of(unitId), checkIn, checkOut,
+                BLOCKING_BOOKING_STATUSES, ADMISSION_RESERVATION_STATUSES).isEmpty();
+    }
+
+    /**
+     * Same check for an existing reservation changing status, which must not conflict with itself.
+     */
+    public boolean isUnitAvailable(Long unitId, LocalDate checkIn, LocalDate checkOut, Long excludedReservationId) {
+        return !accommodationUnitRepository.findIfAvailableExcludingReservation(unitId, checkIn, checkOut,
+                BLOCKING_BOOKING_STATUSES, ADMISSION_RESERVATION_STATUSES, excludedReservationId).isEmpty();
+    }
+
+    /**
+     * All units marked available that are free for the whole [checkIn, checkOut) range.
+     */
+    public List<AccommodationUnit> findAvailableUnits(LocalDate checkIn, LocalDate checkOut) {
+        return accommodationUnitRepository.findAvailableUnits(
+                checkIn, checkOut, BLOCKING_BOOKING_STATUSES, BLOCKING_RESERVATION_STATUSES);
+    }
+}
@@ -8,6 +8,7 @@ import com.licentarazu.turismapp.dto.BookingResponseDTO;
 import com.licentarazu.turismapp.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +17,7 @@ import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
@@ -24,11 +26,19 @@ public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final EmailService emailService;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final UnitLockService unitLocks;
+    private final AvailabilityService availabilityService;
 
     @Autowired
-    public BookingService(BookingRepository bookingRepository, EmailService emailService) {
+    public BookingService(BookingRepository bookingRepository, EmailService emailService,
+            AvailabilityCalendar availabilityCalendar, UnitLockService unitLocks,
+            AvailabilityService availabilityService) {
         this.bookingRepository = bookingRepository;
         this.emailService = emailService;
+        this.availabilityCalendar = availabilityCalendar;
+        this.unitLocks = unitLocks;
+        this.availabilityService = availabilityService;
     }
 
     // ✅ Enhanced booking creation with email notifications
@@ -39,40 +49,10 @@ public class BookingService {
         LocalDate checkIn = booking.getCheckInDate();
         LocalDate checkOut = booking.getCheckOutDate();
 
-        List<Booking> overlappingBookings = bookingRepository
-                .findByAccommodationUnitAndCheckOutDateAfterAndCheckInDateBefore(
-                        booking.getAccommodationUnit(), checkIn, checkOut);
+        Booking savedBooking = admit(booking);
 
-        if (overlappingBookings.isEmpty()) {
-            // Save the booking first
-            Booking savedBooking = bookingRepository.save(booking);
+        if (savedBooking != null) {
             logger.info("✅ Booking saved successfully with ID: {}", savedBooking.getId());
-
-            // Send email notifications
-            try {
-                // Send confirmation email to guest
-                if (savedBooking.getGuestEmail() != null && !savedBooking.getGuestEmail().isEmpty()) {
-                    logger.info("Sending booking confirmation email to guest: {}", savedBooking.getGuestEmail());
-                    emailService.sendBookingConfirmationToGuest(savedBooking);
-                } else {
-                    logger.warn("Cannot send guest confirmation - guest email is null or empty");
-                }
-
-                // Send notification email to property owner
-                if (savedBooking.getAccommodationUnit().getOwner() != null) {
-                    logger.info("Sending booking notification email to owner: {}",
-                            savedBooking.getAccommodationUnit().getOwner().getEmail());
-                    emailService.sendBookingNotificationToOwner(savedBooking);
-                } else {
-                    logger.warn("Cannot send owner notification - property owner is null");
-                }
-
-            } catch (Exception e) {
-                logger.error("Error sending booking notification emails (booking still successful): {}",
-                        e.getMessage());
-                // Don't fail the booking if email sending fails
-            }
-
             return true;
         } else {
             logger.warn("❌ Booking failed - overlapping bookings found for dates {} to {}", checkIn, checkOut);
@@ -105,48 +85,49 @@ public class BookingService {
             logger.info("Calculated total price: {} RON for {} nights", totalPrice, nights);
         }
 
-        // Check for overlapping bookings
-        LocalDate checkIn = booking.getCheckInDate();
-        LocalDate checkOut = booking.getCheckOutDate();
-
-        List<Booking> overlappingBookings = bookingRepository
-                .findByAccommodationUnitAndCheckOutDateAfterAndCheckInDateBefore(
-                        booking.getAccommodationUnit(), checkIn, checkOut);
-
-        if (!overlappingBookings.isEmpty()) {
-            logger.warn("❌ Booking failed - overlapping bookings found for dates {} to {}", checkIn, checkOut);
+        // Check for overlapping bookings and save, atomically per unit
+        Booking savedBooking = admit(booking);
+        if (savedBooking == null) {
+            logger.warn("❌ Booking failed - overlapping bookings found for dates {} to {}",
+                    booking.getCheckInDate(), booking.getCheckOutDate());
             throw new IllegalStateException("The accommodation unit is not available for the selected dates");
         }
-
-        // Save the booking
-        Booking savedBooking = bookingRepository.save(booking);
         logger.info("✅ Booking saved successfully with ID: {}", savedBooking.getId());
 
-        // Send email notifications asynchronously (don't fail booking if emails fail)
-        try {
-            // Send confirmation email to guest
-            if (savedBooking.getGuestEmail() != null && !savedBooking.getGuestEmail().isEmpty()) {
-                logger.info("Sending booking confirmation email to guest: {}", savedBooking.getGuestEmail());
-                emailService.sendBookingConfirmationToGuest(savedBooking);
-            } else {
-                logger.warn("Cannot send guest confirmation - guest email is null or empty");
-            }
+        return savedBooking;
+    }
 
-            // Send notification email to property owner
-            if (savedBooking.getAccommodationUnit().getOwner() != null) {
-                logger.info("Sending booking notification email to owner: {}",
-                        savedBooking.getAccommodationUnit().getOwner().getEmail());
-                emailService.sendBookingNotificationToOwner(savedBooking);
-            } else {
-                logger.warn("Cannot send owner notification - property owner is null");
+    // Availability check and insert under the unit's lock: concurrent requests for the same nights
+    // cannot both pass the check. Returns null (nothing saved) if the nights are taken.
+    // The notification emails are queued in the same transaction, so they go out only if the booking commits.
+    private Booking admit(Booking booking) {
+        Long unitId = booking.getAccommodationUnit().getId();
+        return unitLocks.withUnitLocked(unitId, () -> {
+            // Admission rule shared with reservations: blocking bookings, pending or confirmed reservations, [checkIn, checkOut)
+            if (!availabilityService.isUnitAvailable(unitId, booking.getCheckInDate(), booking.getCheckOutDate())) {
+                return null;
             }
+            Booking savedBooking = bookingRepository.save(booking);
+            availabilityCalendar.bookingSaved(savedBooking);
+            queueBookingEmails(savedBooking);
+            return savedBooking;
+        });
+    }
 
-        } catch (Exception e) {
-            logger.error("Error sending booking notification emails (booking still successful): {}", e.getMessage());
-            // Don't fail the booking if email sending fails
+    private void queueBookingEmails(Booking savedBooking) {
+        // Confirmation email to guest
+        if (savedBooking.getGuestEmail() != null && !savedBooking.getGuestEmail().isEmpty()) {
+            emailService.sendBookingConfirmationToGuest(savedBooking);
+        } else {
+            logger.warn("Cannot send guest confirmation - guest email is null or empty");
         }
 
-        return savedBooking;
+        // Notification email to property owner
+        if (savedBooking.getAccommodationUnit().getOwner() != null) {
+            emailService.sendBookingNotificationToOwner(savedBooking);
+        } else {
+            logger.warn("Cannot send owner notification - property owner is null");
+        }
     }
 
     // Returnează toate rezervările
@@ -154,23 +135,36 @@ public class BookingService {
         return bookingRepository.findAll();
     }
 
+    // Toate rezervările ca Stream (se consumă într-o tranzacție, vezi JsonStreamingService)
+    public Stream<Booking> streamAllBookings() {
+        return bookingRepository.streamAll();
+    }
+
     // Returnează rezervările pentru o unitate de cazare
     public List<Booking> getBookingsByUnit(Long unitId) {
-        return bookingRepository.findAll().stream()
-                .filter(b -> b.getAccommodationUnit().getId().equals(unitId))
-                .toList();
+        return bookingRepository.findByAccommodationUnit_Id(unitId);
+    }
+
+    // Returnează rezervările pentru toate unitățile unui proprietar
+    @Transactional(readOnly = true)
+    public List<Booking> getBookingsByOwner(User owner) {
+        return bookingRepository.findByOwner(owner);
     }
 
     // Șterge o rezervare după ID
     public boolean deleteBooking(Long id) {
-        if (bookingRepository.existsById(id)) {
+        Optional<Booking> booking = bookingRepository.findById(id);
+        if (booking.isPresent()) {
             bookingRepository.deleteById(id);
+            availabilityCalendar.refreshUnit(booking.get().getAccommodationUnit().getId(),
+                    booking.get().getCheckInDate(), booking.get().getCheckOutDate());
             return true;
         }
         return false;
     }
 
     // ✅ Calculează profitul lunar pentru o unitate în ultimele N luni
+    @Transactional(readOnly = true)
     public Map<String, Double> calculateMonthlyProfitForUnit(Long unitId, int monthsBack) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusMonths(monthsBack);
@@ -217,6 +211,7 @@ public class BookingService {
     /**
      * Get total bookings count for units owned by a specific user
      */
+    @Transactional(readOnly = true)
     public int getBookingsCountByOwner(User owner) {
         List<Booking> allBookings = bookingRepository.findAll();
         return (int) allBookings.stream()
@@ -227,6 +222,7 @@ public class BookingService {
     /**
      * Calculate total revenue for units owned by a specific user
      */
+    @Transactional(readOnly = true)
     public double getTotalRevenueByOwner(User owner) {
         List<Booking> allBookings = bookingRepository.findAll();
         return allBookings.stream()
@@ -239,6 +235,7 @@ public class BookingService {
     /**
      * Calculate occupancy rate for units owned by a specific user
      */
+    @Transactional(readOnly = true)
     public double getOccupancyRate(User owner) {
         List<Booking> ownerBookings = bookingRepository.findAll().stream()
                 .filter(booking -> booking.getAccommodationUnit().getOwner().getId().equals(owner.getId()))
@@ -271,6 +268,7 @@ public class BookingService {
     /**
      * Calculate revenue growth percentage compared to previous period
      */
+    @Transactional(readOnly = true)
     public double getRevenueGrowth(User owner) {
         LocalDate now = LocalDate.now();
         LocalDate currentMonthStart = now.withDayOfMonth(1);
@@ -306,7 +304,8 @@ public class BookingService {
         return bookingRepository.findById(bookingId).orElse(null);
     }
 
-    // ✅ Cancel booking with email notifications
+    // ✅ Cancel booking with email notifications (queued with the status change, in one transaction)
+    @Transactional
     public Booking cancelBookingWithNotifications(Booking booking, User cancelledBy) {
         logger.info("Cancelling booking ID: {} by user: {}", booking.getId(), cancelledBy.getEmail());
 
@@ -322,42 +321,39 @@ public class BookingService {
         // Update booking status
         booking.setStatus(BookingStatus.CANCELLED);
         Booking cancelledBooking = bookingRepository.save(booking);
+        availabilityCalendar.refreshUnit(cancelledBooking.getAccommodationUnit().getId(),
+                cancelledBooking.getCheckInDate(), cancelledBooking.getCheckOutDate());
         
         logger.info("✅ Booking status updated to CANCELLED: {}", booking.getId());
 
-        // Send email notifications asynchronously (don't fail cancellation if emails fail)
-        try {
-            // Determine who cancelled the booking
-            boolean cancelledByGuest = cancelledBy.getEmail().equals(booking.getGuestEmail());
-            boolean cancelledByOwner = booking.getAccommodationUnit().getOwner().getId().equals(cancelledBy.getId());
+        // Queue email notifications; they commit or roll back with the status change
 
-            // Send cancellation notification to guest (if cancelled by owner/admin)
-            if (!cancelledByGuest && booking.getGuestEmail() != null && !booking.getGuestEmail().isEmpty()) {
-                logger.info("Sending cancellation notification to guest: {}", booking.getGuestEmail());
+        // Determine who cancelled the booking
+        boolean cancelledByGuest = cancelledBy.getEmail().equals(booking.getGuestEmail());
+        boolean cancelledByOwner = booking.getAccommodationUnit().getOwner().getId().equals(cancelledBy.getId());
+
+        // Send cancellation notification to guest (if cancelled by owner/admin)
+        if (!cancelledByGuest && booking.getGuestEmail() != null && !booking.getGuestEmail().isEmpty()) {
+            logger.info("Sending cancellation notification to guest: {}", booking.getGuestEmail());
+            emailService.sendBookingCancellationToGuest(cancelledBooking, cancelledBy);
+        }
+
+        // Send cancellation notification to owner (if cancelled by guest/admin)
+        if (!cancelledByOwner && booking.getAccommodationUnit().getOwner() != null) {
+            logger.info("Sending cancellation notification to owner: {}", 
+                       booking.getAccommodationUnit().getOwner().getEmail());
+            emailService.sendBookingCancellationToOwner(cancelledBooking, cancelledBy);
+        }
+
+        // If cancelled by admin, notify both parties
+        if (!cancelledByGuest && !cancelledByOwner) {
+            logger.info("Admin cancellation - notifying both guest and owner");
+            if (booking.getGuestEmail() != null && !booking.getGuestEmail().isEmpty()) {
                 emailService.sendBookingCancellationToGuest(cancelledBooking, cancelledBy);
             }
-
-            // Send cancellation notification to owner (if cancelled by guest/admin)
-            if (!cancelledByOwner && booking.getAccommodationUnit().getOwner() != null) {
-                logger.info("Sending cancellation notification to owner: {}", 
-                           booking.getAccommodationUnit().getOwner().getEmail());
+            if (booking.getAccommodationUnit().getOwner() != null) {
                 emailService.sendBookingCancellationToOwner(cancelledBooking, cancelledBy);
             }
-
-            // If cancelled by admin, notify both parties
-            if (!cancelledByGuest && !cancelledByOwner) {
-                logger.info("Admin cancellation - notifying both guest and owner");
-                if (booking.getGuestEmail() != null && !booking.getGuestEmail().isEmpty()) {
-                    emailService.sendBookingCancellationToGuest(cancelledBooking, cancelledBy);
-                }
-                if (booking.getAccommodationUnit().getOwner() != null) {
-                    emailService.sendBookingCancellationToOwner(cancelledBooking, cancelledBy);
-                }
-            }
-
-        } catch (Exception e) {
-            logger.error("Error sending booking cancellation emails (cancellation still successful): {}", e.getMessage());
-            // Don't fail the cancellation if email sending fails
         }
 
         return cancelledBooking;
@@ -400,9 +396,7 @@ public class BookingService {
 
     // ✅ Get user bookings as DTOs with unit details
     public List<BookingResponseDTO> getUserBookingsAsDTO(String guestEmail) {
-        List<Booking> allBookings = getAllBookings();
-        return allBookings.stream()
-                .filter(booking -> guestEmail.equals(booking.getGuestEmail()))
+        return bookingRepository.findByGuestEmail(guestEmail).stream()
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
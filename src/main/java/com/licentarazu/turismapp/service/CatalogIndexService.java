@@ -0,0 +1,970 @@
+package com.licentarazu.turismapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.licentarazu.turismapp.dto.AccommodationUnitDTO;
+import com.licentarazu.turismapp.dto.FacetCountsDTO;
+import com.licentarazu.turismapp.dto.UnitPageDTO;
+import com.licentarazu.turismapp.dto.UnitPageRequest;
+import com.licentarazu.turismapp.dto.UnitSearchCriteria;
+import com.licentarazu.turismapp.model.AccommodationUnit;
+import com.licentarazu.turismapp.model.Amenity;
+import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
+import com.licentarazu.turismapp.util.AccommodationUnitMapper;
+import com.licentarazu.turismapp.util.GeoUtils;
+import com.licentarazu.turismapp.util.TextNormalizer;
+
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
+/**
+ * In-memory columnar index of the public catalog (active and available units).
+ *
+ * Every indexed unit owns a slot; filterable attributes live in primitive arrays
+ * indexed by slot, county and type are interned to ids with one BitSet posting
+ * list per value, name/description/location/county go into a BM25 full-text
+ * index, and a DTO snapshot is kept per slot so the public listing is
+ * answered without touching the database. The index is rebuilt once at startup
+ * and then kept up to date by the unit write paths (changes are applied after
+ * the surrounding transaction commits). Every change also clears the search result cache
+ * and bumps the catalog/unit versions used for ETags.
+ */
+@Service
+public class CatalogIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexService.class);
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    static final String SORT_CREATED_AT = "createdAt";
+    static final String SORT_PRICE = "price";
+    static final String SORT_RATING = "rating";
+    static final String SORT_CAPACITY = "capacity";
+    static final String SORT_DISTANCE = "distance";
+    static final String SORT_RELEVANCE = "relevance";
+    static final String SORT_RANK = "rank";
+    private static final List<String> SORT_KEYS = List.of(
+            SORT_CREATED_AT, SORT_PRICE, SORT_RATING, SORT_CAPACITY, SORT_DISTANCE, SORT_RELEVANCE, SORT_RANK);
+
+    private final AccommodationUnitRepository accommodationUnitRepository;
+    private final AvailabilityService availabilityService;
+    private final SearchResultCache searchCache;
+    private final CatalogVersionService catalogVersions;
+    private final RankingWeights rankingWeights;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Columns, one entry per slot
+    private long[] unitIds = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] capacities = new int[INITIAL_CAPACITY];
+    private float[] ratings = new float[INITIAL_CAPACITY];
+    private int[] reviewCounts = new int[INITIAL_CAPACITY];
+    private int[] countyIds = new int[INITIAL_CAPACITY];
+    private int[] typeIds = new int[INITIAL_CAPACITY];
+    private long[] createdDays = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private long[] amenityMasks = new long[INITIAL_CAPACITY];
+    private String[] locationTexts = new String[INITIAL_CAPACITY];
+    private AccommodationUnitDTO[] snapshots = new AccommodationUnitDTO[INITIAL_CAPACITY];
+
+    private final BitSet liveSlots = new BitSet();
+    private final Map<Long, Integer> slotsByUnitId = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount = 0;
+
+    private final Dictionary counties = new Dictionary();
+    private final Dictionary types = new Dictionary();
+    private final FullTextIndex textIndex = new FullTextIndex();
+
+    private volatile boolean ready = false;
+
+    public CatalogIndexService(AccommodationUnitRepository accommodationUnitRepository,
+            AvailabilityService availabilityService,
+            SearchResultCache searchCache,
+            CatalogVersionService catalogVersions,
+            RankingWeights rankingWeights) {
+        this.accommodationUnitRepository = accommodationUnitRepository;
+        this.availabilityService = availabilityService;
+        this.searchCache = searchCache;
+        this.catalogVersions = catalogVersions;
+        this.rankingWeights = rankingWeights;
+    }
+
+    // ===== BUILD =====
+
+    /**
+     * Load every active and available unit. Runs after the DataSeeder so seeded units are included.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        List<Row> rows = new ArrayList<>();
+        for (AccommodationUnit unit : accommodationUnitRepository.findAllActiveAndAvailable()) {
+            rows.add(new Row(unit));
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Row row : rows) {
+                put(row);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        published(null);
+
+        logger.info("✅ Catalog index built with {} units in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByUnitId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== INCREMENTAL UPDATES =====
+
+    /**
+     * Re-index a unit after it was created or changed. Units that are no longer
+     * active and available are dropped from the index.
+     */
+    public void upsert(AccommodationUnit unit) {
+        upsert(unit, null);
+    }
+
+    /**
+     * Same as {@link #upsert(AccommodationUnit)}, for write paths where the photos were saved
+     * separately and are not yet visible on the unit's photo collection.
+     */
+    public void upsert(AccommodationUnit unit, List<String> photoUrls) {
+        if (unit == null || unit.getId() == null) {
+            return;
+        }
+        if (!isIndexable(unit)) {
+            remove(unit.getId());
+            return;
+        }
+
+        // Snapshot now, while the unit is still attached; apply once the write is committed
+        Row row = new Row(unit);
+        if (photoUrls != null) {
+            row.snapshot.setPhotoUrls(new ArrayList<>(photoUrls));
+        }
+
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                put(row);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            published(row.unitId);
+        });
+    }
+
+    public void remove(Long unitId) {
+        if (unitId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slotsByUnitId.remove(unitId);
+                if (slot != null) {
+                    release(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            published(unitId);
+        });
+    }
+
+    public void removeAll(Collection<AccommodationUnit> units) {
+        for (AccommodationUnit unit : units) {
+            remove(unit.getId());
+        }
+    }
+
+    public void updateRating(Long unitId, double averageRating, int reviewCountDelta) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slotsByUnitId.get(unitId);
+                if (slot != null) {
+                    ratings[slot] = (float) averageRating;
+                    reviewCounts[slot] = Math.max(0, reviewCounts[slot] + reviewCountDelta);
+                    // Snapshots are shared with readers and cached results: replace, never mutate
+                    AccommodationUnitDTO snapshot = new AccommodationUnitDTO(snapshots[slot]);
+                    snapshot.setRating(averageRating);
+                    snapshot.setReviewCount(reviewCounts[slot]);
+                    snapshots[slot] = snapshot;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            published(unitId);
+        });
+    }
+
+    // Readers see the change: drop cached searches first, then move the ETag versions
+    private void published(Long unitId) {
+        searchCache.invalidateCatalog();
+        if (unitId != null) {
+            catalogVersions.unitChanged(unitId);
+        } else {
+            catalogVersions.catalogChanged();
+        }
+    }
+
+    // ===== QUERY =====
+
+    /**
+     * Apply the catalog filters of /api/units/public. Semantics follow
+     * AccommodationUnitRepository.findByFiltersWithRating plus the free-text filter
+     * on name, description, location and county. Location and text matching ignore
+     * diacritics. Results are ordered by text relevance when searching, newest first otherwise.
+     */
+    public List<AccommodationUnitDTO> search(UnitSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = new HashMap<>();
+            BitSet matches = match(criteria, scores);
+            return collect(matches, scores.isEmpty() ? null : scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One keyset page of the catalog: the filters of {@link #search} plus the criteria's
+     * date range, ordered by the requested key with id as tie-break. Only the rows after
+     * the cursor are kept, and the page is picked with a heap of limit + 1 entries, so a
+     * late page costs the same as the first one and nothing beyond the page is sorted:
+     * O(n log k) for n matches and a page of k. Without dates the scan feeds the heap
+     * directly; with dates the candidates are collected first for one availability query.
+     */
+    public UnitPageDTO page(UnitSearchCriteria criteria, UnitPageRequest request) {
+        boolean searching = criteria.getTextFilter() != null;
+        String sort = request.getSort() != null ? request.getSort() : (searching ? SORT_RELEVANCE : SORT_CREATED_AT);
+        if (!SORT_KEYS.contains(sort)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + ". Use one of " + SORT_KEYS);
+        }
+        if (SORT_DISTANCE.equals(sort) && (request.getLatitude() == null || request.getLongitude() == null)) {
+            throw new IllegalArgumentException("Sorting by distance requires lat and lon");
+        }
+        if (SORT_RELEVANCE.equals(sort) && !searching) {
+            throw new IllegalArgumentException("Sorting by relevance requires a search term");
+        }
+        boolean descending = request.getOrder() != null ? "desc".equalsIgnoreCase(request.getOrder())
+                : SORT_CREATED_AT.equals(sort) || SORT_RATING.equals(sort) || SORT_RELEVANCE.equals(sort)
+                        || SORT_RANK.equals(sort);
+
+        Comparator<Hit> order = Comparator.comparingDouble((Hit hit) -> hit.key).thenComparingLong(hit -> hit.unitId);
+        if (descending) {
+            order = order.reversed();
+        }
+        Hit after = request.getAfter() != null ? decodeCursor(request.getAfter(), sort, descending) : null;
+
+        // Keep the first limit + 1 hits in order; the extra one only tells whether there is a next page
+        int limit = request.getLimit();
+        PriorityQueue<Hit> top = new PriorityQueue<>(order.reversed());
+        boolean dated = criteria.getCheckIn() != null && criteria.getCheckOut() != null;
+        List<Hit> candidates = dated ? new ArrayList<>() : null;
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = new HashMap<>();
+            BitSet matches = match(criteria, scores);
+            Ranking ranking = SORT_RANK.equals(sort) ? new Ranking(matches, scores, criteria, request) : null;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                double key = ranking != null ? ranking.score(slot) : sortKey(sort, slot, scores, request);
+                // Missing values (no price, no coordinates, ...) go last in either direction
+                if (Double.isNaN(key)) {
+                    key = descending ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                }
+                Hit hit = new Hit(unitIds[slot], key, snapshots[slot]);
+                if (after == null || order.compare(hit, after) > 0) {
+                    if (dated) {
+                        candidates.add(hit);
+                    } else {
+                        offer(top, hit, limit + 1);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (dated) {
+            Set<Long> free = availabilityService.findAvailableUnitIds(
+                    candidates.stream().map(hit -> hit.unitId).toList(), criteria.getCheckIn(), criteria.getCheckOut());
+            for (Hit hit : candidates) {
+                if (free.contains(hit.unitId)) {
+                    offer(top, hit, limit + 1);
+                }
+            }
+        }
+        List<Hit> pageHits = new ArrayList<>(top);
+        pageHits.sort(order);
+
+        String nextCursor = null;
+        if (pageHits.size() > limit) {
+            pageHits = pageHits.subList(0, limit);
+            nextCursor = encodeCursor(sort, descending, pageHits.get(limit - 1));
+        }
+        List<AccommodationUnitDTO> items = new ArrayList<>(pageHits.size());
+        for (Hit hit : pageHits) {
+            items.add(hit.snapshot);
+        }
+        return new UnitPageDTO(items, nextCursor, sort, descending ? "desc" : "asc");
+    }
+
+    // Bounded heap whose head is the worst kept hit: O(log size) per offer
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int size) {
+        if (top.size() < size) {
+            top.add(hit);
+        } else if (top.comparator().compare(hit, top.peek()) > 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    /**
+     * Weighted relevance for the "rank" sort. A first pass over the matches finds the
+     * ranges used to scale each signal to [0, 1]; score(slot) is then O(1):
+     * text relevance (BM25 over the best match), rating out of 5, review count on a log
+     * scale, price fit and distance. Price fit is closeness to the middle of the guest's
+     * price range, or cheaper-is-better within the matches when there is no range.
+     * Caller holds the read lock.
+     */
+    private class Ranking {
+        private final Map<Integer, Double> scores;
+        private final double maxText;
+        private final double logMaxReviews;
+        private final double minPrice;
+        private final double maxPrice;
+        private final Double targetPrice;
+        private final Double latitude;
+        private final Double longitude;
+        private final double maxDistance;
+        private final double[] distances;
+
+        private final double textWeight;
+        private final double distanceWeight;
+        private final double totalWeight;
+
+        Ranking(BitSet matches, Map<Integer, Double> scores, UnitSearchCriteria criteria, UnitPageRequest request) {
+            this.scores = scores;
+            this.latitude = request.getLatitude();
+            this.longitude = request.getLongitude();
+            boolean located = latitude != null && longitude != null;
+
+            double text = 0;
+            int reviews = 0;
+            double low = Double.POSITIVE_INFINITY;
+            double high = Double.NEGATIVE_INFINITY;
+            double far = 0;
+            this.distances = located ? new double[slotCount] : null;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                text = Math.max(text, scores.getOrDefault(slot, 0.0));
+                reviews = Math.max(reviews, reviewCounts[slot]);
+                if (!Double.isNaN(prices[slot])) {
+                    low = Math.min(low, prices[slot]);
+                    high = Math.max(high, prices[slot]);
+                }
+                if (located) {
+                    double distance = Double.isNaN(latitudes[slot]) || Double.isNaN(longitudes[slot]) ? Double.NaN
+                            : GeoUtils.distanceInKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+                    distances[slot] = distance;
+                    if (!Double.isNaN(distance)) {
+                        far = Math.max(far, distance);
+                    }
+                }
+            }
+            this.maxText = text;
+            this.logMaxReviews = Math.log1p(reviews);
+            this.minPrice = low;
+            this.maxPrice = high;
+            this.maxDistance = far;
+
+            Double min = criteria.getMinPrice();
+            Double max = criteria.getMaxPrice();
+            this.targetPrice = min != null && max != null ? (min + max) / 2 : (min != null ? min : max);
+
+            this.textWeight = maxText > 0 ? rankingWeights.getText() : 0;
+            this.distanceWeight = located ? rankingWeights.getDistance() : 0;
+            this.totalWeight = textWeight + rankingWeights.getRating() + rankingWeights.getReviews()
+                    + rankingWeights.getPrice() + distanceWeight;
+        }
+
+        double score(int slot) {
+            if (totalWeight == 0) {
+                return 0;
+            }
+            double score = rankingWeights.getRating() * ratings[slot] / 5.0;
+            if (logMaxReviews > 0) {
+                score += rankingWeights.getReviews() * Math.log1p(reviewCounts[slot]) / logMaxReviews;
+            }
+            score += rankingWeights.getPrice() * priceFit(prices[slot]);
+            if (textWeight > 0) {
+                score += textWeight * scores.getOrDefault(slot, 0.0) / maxText;
+            }
+            if (distanceWeight > 0 && !Double.isNaN(distances[slot])) {
+                score += distanceWeight * (maxDistance > 0 ? 1 - distances[slot] / maxDistance : 1);
+            }
+            return score / totalWeight;
+        }
+
+        // A missing price fits nothing
+        private double priceFit(double price) {
+            if (Double.isNaN(price)) {
+                return 0;
+            }
+            if (targetPrice != null) {
+                return targetPrice > 0 ? 1 / (1 + Math.abs(price - targetPrice) / targetPrice) : 0;
+            }
+            return maxPrice > minPrice ? 1 - (price - minPrice) / (maxPrice - minPrice) : 1;
+        }
+    }
+
+    // ===== FACETS =====
+
+    private static final double[] PRICE_BUCKET_EDGES = {0, 100, 200, 300, 500};
+    private static final int[] CAPACITY_BUCKET_EDGES = {0, 3, 5, 7};
+    private static final double[] RATING_BAND_MINIMUMS = {4.5, 4, 3, 2};
+
+    private static final int FACET_LOCATION = 0;
+    private static final int FACET_TYPE = 1;
+    private static final int FACET_PRICE = 2;
+    private static final int FACET_CAPACITY = 3;
+    private static final int FACET_RATING = 4;
+
+    /**
+     * Facet counts for the /api/units/public filters, in one pass over the slots that pass the
+     * non-facet filters (text, amenities, dates). A slot failing no facet filter counts in every
+     * dimension; a slot failing exactly one counts only in that dimension; anything else is skipped.
+     */
+    public FacetCountsDTO facets(UnitSearchCriteria criteria) {
+        boolean byDates = criteria.getCheckIn() != null && criteria.getCheckOut() != null;
+
+        BitSet base;
+        List<Long> candidateIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            base = commonMatches(criteria, new HashMap<>());
+            if (byDates) {
+                for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+                    candidateIds.add(unitIds[slot]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Availability may hit the database, so it runs outside the lock
+        Set<Long> free = byDates
+                ? availabilityService.findAvailableUnitIds(candidateIds, criteria.getCheckIn(), criteria.getCheckOut())
+                : null;
+
+        FacetCountsDTO facets = new FacetCountsDTO();
+        for (int i = 0; i < PRICE_BUCKET_EDGES.length; i++) {
+            facets.getPriceBuckets().put(priceBucket(i), 0L);
+        }
+        for (int i = 0; i < CAPACITY_BUCKET_EDGES.length; i++) {
+            facets.getCapacityBuckets().put(capacityBucket(i), 0L);
+        }
+        for (double minimum : RATING_BAND_MINIMUMS) {
+            facets.getRatingBands().put(ratingBand(minimum), 0L);
+        }
+
+        lock.readLock().lock();
+        try {
+            // Slots freed (or reused) in between drop out here
+            base.and(liveSlots);
+            if (free != null) {
+                for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+                    if (!free.contains(unitIds[slot])) {
+                        base.clear(slot);
+                    }
+                }
+            }
+
+            BitSet byLocation = locationMatches(criteria, base);
+            BitSet byType = typeMatches(criteria);
+            long total = 0;
+            for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+                int failed = 0;
+                int failedFacet = -1;
+                if (byLocation != null && !byLocation.get(slot)) {
+                    failed++;
+                    failedFacet = FACET_LOCATION;
+                }
+                if (byType != null && !byType.get(slot)) {
+                    failed++;
+                    failedFacet = FACET_TYPE;
+                }
+                if (!priceMatches(slot, criteria)) {
+                    failed++;
+                    failedFacet = FACET_PRICE;
+                }
+                if (!capacityMatches(slot, criteria)) {
+                    failed++;
+                    failedFacet = FACET_CAPACITY;
+                }
+                if (!ratingMatches(slot, criteria)) {
+                    failed++;
+                    failedFacet = FACET_RATING;
+                }
+
+                if (failed == 0) {
+                    total++;
+                    for (int facet = FACET_LOCATION; facet <= FACET_RATING; facet++) {
+                        countFacet(facets, facet, slot);
+                    }
+                } else if (failed == 1) {
+                    countFacet(facets, failedFacet, slot);
+                }
+            }
+            facets.setTotal(total);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return facets;
+    }
+
+    private void countFacet(FacetCountsDTO facets, int facet, int slot) {
+        switch (facet) {
+            case FACET_LOCATION:
+                String county = counties.value(countyIds[slot]);
+                if (county != null) {
+                    facets.getCounties().merge(county, 1L, Long::sum);
+                }
+                break;
+            case FACET_TYPE:
+                String type = types.value(typeIds[slot]);
+                if (type != null) {
+                    facets.getTypes().merge(type, 1L, Long::sum);
+                }
+                break;
+            case FACET_PRICE:
+                if (!Double.isNaN(prices[slot])) {
+                    int bucket = 0;
+                    while (bucket + 1 < PRICE_BUCKET_EDGES.length && prices[slot] >= PRICE_BUCKET_EDGES[bucket + 1]) {
+                        bucket++;
+                    }
+                    facets.getPriceBuckets().merge(priceBucket(bucket), 1L, Long::sum);
+                }
+                break;
+            case FACET_CAPACITY:
+                int bucket = 0;
+                while (bucket + 1 < CAPACITY_BUCKET_EDGES.length && capacities[slot] >= CAPACITY_BUCKET_EDGES[bucket + 1]) {
+                    bucket++;
+                }
+                facets.getCapacityBuckets().merge(capacityBucket(bucket), 1L, Long::sum);
+                break;
+            default:
+                for (double minimum : RATING_BAND_MINIMUMS) {
+                    if (ratings[slot] >= minimum) {
+                        facets.getRatingBands().merge(ratingBand(minimum), 1L, Long::sum);
+                    }
+                }
+        }
+    }
+
+    // "0-100", ..., "500+"
+    private static String priceBucket(int index) {
+        long from = (long) PRICE_BUCKET_EDGES[index];
+        return index + 1 < PRICE_BUCKET_EDGES.length ? from + "-" + (long) PRICE_BUCKET_EDGES[index + 1] : from + "+";
+    }
+
+    // "1-2", "3-4", "5-6", "7+"
+    private static String capacityBucket(int index) {
+        int from = Math.max(1, CAPACITY_BUCKET_EDGES[index]);
+        return index + 1 < CAPACITY_BUCKET_EDGES.length ? from + "-" + (CAPACITY_BUCKET_EDGES[index + 1] - 1) : from + "+";
+    }
+
+    private static String ratingBand(double minimum) {
+        return (minimum == Math.rint(minimum) ? String.valueOf((int) minimum) : String.valueOf(minimum)) + "+";
+    }
+
+    // Slots matching the catalog filters; text scores are written to scores (caller holds the read lock)
+    private BitSet match(UnitSearchCriteria criteria, Map<Integer, Double> scores) {
+        BitSet matches = commonMatches(criteria, scores);
+
+        BitSet byLocation = locationMatches(criteria, matches);
+        if (byLocation != null) {
+            matches.and(byLocation);
+        }
+        BitSet byType = typeMatches(criteria);
+        if (byType != null) {
+            matches.and(byType);
+        }
+
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null || criteria.getCapacity() != null
+                || criteria.getMaxCapacity() != null || criteria.getMinRating() != null) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (!priceMatches(slot, criteria) || !capacityMatches(slot, criteria) || !ratingMatches(slot, criteria)) {
+                    matches.clear(slot);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Filters that are not facet dimensions: amenities and free text
+    private BitSet commonMatches(UnitSearchCriteria criteria, Map<Integer, Double> scores) {
+        BitSet matches = (BitSet) liveSlots.clone();
+
+        long amenityMask = criteria.getAmenityMask();
+        if (amenityMask != 0) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if ((amenityMasks[slot] & amenityMask) != amenityMask) {
+                    matches.clear(slot);
+                }
+            }
+        }
+
+        String textFilter = criteria.getTextFilter();
+        if (textFilter != null) {
+            Map<Integer, Double> textScores = textIndex.search(textFilter);
+            if (textScores != null) {
+                BitSet byText = new BitSet();
+                textScores.keySet().forEach(byText::set);
+                matches.and(byText);
+                scores.putAll(textScores);
+            }
+        }
+        return matches;
+    }
+
+    // Slots among candidates whose county or location contains the location filter; null when there is none
+    private BitSet locationMatches(UnitSearchCriteria criteria, BitSet candidates) {
+        String locationFilter = criteria.getLocationFilter();
+        if (locationFilter == null) {
+            return null;
+        }
+        String needle = TextNormalizer.fold(locationFilter);
+        // County is interned, so match the (few) distinct values once and OR their postings
+        BitSet byLocation = counties.postingsWhere(value -> TextNormalizer.fold(value).contains(needle));
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            if (locationTexts[slot].contains(needle)) {
+                byLocation.set(slot);
+            }
+        }
+        return byLocation;
+    }
+
+    private BitSet typeMatches(UnitSearchCriteria criteria) {
+        String type = criteria.getType();
+        if (type == null || type.isEmpty()) {
+            return null;
+        }
+        return types.postingsWhere(value -> value.equalsIgnoreCase(type));
+    }
+
+    // A missing price is NaN and fails every comparison, like NULL in SQL
+    private boolean priceMatches(int slot, UnitSearchCriteria criteria) {
+        return (criteria.getMinPrice() == null || prices[slot] >= criteria.getMinPrice())
+                && (criteria.getMaxPrice() == null || prices[slot] <= criteria.getMaxPrice());
+    }
+
+    private boolean capacityMatches(int slot, UnitSearchCriteria criteria) {
+        return (criteria.getCapacity() == null || capacities[slot] >= criteria.getCapacity())
+                && (criteria.getMaxCapacity() == null || capacities[slot] <= criteria.getMaxCapacity());
+    }
+
+    private boolean ratingMatches(int slot, UnitSearchCriteria criteria) {
+        return criteria.getMinRating() == null || ratings[slot] >= criteria.getMinRating();
+    }
+
+    private double sortKey(String sort, int slot, Map<Integer, Double> scores, UnitPageRequest request) {
+        switch (sort) {
+            case SORT_PRICE:
+                return prices[slot];
+            case SORT_RATING:
+                return ratings[slot];
+            case SORT_CAPACITY:
+                return capacities[slot];
+            case SORT_DISTANCE:
+                return Double.isNaN(latitudes[slot]) || Double.isNaN(longitudes[slot]) ? Double.NaN
+                        : GeoUtils.distanceInKm(request.getLatitude(), request.getLongitude(), latitudes[slot], longitudes[slot]);
+            case SORT_RELEVANCE:
+                return scores.getOrDefault(slot, 0.0);
+            default:
+                return createdDays[slot] == Long.MIN_VALUE ? Double.NaN : createdDays[slot];
+        }
+    }
+
+    private List<AccommodationUnitDTO> collect(BitSet matches, Map<Integer, Double> scores) {
+        Integer[] slots = new Integer[matches.cardinality()];
+        int i = 0;
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            slots[i++] = slot;
+        }
+        Arrays.sort(slots, (a, b) -> {
+            if (scores != null) {
+                int byScore = Double.compare(scores.get(b), scores.get(a));
+                if (byScore != 0) {
+                    return byScore;
+                }
+            }
+            int byDate = Long.compare(createdDays[b], createdDays[a]);
+            return byDate != 0 ? byDate : Long.compare(unitIds[b], unitIds[a]);
+        });
+
+        List<AccommodationUnitDTO> result = new ArrayList<>(slots.length);
+        for (Integer slot : slots) {
+            result.add(snapshots[slot]);
+        }
+        return result;
+    }
+
+    // ===== SLOT MANAGEMENT (callers hold the write lock) =====
+
+    private void put(Row row) {
+        Integer slot = slotsByUnitId.get(row.unitId);
+        if (slot == null) {
+            slot = allocate();
+            slotsByUnitId.put(row.unitId, slot);
+            liveSlots.set(slot);
+        } else {
+            counties.unpost(countyIds[slot], slot);
+            types.unpost(typeIds[slot], slot);
+        }
+
+        unitIds[slot] = row.unitId;
+        prices[slot] = row.price;
+        capacities[slot] = row.capacity;
+        ratings[slot] = row.rating;
+        reviewCounts[slot] = row.reviewCount;
+        createdDays[slot] = row.createdDay;
+        latitudes[slot] = row.latitude;
+        longitudes[slot] = row.longitude;
+        amenityMasks[slot] = row.amenityMask;
+        locationTexts[slot] = row.locationText;
+        textIndex.put(slot, row.name, row.description, row.location, row.county);
+        snapshots[slot] = row.snapshot;
+        countyIds[slot] = counties.post(row.county, slot);
+        typeIds[slot] = types.post(row.type, slot);
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == unitIds.length) {
+            grow(unitIds.length * 2);
+        }
+        return slotCount++;
+    }
+
+    private void release(int slot) {
+        counties.unpost(countyIds[slot], slot);
+        types.unpost(typeIds[slot], slot);
+        liveSlots.clear(slot);
+        locationTexts[slot] = null;
+        textIndex.remove(slot);
+        snapshots[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private void grow(int newCapacity) {
+        unitIds = Arrays.copyOf(unitIds, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        capacities = Arrays.copyOf(capacities, newCapacity);
+        ratings = Arrays.copyOf(ratings, newCapacity);
+        reviewCounts = Arrays.copyOf(reviewCounts, newCapacity);
+        countyIds = Arrays.copyOf(countyIds, newCapacity);
+        typeIds = Arrays.copyOf(typeIds, newCapacity);
+        createdDays = Arrays.copyOf(createdDays, newCapacity);
+        latitudes = Arrays.copyOf(latitudes, newCapacity);
+        longitudes = Arrays.copyOf(longitudes, newCapacity);
+        amenityMasks = Arrays.copyOf(amenityMasks, newCapacity);
+        locationTexts = Arrays.copyOf(locationTexts, newCapacity);
+        snapshots = Arrays.copyOf(snapshots, newCapacity);
+    }
+
+    private void clear() {
+        liveSlots.clear();
+        slotsByUnitId.clear();
+        freeSlots.clear();
+        slotCount = 0;
+        counties.clear();
+        types.clear();
+        textIndex.clear();
+        Arrays.fill(locationTexts, null);
+        Arrays.fill(snapshots, null);
+    }
+
+    // ===== HELPERS =====
+
+    private static boolean isIndexable(AccommodationUnit unit) {
+        return unit.isAvailable() && "active".equalsIgnoreCase(unit.getStatus());
+    }
+
+    // Cursor = base64url("sort:direction:key bits:id") of the last row on the page
+    private static String encodeCursor(String sort, boolean descending, Hit last) {
+        String raw = sort + ":" + (descending ? "desc" : "asc") + ":"
+                + Long.toHexString(Double.doubleToLongBits(last.key)) + ":" + last.unitId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Hit decodeCursor(String cursor, String sort, boolean descending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(sort) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new IllegalArgumentException("Cursor does not belong to this sort order");
+        }
+        try {
+            double key = Double.longBitsToDouble(Long.parseUnsignedLong(parts[2], 16));
+            return new Hit(Long.parseLong(parts[3]), key, null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * A matching unit with its sort key, detached from its slot.
+     */
+    private static class Hit {
+        final long unitId;
+        final double key;
+        final AccommodationUnitDTO snapshot;
+
+        Hit(long unitId, double key, AccommodationUnitDTO snapshot) {
+            this.unitId = unitId;
+            this.key = key;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Column values of one unit, captured before they are written into a slot.
+     */
+    private static class Row {
+        final long unitId;
+        final double price;
+        final int capacity;
+        final float rating;
+        final int reviewCount;
+        final long createdDay;
+        final double latitude;
+        final double longitude;
+        final long amenityMask;
+        final String county;
+        final String type;
+        final String locationText;
+        final String name;
+        final String description;
+        final String location;
+        final AccommodationUnitDTO snapshot;
+
+        Row(AccommodationUnit unit) {
+            this.unitId = unit.getId();
+            this.price = unit.getPricePerNight() != null ? unit.getPricePerNight() : Double.NaN;
+            this.capacity = unit.getCapacity();
+            this.rating = unit.getRating() != null ? unit.getRating().floatValue() : 0f;
+            this.reviewCount = unit.getReviewCount() != null ? unit.getReviewCount() : 0;
+            this.createdDay = unit.getCreatedAt() != null ? unit.getCreatedAt().toEpochDay() : Long.MIN_VALUE;
+            this.latitude = unit.getLatitude() != null ? unit.getLatitude() : Double.NaN;
+            this.longitude = unit.getLongitude() != null ? unit.getLongitude() : Double.NaN;
+            this.amenityMask = Amenity.toMask(unit.getAmenities());
+            this.county = unit.getCounty();
+            this.type = unit.getType();
+            this.locationText = TextNormalizer.fold(unit.getLocation());
+            this.name = unit.getName();
+            this.description = unit.getDescription();
+            this.location = unit.getLocation();
+            this.snapshot = AccommodationUnitMapper.toDTO(unit);
+        }
+    }
+
+    /**
+     * Interned string values with one posting list (set of slots) per value.
+     */
+    private static class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> postings = new ArrayList<>();
+
+        int post(String value, int slot) {
+            if (value == null) {
+                return -1;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+                postings.add(new BitSet());
+            }
+            postings.get(id).set(slot);
+            return id;
+        }
+
+        void unpost(int id, int slot) {
+            if (id >= 0) {
+                postings.get(id).clear(slot);
+            }
+        }
+
+        String value(int id) {
+            return id >= 0 ? values.get(id) : null;
+        }
+
+        BitSet postingsWhere(Predicate<String> predicate) {
+            BitSet result = new BitSet();
+            for (int id = 0; id < values.size(); id++) {
+                if (predicate.test(values.get(id))) {
+                    result.or(postings.get(id));
+                }
+            }
+            return result;
+        }
+
+        void clear() {
+            ids.clear();
+            values.clear();
+            postings.clear();
+        }
+    }
+}
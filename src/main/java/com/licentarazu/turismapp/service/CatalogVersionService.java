@@ -0,0 +1,94 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Monotonic versions for conditional GETs on the public catalog and unit detail endpoints.
+ *
+ * Every unit, photo, review or booking change bumps the catalog version and stamps the
+ * unit with it, so a unit's version is the catalog version of its last change. Versions
+ * live in memory only; the startup time is part of every ETag so a restart never
+ * re-issues an ETag for different content. Writers call in after their transaction commits.
+ */
+@Service
+public class CatalogVersionService {
+
+    // Distinguishes ETags of different application runs
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Stamp initial = new Stamp(eTag(0), 0, currentSecond());
+
+    private final Map<Long, Stamp> unitStamps = new ConcurrentHashMap<>();
+
+    private long catalogVersion = 0;
+    private volatile Stamp catalogStamp = initial;
+
+    public Stamp catalog() {
+        return catalogStamp;
+    }
+
+    public Stamp unit(Long unitId) {
+        return unitStamps.getOrDefault(unitId, initial);
+    }
+
+    // ===== UPDATES =====
+
+    public synchronized void unitChanged(Long unitId) {
+        Stamp stamp = bump();
+        if (unitId != null) {
+            unitStamps.put(unitId, stamp);
+        }
+    }
+
+    // Change with no single unit behind it (index rebuild): only the catalog moves
+    public synchronized void catalogChanged() {
+        bump();
+    }
+
+    private Stamp bump() {
+        catalogVersion++;
+        // Last-Modified has second precision; never let it go backwards
+        long lastModified = Math.max(currentSecond(), catalogStamp.lastModified);
+        catalogStamp = new Stamp(eTag(catalogVersion), catalogVersion, lastModified);
+        return catalogStamp;
+    }
+
+    // Strong ETag; only has to be unique per URL, so catalog and unit stamps share the format
+    private String eTag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    /**
+     * Version of a resource, its ETag and the time (epoch millis, whole seconds) of its last change.
+     */
+    public static class Stamp {
+        private final String eTag;
+        private final long version;
+        private final long lastModified;
+
+        Stamp(String eTag, long version, long lastModified) {
+            this.eTag = eTag;
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.licentarazu.turismapp.model.User;
 import com.licentarazu.turismapp.repository.ConfirmationTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -16,6 +17,9 @@ public class ConfirmationTokenService {
     @Autowired
     private ConfirmationTokenRepository confirmationTokenRepository;
 
+    @Autowired
+    private EmailService emailService;
+
     public ConfirmationToken createConfirmationToken(User user) {
         // Delete any existing tokens for this user first
         deleteTokensForUser(user);
@@ -24,6 +28,14 @@ public class ConfirmationTokenService {
         return confirmationTokenRepository.save(token);
     }
 
+    // New token and its confirmation email in one transaction: the email is queued only if the token is saved
+    @Transactional
+    public ConfirmationToken issueConfirmation(User user) {
+        ConfirmationToken token = createConfirmationToken(user);
+        emailService.sendConfirmationEmail(user.getEmail(), token.getToken());
+        return token;
+    }
+
     public Optional<ConfirmationToken> getToken(String token) {
         return confirmationTokenRepository.findByToken(token);
     }
@@ -0,0 +1,177 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import com.licentarazu.turismapp.model.EmailOutbox;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Background threads that drain the email outbox, so no request thread waits for SMTP.
+ *
+ * Each of the app.email.outbox.workers threads claims a batch of due emails, sends them one
+ * by one over a single pooled SMTP connection and records each outcome; when the queue is
+ * empty it sleeps until an email is committed or poll-interval-ms passes (retries that
+ * become due are found by the poll).
+ */
+@Service
+public class EmailDispatchWorkers {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatchWorkers.class);
+
+    private final EmailOutboxService emailOutbox;
+    private final SmtpTransportPool transportPool;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final boolean enabled;
+
+    private ExecutorService executor;
+    private volatile boolean running = false;
+
+    @Autowired
+    public EmailDispatchWorkers(EmailOutboxService emailOutbox, SmtpTransportPool transportPool,
+            @Value("${app.email.outbox.workers:2}") int workers,
+            @Value("${app.email.outbox.batch-size:10}") int batchSize,
+            @Value("${app.email.outbox.poll-interval-ms:5000}") long pollIntervalMillis,
+            @Value("${app.email.outbox.dispatch-enabled:true}") boolean enabled) {
+        this.emailOutbox = emailOutbox;
+        this.transportPool = transportPool;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::run);
+        }
+        logger.info("✅ Started {} email dispatch workers", workers);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        emailOutbox.signalWork();
+        executor.shutdown();
+        // Claimed rows not finished by now are picked up again when their lease expires
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<EmailOutbox> batch = emailOutbox.claim(batchSize);
+                if (batch.isEmpty()) {
+                    emailOutbox.awaitWork(pollIntervalMillis);
+                    continue;
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Database unavailable: back off instead of spinning
+                logger.error("❌ Email dispatch worker error: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // One pooled SMTP connection for the whole batch
+    private void dispatch(List<EmailOutbox> batch) {
+        SmtpTransportPool.Connection smtp;
+        try {
+            smtp = transportPool.borrow();
+        } catch (MessagingException e) {
+            logger.error("❌ Cannot connect to the SMTP server: {}", e.getMessage());
+            for (EmailOutbox email : batch) {
+                emailOutbox.markFailed(email.getId(), e, false);
+            }
+            return;
+        }
+        try (smtp) {
+            for (EmailOutbox email : batch) {
+                send(smtp, email);
+            }
+        }
+    }
+
+    private void send(SmtpTransportPool.Connection smtp, EmailOutbox email) {
+        MimeMessage message;
+        try {
+            message = transportPool.prepare(toMessage(email));
+        } catch (Exception e) {
+            // A malformed message or address fails the same way on every retry
+            emailOutbox.markFailed(email.getId(), e, true);
+            return;
+        }
+        try {
+            smtp.send(message);
+        } catch (Exception e) {
+            emailOutbox.markFailed(email.getId(), e, isPermanent(e));
+            return;
+        }
+        emailOutbox.markSent(email.getId());
+        logger.info("✅ Email #{} ({}) sent to {}", email.getId(), email.getKind(), email.getRecipient());
+    }
+
+    private static SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(email.getSender());
+        message.setTo(email.getRecipient().split(","));
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    // The server refused every recipient for good (5xx); temporary refusals come back as valid-unsent
+    private static boolean isPermanent(Exception e) {
+        if (e instanceof SendFailedException failed) {
+            return isEmpty(failed.getValidSentAddresses()) && isEmpty(failed.getValidUnsentAddresses())
+                    && !isEmpty(failed.getInvalidAddresses());
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(Address[] addresses) {
+        return addresses == null || addresses.length == 0;
+    }
+}
@@ -0,0 +1,233 @@
+package com.licentarazu.turismapp.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.licentarazu.turismapp.model.EmailOutbox;
+import com.licentarazu.turismapp.model.EmailOutboxStatus;
+import com.licentarazu.turismapp.repository.EmailOutboxRepository;
+
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
+/**
+ * The email_outbox table: queueing, claiming and the outcome of each send attempt.
+ *
+ * enqueue joins the caller's transaction, so an email is stored if and only if the change
+ * that triggered it commits. Workers claim due rows with SELECT ... FOR UPDATE SKIP LOCKED,
+ * which lets several workers (or instances) share the queue without claiming a row twice.
+ * A failed send is retried after an exponentially growing delay; after max-attempts, or on
+ * an error that retrying cannot fix, the row is parked as DEAD until an admin requeues it.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long leaseMillis;
+    private final int retentionDays;
+
+    // Wakes idle workers as soon as a queued email is committed
+    private final Object workSignal = new Object();
+    private boolean workQueued = false;
+
+    @Autowired
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+            @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.email.outbox.backoff-base-ms:30000}") long backoffBaseMillis,
+            @Value("${app.email.outbox.backoff-max-ms:3600000}") long backoffMaxMillis,
+            @Value("${app.email.outbox.lease-ms:120000}") long leaseMillis,
+            @Value("${app.email.outbox.retention-days:14}") int retentionDays) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.leaseMillis = leaseMillis;
+        this.retentionDays = retentionDays;
+    }
+
+    // ===== QUEUEING =====
+
+    /**
+     * Store message for sending; kind names the template in logs and stats.
+     */
+    @Transactional
+    public EmailOutbox enqueue(String kind, SimpleMailMessage message) {
+        String[] to = message.getTo();
+        if (to == null || to.length == 0) {
+            throw new IllegalArgumentException("Email has no recipient");
+        }
+        EmailOutbox email = emailOutboxRepository.save(new EmailOutbox(kind, message.getFrom(),
+                String.join(",", to), message.getSubject(), message.getText()));
+        afterCommit(this::signalWork);
+        return email;
+    }
+
+    // ===== DISPATCH =====
+
+    /**
+     * Claim up to limit due rows for the calling worker: each becomes SENDING with a lease
+     * of lease-ms, after which it is due again (the worker is presumed dead). The attempt is
+     * counted here, so a message that crashes its worker cannot be claimed forever.
+     */
+    @Transactional
+    public List<EmailOutbox> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> claimed = new ArrayList<>();
+        for (EmailOutbox email : emailOutboxRepository.lockDue(now, limit)) {
+            if (email.getStatus() == EmailOutboxStatus.SENDING && email.getAttempts() >= maxAttempts) {
+                bury(email, "Lease expired on the last attempt");
+                continue;
+            }
+            email.setStatus(EmailOutboxStatus.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(Duration.ofMillis(leaseMillis)));
+            claimed.add(email);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public void markSent(Long id) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            email.setStatus(EmailOutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        });
+    }
+
+    /**
+     * Record a failed attempt: retry later, or DEAD when permanent or out of attempts.
+     */
+    @Transactional
+    public void markFailed(Long id, Exception error, boolean permanent) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+            if (permanent || email.getAttempts() >= maxAttempts) {
+                bury(email, message);
+                return;
+            }
+            long delay = backoffMillis(email.getAttempts());
+            email.setStatus(EmailOutboxStatus.PENDING);
+            email.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+            email.setLastError(truncate(message));
+            logger.warn("⚠️ Email #{} ({}) to {} failed (attempt {}/{}), retrying in {} s: {}", email.getId(),
+                    email.getKind(), email.getRecipient(), email.getAttempts(), maxAttempts, delay / 1000, message);
+        });
+    }
+
+    private void bury(EmailOutbox email, String reason) {
+        email.setStatus(EmailOutboxStatus.DEAD);
+        email.setLastError(truncate(reason));
+        logger.error("❌ Email #{} ({}) to {} moved to DEAD after {} attempt(s): {}", email.getId(),
+                email.getKind(), email.getRecipient(), email.getAttempts(), reason);
+    }
+
+    // base * 2^(attempt - 1), capped, with +-20% jitter so failed batches do not retry in lockstep
+    long backoffMillis(int attempt) {
+        long delay = backoffBaseMillis << Math.min(attempt - 1, 30);
+        if (delay <= 0 || delay > backoffMaxMillis) {
+            delay = backoffMaxMillis;
+        }
+        return (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    /**
+     * Block until an email is committed or millis elapse, whichever comes first.
+     */
+    public void awaitWork(long millis) throws InterruptedException {
+        synchronized (workSignal) {
+            if (!workQueued) {
+                workSignal.wait(millis);
+            }
+            workQueued = false;
+        }
+    }
+
+    public void signalWork() {
+        synchronized (workSignal) {
+            workQueued = true;
+            workSignal.notifyAll();
+        }
+    }
+
+    // ===== ADMIN =====
+
+    /**
+     * Put a DEAD email back in the queue with a fresh attempt budget.
+     */
+    @Transactional
+    public boolean requeue(Long id) {
+        EmailOutbox email = emailOutboxRepository.findById(id).orElse(null);
+        if (email == null || email.getStatus() != EmailOutboxStatus.DEAD) {
+            return false;
+        }
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(LocalDateTime.now());
+        afterCommit(this::signalWork);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> stats() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        for (EmailOutboxStatus status : EmailOutboxStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (Object[] row : emailOutboxRepository.countByStatus()) {
+            counts.put(((EmailOutboxStatus) row[0]).name(), row[1]);
+        }
+
+        List<Map<String, Object>> dead = new ArrayList<>();
+        for (EmailOutbox email : emailOutboxRepository.findTop50ByStatusOrderByIdDesc(EmailOutboxStatus.DEAD)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", email.getId());
+            entry.put("kind", email.getKind());
+            entry.put("recipient", email.getRecipient());
+            entry.put("attempts", email.getAttempts());
+            entry.put("lastError", email.getLastError());
+            entry.put("createdAt", email.getCreatedAt());
+            dead.add(entry);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("counts", counts);
+        stats.put("maxAttempts", maxAttempts);
+        stats.put("recentDead", dead);
+        return stats;
+    }
+
+    // Sent rows are only kept for troubleshooting
+    @Scheduled(cron = "${app.email.outbox.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeSent() {
+        int deleted = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            logger.info("🧹 Purged {} sent emails older than {} days", deleted, retentionDays);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
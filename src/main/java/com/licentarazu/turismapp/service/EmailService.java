@@ -9,10 +9,24 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import com.licentarazu.turismapp.model.Booking;
+import com.licentarazu.turismapp.model.OwnerDigestEvent;
 import com.licentarazu.turismapp.model.User;
+import com.licentarazu.turismapp.util.EmailTemplate;
 
 import jakarta.annotation.PostConstruct;
 
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Builds the application's emails. Messages are not sent here: they are queued in the
+ * email outbox, in the caller's transaction, and sent by EmailDispatchWorkers. The booking
+ * and cancellation senders let a queueing failure propagate: the booking change rolls back
+ * with it instead of committing without its notifications (a caught exception would still
+ * leave the shared transaction rollback-only).
+ *
+ * Message bodies are EmailTemplates, compiled when the class is loaded; building a body
+ * only fills the {{placeholder}} slots (values are passed in order of first appearance).
+ */
 @Service
 public class EmailService {
 
@@ -21,6 +35,12 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxService emailOutbox;
+
+    @Autowired
+    private OwnerDigestService ownerDigests;
+
     @Value("${spring.mail.username}")
     private String fromEmail;
 
@@ -49,6 +69,16 @@ public class EmailService {
                !fromEmail.equals("your-email@gmail.com");
     }
 
+    private static final EmailTemplate CONFIRMATION_BODY = EmailTemplate.compile(
+            "Hello!\n\n" +
+            "Thank you for registering with Tourism App!\n\n" +
+            "Please click the link below to confirm your email address and activate your account:\n\n" +
+            "{{confirmationUrl}}\n\n" +
+            "This link will expire in 24 hours for security reasons.\n\n" +
+            "If you didn't create an account with us, please ignore this email.\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team");
+
     public void sendConfirmationEmail(String to, String token) {
         logger.info("=== ATTEMPTING TO SEND CONFIRMATION EMAIL ===");
         logger.info("To: {}", to);
@@ -71,20 +101,10 @@ public class EmailService {
             message.setTo(to);
             message.setSubject("Confirm Your Email Address - Tourism App");
 
-            String emailBody = "Hello!\n\n" +
-                    "Thank you for registering with Tourism App!\n\n" +
-                    "Please click the link below to confirm your email address and activate your account:\n\n" +
-                    confirmationUrl + "\n\n" +
-                    "This link will expire in 24 hours for security reasons.\n\n" +
-                    "If you didn't create an account with us, please ignore this email.\n\n" +
-                    "Best regards,\n" +
-                    "The Tourism App Team";
-
-            message.setText(emailBody);
+            message.setText(CONFIRMATION_BODY.render(confirmationUrl));
 
-            logger.info("Sending email message...");
-            mailSender.send(message);
-            logger.info("✅ CONFIRMATION EMAIL SENT SUCCESSFULLY to: {}", to);
+            emailOutbox.enqueue("CONFIRMATION", message);
+            logger.info("✅ CONFIRMATION EMAIL QUEUED to: {}", to);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND CONFIRMATION EMAIL to: {}", to);
@@ -98,6 +118,17 @@ public class EmailService {
         }
     }
 
+    private static final EmailTemplate PASSWORD_RESET_BODY = EmailTemplate.compile(
+            "Hello,\n\n" +
+            "We received a request to reset your password for your Tourism App account.\n\n" +
+            "Click the link below to reset your password:\n\n" +
+            "{{resetUrl}}\n\n" +
+            "This link will expire in 1 hour for security reasons.\n\n" +
+            "If you didn't request a password reset, please ignore this email. Your password will remain unchanged.\n\n" +
+            "For security reasons, this link can only be used once.\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team");
+
     public void sendPasswordResetEmail(String to, String token) {
         logger.info("=== SENDING PASSWORD RESET EMAIL ===");
         logger.info("To: {}", to);
@@ -121,21 +152,10 @@ public class EmailService {
             String resetUrl = frontendBaseUrl + "/reset-password?token=" + token;
             logger.info("Password reset URL: {}", resetUrl);
 
-            String emailBody = "Hello,\n\n" +
-                    "We received a request to reset your password for your Tourism App account.\n\n" +
-                    "Click the link below to reset your password:\n\n" +
-                    resetUrl + "\n\n" +
-                    "This link will expire in 1 hour for security reasons.\n\n" +
-                    "If you didn't request a password reset, please ignore this email. Your password will remain unchanged.\n\n" +
-                    "For security reasons, this link can only be used once.\n\n" +
-                    "Best regards,\n" +
-                    "The Tourism App Team";
+            message.setText(PASSWORD_RESET_BODY.render(resetUrl));
 
-            message.setText(emailBody);
-
-            logger.info("Sending password reset email...");
-            mailSender.send(message);
-            logger.info("✅ PASSWORD RESET EMAIL SENT SUCCESSFULLY to: {}", to);
+            emailOutbox.enqueue("PASSWORD_RESET", message);
+            logger.info("✅ PASSWORD RESET EMAIL QUEUED to: {}", to);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND PASSWORD RESET EMAIL to: {}", to);
@@ -144,6 +164,31 @@ public class EmailService {
         }
     }
 
+    private static final EmailTemplate BOOKING_CONFIRMATION_BODY = EmailTemplate.compile(
+            "Dear {{salutation}},\n\n" +
+            "Your booking has been confirmed! Here are your reservation details:\n\n" +
+            "🏠 ACCOMMODATION DETAILS:\n" +
+            "   • Name: {{unitName}}\n" +
+            "   • Location: {{location}}\n\n" +
+            "📅 BOOKING DETAILS:\n" +
+            "   • Check-in Date: {{checkIn}}\n" +
+            "   • Check-out Date: {{checkOut}}\n" +
+            "   • Total Price: {{totalPrice}} RON\n\n" +
+            "📋 BOOKING INFORMATION:\n" +
+            "   • Booking ID: #{{bookingId}}\n" +
+            "   • Guest Name: {{guestName}}\n\n" +
+            "IMPORTANT REMINDERS:\n" +
+            "• Please arrive after 3:00 PM on your check-in date\n" +
+            "• Check-out is before 11:00 AM on your departure date\n" +
+            "• Bring a valid ID for registration\n" +
+            "• Contact the property owner if you need to modify your booking\n\n" +
+            "If you have any questions about your booking, please don't hesitate to contact us.\n\n" +
+            "We hope you have a wonderful stay!\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team\n\n" +
+            "---\n" +
+            "This is an automated confirmation email. Please keep it for your records.");
+
     /**
      * Send booking confirmation email to the guest
      */
@@ -152,62 +197,59 @@ public class EmailService {
         logger.info("Guest Email: {}", booking.getGuestEmail());
         logger.info("Accommodation: {}", booking.getAccommodationUnit().getName());
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(booking.getGuestEmail());
-            message.setSubject("Booking Confirmation - " + booking.getAccommodationUnit().getName());
-
-            String emailBody = String.format(
-                    "Dear %s,\n\n" +
-                            "Your booking has been confirmed! Here are your reservation details:\n\n" +
-                            "🏠 ACCOMMODATION DETAILS:\n" +
-                            "   • Name: %s\n" +
-                            "   • Location: %s\n\n" +
-                            "📅 BOOKING DETAILS:\n" +
-                            "   • Check-in Date: %s\n" +
-                            "   • Check-out Date: %s\n" +
-                            "   • Total Price: %.2f RON\n\n" +
-                            "📋 BOOKING INFORMATION:\n" +
-                            "   • Booking ID: #%d\n" +
-                            "   • Guest Name: %s\n\n" +
-                            "IMPORTANT REMINDERS:\n" +
-                            "• Please arrive after 3:00 PM on your check-in date\n" +
-                            "• Check-out is before 11:00 AM on your departure date\n" +
-                            "• Bring a valid ID for registration\n" +
-                            "• Contact the property owner if you need to modify your booking\n\n" +
-                            "If you have any questions about your booking, please don't hesitate to contact us.\n\n" +
-                            "We hope you have a wonderful stay!\n\n" +
-                            "Best regards,\n" +
-                            "The Tourism App Team\n\n" +
-                            "---\n" +
-                            "This is an automated confirmation email. Please keep it for your records.",
-
-                    booking.getGuestName() != null ? booking.getGuestName() : "Valued Guest",
-                    booking.getAccommodationUnit().getName(),
-                    booking.getAccommodationUnit().getLocation(),
-                    booking.getCheckInDate(),
-                    booking.getCheckOutDate(),
-                    booking.getTotalPrice() != null ? booking.getTotalPrice() : 0.0,
-                    booking.getId(),
-                    booking.getGuestName() != null ? booking.getGuestName() : "Guest");
-
-            message.setText(emailBody);
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(booking.getGuestEmail());
+        message.setSubject("Booking Confirmation - " + booking.getAccommodationUnit().getName());
 
-            logger.info("Sending booking confirmation email to guest...");
-            mailSender.send(message);
-            logger.info("✅ BOOKING CONFIRMATION EMAIL SENT SUCCESSFULLY to guest: {}", booking.getGuestEmail());
+        message.setText(BOOKING_CONFIRMATION_BODY.render(
+                booking.getGuestName() != null ? booking.getGuestName() : "Valued Guest",
+                booking.getAccommodationUnit().getName(),
+                booking.getAccommodationUnit().getLocation(),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate(),
+                money(booking.getTotalPrice()),
+                booking.getId(),
+                booking.getGuestName() != null ? booking.getGuestName() : "Guest"));
 
-        } catch (Exception e) {
-            logger.error("❌ FAILED TO SEND BOOKING CONFIRMATION EMAIL to guest: {}", booking.getGuestEmail());
-            logger.error("Error details: {}", e.getMessage());
-            logger.error("Full stack trace: ", e);
-            // Don't throw exception to avoid breaking the booking process
-        }
+        logger.info("Queueing booking confirmation email to guest...");
+        emailOutbox.enqueue("BOOKING_CONFIRMATION", message);
+        logger.info("✅ BOOKING CONFIRMATION EMAIL QUEUED to guest: {}", booking.getGuestEmail());
     }
 
+    private static final EmailTemplate BOOKING_OWNER_NOTIFICATION_BODY = EmailTemplate.compile(
+            "Dear {{firstName}} {{lastName}},\n\n" +
+            "Great news! You have received a new booking for your property.\n\n" +
+            "🏠 PROPERTY DETAILS:\n" +
+            "   • Property Name: {{unitName}}\n" +
+            "   • Location: {{location}}\n\n" +
+            "👥 GUEST INFORMATION:\n" +
+            "   • Guest Name: {{guestName}}\n" +
+            "   • Guest Email: {{guestEmail}}\n\n" +
+            "📅 BOOKING DETAILS:\n" +
+            "   • Check-in Date: {{checkIn}}\n" +
+            "   • Check-out Date: {{checkOut}}\n" +
+            "   • Total Revenue: {{totalPrice}} RON\n\n" +
+            "📋 RESERVATION INFORMATION:\n" +
+            "   • Booking ID: #{{bookingId}}\n" +
+            "   • Booking Date: {{bookingDate}}\n\n" +
+            "NEXT STEPS:\n" +
+            "• The guest will receive a confirmation email with all booking details\n" +
+            "• Please prepare your property for the upcoming stay\n" +
+            "• You can contact the guest directly if needed using the email above\n" +
+            "• Log into your dashboard to view more booking details\n\n" +
+            "Thank you for being part of our tourism platform!\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team\n\n" +
+            "---\n" +
+            "This is an automated notification email.");
+
+    private static final EmailTemplate DIGEST_BOOKING_LINE = EmailTemplate.compile(
+            "🆕 New booking #{{bookingId}} - {{unitName}}\n" +
+            "   {{guestName}} ({{guestEmail}}) • {{checkIn}} → {{checkOut}} • {{totalPrice}} RON\n");
+
     /**
-     * Send booking notification email to the property owner
+     * Send booking notification email to the property owner (or add it to the owner's digest)
      */
     public void sendBookingNotificationToOwner(Booking booking) {
         logger.info("=== SENDING BOOKING NOTIFICATION EMAIL TO OWNER ===");
@@ -221,65 +263,55 @@ public class EmailService {
         logger.info("Owner Email: {}", owner.getEmail());
         logger.info("Property: {}", booking.getAccommodationUnit().getName());
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(owner.getEmail());
-            message.setSubject("New Booking Received - " + booking.getAccommodationUnit().getName());
-
-            String emailBody = String.format(
-                    "Dear %s %s,\n\n" +
-                            "Great news! You have received a new booking for your property.\n\n" +
-                            "🏠 PROPERTY DETAILS:\n" +
-                            "   • Property Name: %s\n" +
-                            "   • Location: %s\n\n" +
-                            "👥 GUEST INFORMATION:\n" +
-                            "   • Guest Name: %s\n" +
-                            "   • Guest Email: %s\n\n" +
-                            "📅 BOOKING DETAILS:\n" +
-                            "   • Check-in Date: %s\n" +
-                            "   • Check-out Date: %s\n" +
-                            "   • Total Revenue: %.2f RON\n\n" +
-                            "📋 RESERVATION INFORMATION:\n" +
-                            "   • Booking ID: #%d\n" +
-                            "   • Booking Date: %s\n\n" +
-                            "NEXT STEPS:\n" +
-                            "• The guest will receive a confirmation email with all booking details\n" +
-                            "• Please prepare your property for the upcoming stay\n" +
-                            "• You can contact the guest directly if needed using the email above\n" +
-                            "• Log into your dashboard to view more booking details\n\n" +
-                            "Thank you for being part of our tourism platform!\n\n" +
-                            "Best regards,\n" +
-                            "The Tourism App Team\n\n" +
-                            "---\n" +
-                            "This is an automated notification email.",
-
-                    owner.getFirstName() != null ? owner.getFirstName() : "Property",
-                    owner.getLastName() != null ? owner.getLastName() : "Owner",
+        if (ownerDigests.isDigested(owner, booking)) {
+            ownerDigests.add(owner, booking, OwnerDigestEvent.BOOKING, DIGEST_BOOKING_LINE.render(
+                    booking.getId(),
                     booking.getAccommodationUnit().getName(),
-                    booking.getAccommodationUnit().getLocation(),
                     booking.getGuestName() != null ? booking.getGuestName() : "Guest",
-                    booking.getGuestEmail() != null ? booking.getGuestEmail() : "Not provided",
+                    booking.getGuestEmail() != null ? booking.getGuestEmail() : "no email",
                     booking.getCheckInDate(),
                     booking.getCheckOutDate(),
-                    booking.getTotalPrice() != null ? booking.getTotalPrice() : 0.0,
-                    booking.getId(),
-                    java.time.LocalDate.now());
+                    money(booking.getTotalPrice())));
+            logger.info("✅ Booking notification added to the digest of owner: {}", owner.getEmail());
+            return;
+        }
 
-            message.setText(emailBody);
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(owner.getEmail());
+        message.setSubject("New Booking Received - " + booking.getAccommodationUnit().getName());
 
-            logger.info("Sending booking notification email to owner...");
-            mailSender.send(message);
-            logger.info("✅ BOOKING NOTIFICATION EMAIL SENT SUCCESSFULLY to owner: {}", owner.getEmail());
+        message.setText(BOOKING_OWNER_NOTIFICATION_BODY.render(
+                owner.getFirstName() != null ? owner.getFirstName() : "Property",
+                owner.getLastName() != null ? owner.getLastName() : "Owner",
+                booking.getAccommodationUnit().getName(),
+                booking.getAccommodationUnit().getLocation(),
+                booking.getGuestName() != null ? booking.getGuestName() : "Guest",
+                booking.getGuestEmail() != null ? booking.getGuestEmail() : "Not provided",
+                booking.getCheckInDate(),
+                booking.getCheckOutDate(),
+                money(booking.getTotalPrice()),
+                booking.getId(),
+                java.time.LocalDate.now()));
 
-        } catch (Exception e) {
-            logger.error("❌ FAILED TO SEND BOOKING NOTIFICATION EMAIL to owner: {}", owner.getEmail());
-            logger.error("Error details: {}", e.getMessage());
-            logger.error("Full stack trace: ", e);
-            // Don't throw exception to avoid breaking the booking process
-        }
+        logger.info("Queueing booking notification email to owner...");
+        emailOutbox.enqueue("BOOKING_OWNER_NOTIFICATION", message);
+        logger.info("✅ BOOKING NOTIFICATION EMAIL QUEUED to owner: {}", owner.getEmail());
     }
 
+    private static final EmailTemplate OWNER_APPROVAL_BODY = EmailTemplate.compile(
+            "Dear {{applicantName}},\n\n" +
+            "Congratulations! Your owner application has been approved! 🎉\n\n" +
+            "You can now add and manage accommodation units on our platform. Here's what you can do now:\n\n" +
+            "✅ Add new accommodation units\n" +
+            "✅ Manage your property listings\n" +
+            "✅ View booking requests and analytics\n" +
+            "✅ Track your earnings and performance\n\n" +
+            "To get started, log in to your account and visit your dashboard.\n\n" +
+            "Welcome to the Tourism App owner community!\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team");
+
     // ✅ Owner Application Approval Email
     public void sendOwnerApplicationApprovalEmail(String to, String applicantName) {
         logger.info("=== SENDING OWNER APPLICATION APPROVAL EMAIL ===");
@@ -298,22 +330,10 @@ public class EmailService {
             message.setTo(to);
             message.setSubject("🎉 Owner Application Approved - Tourism App");
 
-            String emailBody = "Dear " + applicantName + ",\n\n" +
-                    "Congratulations! Your owner application has been approved! 🎉\n\n" +
-                    "You can now add and manage accommodation units on our platform. Here's what you can do now:\n\n" +
-                    "✅ Add new accommodation units\n" +
-                    "✅ Manage your property listings\n" +
-                    "✅ View booking requests and analytics\n" +
-                    "✅ Track your earnings and performance\n\n" +
-                    "To get started, log in to your account and visit your dashboard.\n\n" +
-                    "Welcome to the Tourism App owner community!\n\n" +
-                    "Best regards,\n" +
-                    "The Tourism App Team";
-
-            message.setText(emailBody);
+            message.setText(OWNER_APPROVAL_BODY.render(applicantName));
 
-            mailSender.send(message);
-            logger.info("✅ OWNER APPROVAL EMAIL SENT SUCCESSFULLY to {}", to);
+            emailOutbox.enqueue("OWNER_APPROVAL", message);
+            logger.info("✅ OWNER APPROVAL EMAIL QUEUED to {}", to);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND OWNER APPROVAL EMAIL to {}: {}", to, e.getMessage());
@@ -321,6 +341,18 @@ public class EmailService {
         }
     }
 
+    private static final EmailTemplate OWNER_REJECTION_BODY = EmailTemplate.compile(
+            "Dear {{applicantName}},\n\n" +
+            "Thank you for your interest in becoming a property owner on Tourism App.\n\n" +
+            "After careful review, we regret to inform you that your owner application was not approved at this time.\n\n" +
+            "{{reasonSection}}" +
+            "You can continue to use Tourism App as a guest to browse and book accommodations.\n\n" +
+            "If you have any questions about this decision or would like to discuss your application, " +
+            "please don't hesitate to contact our support team.\n\n" +
+            "Thank you for your understanding.\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team");
+
     // ✅ Owner Application Rejection Email
     public void sendOwnerApplicationRejectionEmail(String to, String applicantName, String rejectionReason) {
         logger.info("=== SENDING OWNER APPLICATION REJECTION EMAIL ===");
@@ -340,26 +372,15 @@ public class EmailService {
             message.setTo(to);
             message.setSubject("Owner Application Update - Tourism App");
 
-            String emailBody = "Dear " + applicantName + ",\n\n" +
-                    "Thank you for your interest in becoming a property owner on Tourism App.\n\n" +
-                    "After careful review, we regret to inform you that your owner application was not approved at this time.\n\n";
-
             // Add rejection reason if provided
-            if (rejectionReason != null && !rejectionReason.trim().isEmpty()) {
-                emailBody += "Reason: " + rejectionReason + "\n\n";
-            }
+            String reasonSection = rejectionReason != null && !rejectionReason.trim().isEmpty()
+                    ? "Reason: " + rejectionReason + "\n\n"
+                    : "";
 
-            emailBody += "You can continue to use Tourism App as a guest to browse and book accommodations.\n\n" +
-                    "If you have any questions about this decision or would like to discuss your application, " +
-                    "please don't hesitate to contact our support team.\n\n" +
-                    "Thank you for your understanding.\n\n" +
-                    "Best regards,\n" +
-                    "The Tourism App Team";
+            message.setText(OWNER_REJECTION_BODY.render(applicantName, reasonSection));
 
-            message.setText(emailBody);
-
-            mailSender.send(message);
-            logger.info("✅ OWNER REJECTION EMAIL SENT SUCCESSFULLY to {}", to);
+            emailOutbox.enqueue("OWNER_REJECTION", message);
+            logger.info("✅ OWNER REJECTION EMAIL QUEUED to {}", to);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND OWNER REJECTION EMAIL to {}: {}", to, e.getMessage());
@@ -367,6 +388,28 @@ public class EmailService {
         }
     }
 
+    private static final EmailTemplate OWNER_APPLICATION_ADMIN_BODY = EmailTemplate.compile(
+            "Dear Admin,\n\n" +
+            "A new owner application has been submitted and requires your review.\n\n" +
+            "👤 APPLICANT DETAILS:\n" +
+            "   • Name: {{applicantName}}\n" +
+            "   • Email: {{applicantEmail}}\n\n" +
+            "📝 APPLICATION MESSAGE:\n" +
+            "   {{applicationMessage}}\n\n" +
+            "🔗 NEXT STEPS:\n" +
+            "   • Log into the admin dashboard to review this application\n" +
+            "   • You can approve or reject the application with review notes\n" +
+            "   • The applicant will be automatically notified of your decision\n\n" +
+            "📊 ADMIN ACTIONS AVAILABLE:\n" +
+            "   ✅ Approve Application (grants owner privileges)\n" +
+            "   ❌ Reject Application (with optional rejection reason)\n\n" +
+            "Please review this application as soon as possible.\n\n" +
+            "Best regards,\n" +
+            "Tourism App System\n\n" +
+            "---\n" +
+            "This is an automated notification email.\n" +
+            "Application submitted at: {{submittedAt}}");
+
     // ✅ Admin Notification Email for New Owner Applications
     public void sendOwnerApplicationNotificationToAdmin(String applicantName, String applicantEmail, String applicationMessage) {
         logger.info("=== SENDING OWNER APPLICATION NOTIFICATION TO ADMIN ===");
@@ -385,32 +428,15 @@ public class EmailService {
             message.setTo(adminEmail);
             message.setSubject("🔔 New Owner Application Submitted - Tourism App");
 
-            String emailBody = "Dear Admin,\n\n" +
-                    "A new owner application has been submitted and requires your review.\n\n" +
-                    "👤 APPLICANT DETAILS:\n" +
-                    "   • Name: " + applicantName + "\n" +
-                    "   • Email: " + applicantEmail + "\n\n" +
-                    "📝 APPLICATION MESSAGE:\n" +
-                    "   " + (applicationMessage != null && !applicationMessage.trim().isEmpty() ? 
-                         applicationMessage : "No additional message provided") + "\n\n" +
-                    "🔗 NEXT STEPS:\n" +
-                    "   • Log into the admin dashboard to review this application\n" +
-                    "   • You can approve or reject the application with review notes\n" +
-                    "   • The applicant will be automatically notified of your decision\n\n" +
-                    "📊 ADMIN ACTIONS AVAILABLE:\n" +
-                    "   ✅ Approve Application (grants owner privileges)\n" +
-                    "   ❌ Reject Application (with optional rejection reason)\n\n" +
-                    "Please review this application as soon as possible.\n\n" +
-                    "Best regards,\n" +
-                    "Tourism App System\n\n" +
-                    "---\n" +
-                    "This is an automated notification email.\n" +
-                    "Application submitted at: " + java.time.LocalDateTime.now();
-
-            message.setText(emailBody);
-
-            mailSender.send(message);
-            logger.info("✅ ADMIN NOTIFICATION EMAIL SENT SUCCESSFULLY to {}", adminEmail);
+            message.setText(OWNER_APPLICATION_ADMIN_BODY.render(
+                    applicantName,
+                    applicantEmail,
+                    applicationMessage != null && !applicationMessage.trim().isEmpty() ?
+                            applicationMessage : "No additional message provided",
+                    java.time.LocalDateTime.now()));
+
+            emailOutbox.enqueue("OWNER_APPLICATION_ADMIN", message);
+            logger.info("✅ ADMIN NOTIFICATION EMAIL QUEUED to {}", adminEmail);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND ADMIN NOTIFICATION EMAIL to {}: {}", adminEmail, e.getMessage());
@@ -420,6 +446,29 @@ public class EmailService {
         }
     }
 
+    private static final EmailTemplate OWNER_APPROVAL_LINKS_BODY = EmailTemplate.compile(
+            "🏨 TOURISM APP - SECURE OWNER APPLICATION REVIEW\n\n" +
+            "A new owner application requires your review:\n\n" +
+            "👤 APPLICANT DETAILS:\n" +
+            "   Name: {{applicantName}}\n" +
+            "   Email: {{applicantEmail}}\n" +
+            "   Application Message: {{applicationMessage}}\n\n" +
+            "🔐 SECURE REVIEW ACTIONS:\n\n" +
+            "✅ APPROVE APPLICATION:\n" +
+            "   {{approvalUrl}}\n\n" +
+            "❌ REJECT APPLICATION:\n" +
+            "   {{rejectionUrl}}\n\n" +
+            "🔒 SECURITY NOTICE:\n" +
+            "   • Each link can only be used once\n" +
+            "   • You will be asked for the admin password\n" +
+            "   • The applicant will be notified of your decision\n\n" +
+            "Please click one of the links above to review this application.\n\n" +
+            "Best regards,\n" +
+            "Tourism App System\n\n" +
+            "---\n" +
+            "This is an automated secure notification email.\n" +
+            "Application submitted at: {{submittedAt}}");
+
     /**
      * Send admin notification with approval/rejection links
      */
@@ -440,32 +489,16 @@ public class EmailService {
             message.setTo(adminEmail);
             message.setSubject("🔐 SECURE OWNER APPLICATION REVIEW REQUIRED - " + applicantName);
 
-            String emailBody = "🏨 TOURISM APP - SECURE OWNER APPLICATION REVIEW\n\n" +
-                    "A new owner application requires your review:\n\n" +
-                    "👤 APPLICANT DETAILS:\n" +
-                    "   Name: " + applicantName + "\n" +
-                    "   Email: " + applicantEmail + "\n" +
-                    "   Application Message: " + (applicationMessage != null ? applicationMessage : "No message provided") + "\n\n" +
-                    "🔐 SECURE REVIEW ACTIONS:\n\n" +
-                    "✅ APPROVE APPLICATION:\n" +
-                    "   " + approvalUrl + "\n\n" +
-                    "❌ REJECT APPLICATION:\n" +
-                    "   " + rejectionUrl + "\n\n" +
-                    "🔒 SECURITY NOTICE:\n" +
-                    "   • Each link can only be used once\n" +
-                    "   • You will be asked for the admin password\n" +
-                    "   • The applicant will be notified of your decision\n\n" +
-                    "Please click one of the links above to review this application.\n\n" +
-                    "Best regards,\n" +
-                    "Tourism App System\n\n" +
-                    "---\n" +
-                    "This is an automated secure notification email.\n" +
-                    "Application submitted at: " + java.time.LocalDateTime.now();
-
-            message.setText(emailBody);
-
-            mailSender.send(message);
-            logger.info("✅ APPROVAL LINKS EMAIL SENT SUCCESSFULLY to {}", adminEmail);
+            message.setText(OWNER_APPROVAL_LINKS_BODY.render(
+                    applicantName,
+                    applicantEmail,
+                    applicationMessage != null ? applicationMessage : "No message provided",
+                    approvalUrl,
+                    rejectionUrl,
+                    java.time.LocalDateTime.now()));
+
+            emailOutbox.enqueue("OWNER_APPROVAL_LINKS", message);
+            logger.info("✅ APPROVAL LINKS EMAIL QUEUED to {}", adminEmail);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND APPROVAL LINKS EMAIL to {}: {}", adminEmail, e.getMessage());
@@ -474,6 +507,36 @@ public class EmailService {
         }
     }
 
+    private static final DateTimeFormatter REVIEW_DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm");
+
+    private static final EmailTemplate OWNER_APPROVAL_NOTIFICATION_BODY = EmailTemplate.compile(
+            "� TOURISM APP - OWNER APPLICATION APPROVED 🎉\n\n" +
+            "Dear {{applicantName}},\n\n" +
+            "Congratulations! We are pleased to inform you that your owner application for Tourism App has been APPROVED!\n\n" +
+            "✅ APPLICATION STATUS: APPROVED\n" +
+            "🏨 NEW ROLE: Property Owner\n" +
+            "📅 Approved on: {{approvedOn}}\n\n" +
+            "{{notesSection}}" +
+            "🚀 WHAT'S NEXT - GET STARTED:\n" +
+            "   🔐 Log in to your account with your existing credentials\n" +
+            "   🏠 Add your first accommodation property\n" +
+            "   📋 Set up property details, photos, and pricing\n" +
+            "   📊 Manage bookings and guest reviews\n" +
+            "   💰 Start earning from your properties today!\n\n" +
+            "🎯 OWNER BENEFITS:\n" +
+            "   • Full property management dashboard\n" +
+            "   • Real-time booking notifications\n" +
+            "   • Detailed analytics and profit reports\n" +
+            "   • Direct communication with guests\n" +
+            "   • Professional support from our team\n\n" +
+            "Welcome to the Tourism App owner community! We're excited to have you on board.\n\n" +
+            "If you have any questions or need assistance getting started, please don't hesitate to contact our support team.\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team 🏨\n\n" +
+            "---\n" +
+            "This is an automated notification email.\n" +
+            "Tourism App - Your gateway to successful property management");
+
     /**
      * Send approval notification to applicant
      */
@@ -492,41 +555,17 @@ public class EmailService {
             message.setTo(to);
             message.setSubject("🎉 Congratulations! Your Tourism App Owner Application has been APPROVED");
 
-            String emailBody = "� TOURISM APP - OWNER APPLICATION APPROVED 🎉\n\n" +
-                    "Dear " + applicantName + ",\n\n" +
-                    "Congratulations! We are pleased to inform you that your owner application for Tourism App has been APPROVED!\n\n" +
-                    "✅ APPLICATION STATUS: APPROVED\n" +
-                    "🏨 NEW ROLE: Property Owner\n" +
-                    "📅 Approved on: " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm")) + "\n\n";
+            String notesSection = reviewNotes != null && !reviewNotes.trim().isEmpty()
+                    ? "📝 WELCOME MESSAGE FROM OUR TEAM:\n" + reviewNotes + "\n\n"
+                    : "";
 
-            if (reviewNotes != null && !reviewNotes.trim().isEmpty()) {
-                emailBody += "📝 WELCOME MESSAGE FROM OUR TEAM:\n" + reviewNotes + "\n\n";
-            }
+            message.setText(OWNER_APPROVAL_NOTIFICATION_BODY.render(
+                    applicantName,
+                    java.time.LocalDateTime.now().format(REVIEW_DATE_FORMAT),
+                    notesSection));
 
-            emailBody += "🚀 WHAT'S NEXT - GET STARTED:\n" +
-                    "   🔐 Log in to your account with your existing credentials\n" +
-                    "   🏠 Add your first accommodation property\n" +
-                    "   📋 Set up property details, photos, and pricing\n" +
-                    "   📊 Manage bookings and guest reviews\n" +
-                    "   💰 Start earning from your properties today!\n\n" +
-                    "🎯 OWNER BENEFITS:\n" +
-                    "   • Full property management dashboard\n" +
-                    "   • Real-time booking notifications\n" +
-                    "   • Detailed analytics and profit reports\n" +
-                    "   • Direct communication with guests\n" +
-                    "   • Professional support from our team\n\n" +
-                    "Welcome to the Tourism App owner community! We're excited to have you on board.\n\n" +
-                    "If you have any questions or need assistance getting started, please don't hesitate to contact our support team.\n\n" +
-                    "Best regards,\n" +
-                    "The Tourism App Team 🏨\n\n" +
-                    "---\n" +
-                    "This is an automated notification email.\n" +
-                    "Tourism App - Your gateway to successful property management";
-
-            message.setText(emailBody);
-
-            mailSender.send(message);
-            logger.info("✅ APPROVAL NOTIFICATION SENT SUCCESSFULLY to {}", to);
+            emailOutbox.enqueue("OWNER_APPROVAL_NOTIFICATION", message);
+            logger.info("✅ APPROVAL NOTIFICATION QUEUED to {}", to);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND APPROVAL NOTIFICATION to {}: {}", to, e.getMessage());
@@ -535,6 +574,32 @@ public class EmailService {
         }
     }
 
+    private static final EmailTemplate OWNER_REJECTION_NOTIFICATION_BODY = EmailTemplate.compile(
+            "🏨 TOURISM APP - OWNER APPLICATION UPDATE\n\n" +
+            "Dear {{applicantName}},\n\n" +
+            "Thank you for your interest in becoming a property owner on Tourism App. We appreciate the time you took to submit your application.\n\n" +
+            "📋 APPLICATION STATUS: UNDER REVIEW\n" +
+            "📅 Reviewed on: {{reviewedOn}}\n\n" +
+            "After careful consideration, we are unable to approve your owner application at this time.\n\n" +
+            "{{feedbackSection}}" +
+            "🔄 NEXT STEPS AND OPPORTUNITIES:\n" +
+            "   📊 Review the feedback provided above carefully\n" +
+            "   🔄 You may reapply in the future if circumstances change\n" +
+            "   📞 Contact our support team if you have questions about this decision\n" +
+            "   🏠 Continue using Tourism App as a guest to explore accommodations\n\n" +
+            "💡 WHAT YOU CAN DO NOW:\n" +
+            "   • Continue browsing and booking amazing properties\n" +
+            "   • Leave reviews to help other travelers\n" +
+            "   • Save your favorite destinations\n" +
+            "   • Stay updated on our platform improvements\n\n" +
+            "We value your participation in the Tourism App community and encourage you to continue being part of our growing platform.\n\n" +
+            "Thank you for your understanding and continued interest in Tourism App.\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Review Team 🏨\n\n" +
+            "---\n" +
+            "This is an automated notification email.\n" +
+            "Tourism App - Connecting travelers with amazing accommodations");
+
     /**
      * Send rejection notification to applicant
      */
@@ -553,39 +618,17 @@ public class EmailService {
             message.setTo(to);
             message.setSubject("📧 Update on Your Tourism App Owner Application");
 
-            String emailBody = "🏨 TOURISM APP - OWNER APPLICATION UPDATE\n\n" +
-                    "Dear " + applicantName + ",\n\n" +
-                    "Thank you for your interest in becoming a property owner on Tourism App. We appreciate the time you took to submit your application.\n\n" +
-                    "📋 APPLICATION STATUS: UNDER REVIEW\n" +
-                    "📅 Reviewed on: " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm")) + "\n\n" +
-                    "After careful consideration, we are unable to approve your owner application at this time.\n\n";
+            String feedbackSection = reviewNotes != null && !reviewNotes.trim().isEmpty()
+                    ? "📝 FEEDBACK FROM OUR REVIEW TEAM:\n" + reviewNotes + "\n\n"
+                    : "";
 
-            if (reviewNotes != null && !reviewNotes.trim().isEmpty()) {
-                emailBody += "📝 FEEDBACK FROM OUR REVIEW TEAM:\n" + reviewNotes + "\n\n";
-            }
+            message.setText(OWNER_REJECTION_NOTIFICATION_BODY.render(
+                    applicantName,
+                    java.time.LocalDateTime.now().format(REVIEW_DATE_FORMAT),
+                    feedbackSection));
 
-            emailBody += "🔄 NEXT STEPS AND OPPORTUNITIES:\n" +
-                    "   📊 Review the feedback provided above carefully\n" +
-                    "   🔄 You may reapply in the future if circumstances change\n" +
-                    "   📞 Contact our support team if you have questions about this decision\n" +
-                    "   🏠 Continue using Tourism App as a guest to explore accommodations\n\n" +
-                    "💡 WHAT YOU CAN DO NOW:\n" +
-                    "   • Continue browsing and booking amazing properties\n" +
-                    "   • Leave reviews to help other travelers\n" +
-                    "   • Save your favorite destinations\n" +
-                    "   • Stay updated on our platform improvements\n\n" +
-                    "We value your participation in the Tourism App community and encourage you to continue being part of our growing platform.\n\n" +
-                    "Thank you for your understanding and continued interest in Tourism App.\n\n" +
-                    "Best regards,\n" +
-                    "The Tourism App Review Team 🏨\n\n" +
-                    "---\n" +
-                    "This is an automated notification email.\n" +
-                    "Tourism App - Connecting travelers with amazing accommodations";
-
-            message.setText(emailBody);
-
-            mailSender.send(message);
-            logger.info("✅ REJECTION NOTIFICATION SENT SUCCESSFULLY to {}", to);
+            emailOutbox.enqueue("OWNER_REJECTION_NOTIFICATION", message);
+            logger.info("✅ REJECTION NOTIFICATION QUEUED to {}", to);
 
         } catch (Exception e) {
             logger.error("❌ FAILED TO SEND REJECTION NOTIFICATION to {}: {}", to, e.getMessage());
@@ -594,6 +637,11 @@ public class EmailService {
         }
     }
 
+    // Amount with two decimals, as the "%.2f" the templates used to be formatted with
+    private static String money(Double amount) {
+        return String.format("%.2f", amount != null ? amount : 0.0);
+    }
+
     // Helper methods for testing and configuration validation
     public String getFromEmail() {
         return fromEmail;
@@ -628,6 +676,28 @@ public class EmailService {
         }
     }
 
+    private static final String DETAILS_RULE = "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n";
+
+    private static final EmailTemplate BOOKING_CANCELLATION_GUEST_BODY = EmailTemplate.compile(
+            "Dear {{guestName}},\n\n" +
+            "{{cancelledBy}} cancelled your booking for {{unitName}}.\n\n" +
+            "BOOKING DETAILS:\n" +
+            DETAILS_RULE +
+            "🏨 Property: {{unitName}}\n" +
+            "📍 Location: {{location}}\n" +
+            "📅 Check-in: {{checkIn}}\n" +
+            "📅 Check-out: {{checkOut}}\n" +
+            "👥 Guests: {{guests}}\n" +
+            "💰 Total Amount: {{totalPrice}} RON\n" +
+            "🆔 Booking ID: {{bookingId}}\n" +
+            "❌ Status: CANCELLED\n" +
+            DETAILS_RULE + "\n" +
+            "If you have any questions about this cancellation, please contact us or the property owner.\n\n" +
+            "We apologize for any inconvenience and hope to serve you again in the future.\n\n" +
+            "Best regards,\n" +
+            "TurismApp Team\n" +
+            "{{baseUrl}}");
+
     /**
      * Send booking cancellation notification email to the guest
      */
@@ -644,68 +714,66 @@ public class EmailService {
             return;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(booking.getGuestEmail());
-            message.setSubject("Booking Cancelled - " + booking.getAccommodationUnit().getName());
-
-            // Determine who cancelled the booking
-            String cancelledByText;
-            if (cancelledBy.getEmail().equals(booking.getGuestEmail())) {
-                cancelledByText = "You have";
-            } else if (booking.getAccommodationUnit().getOwner().getId().equals(cancelledBy.getId())) {
-                cancelledByText = "The property owner has";
-            } else {
-                cancelledByText = "An administrator has";
-            }
-
-            String emailBody = String.format(
-                "Dear %s,\n\n" +
-                "%s cancelled your booking for %s.\n\n" +
-                "BOOKING DETAILS:\n" +
-                "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-                "🏨 Property: %s\n" +
-                "📍 Location: %s\n" +
-                "📅 Check-in: %s\n" +
-                "📅 Check-out: %s\n" +
-                "👥 Guests: %d\n" +
-                "💰 Total Amount: %.2f RON\n" +
-                "🆔 Booking ID: %d\n" +
-                "❌ Status: CANCELLED\n" +
-                "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-                "If you have any questions about this cancellation, please contact us or the property owner.\n\n" +
-                "We apologize for any inconvenience and hope to serve you again in the future.\n\n" +
-                "Best regards,\n" +
-                "TurismApp Team\n" +
-                "%s",
-                booking.getGuestName() != null ? booking.getGuestName() : "Guest",
-                cancelledByText,
-                booking.getAccommodationUnit().getName(),
-                booking.getAccommodationUnit().getName(),
-                booking.getAccommodationUnit().getLocation(),
-                booking.getCheckInDate(),
-                booking.getCheckOutDate(),
-                booking.getNumberOfGuests() != null ? booking.getNumberOfGuests() : 1,
-                booking.getTotalPrice() != null ? booking.getTotalPrice() : 0.0,
-                booking.getId(),
-                baseUrl
-            );
-
-            message.setText(emailBody);
-            mailSender.send(message);
-
-            logger.info("✅ Booking cancellation email sent successfully to guest: {}", booking.getGuestEmail());
-
-        } catch (Exception e) {
-            logger.error("❌ FAILED TO SEND BOOKING CANCELLATION EMAIL to guest: {}", booking.getGuestEmail());
-            logger.error("Error details: {}", e.getMessage());
-            // Don't throw exception to avoid breaking the cancellation process
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(booking.getGuestEmail());
+        message.setSubject("Booking Cancelled - " + booking.getAccommodationUnit().getName());
+
+        // Determine who cancelled the booking
+        String cancelledByText;
+        if (cancelledBy.getEmail().equals(booking.getGuestEmail())) {
+            cancelledByText = "You have";
+        } else if (booking.getAccommodationUnit().getOwner().getId().equals(cancelledBy.getId())) {
+            cancelledByText = "The property owner has";
+        } else {
+            cancelledByText = "An administrator has";
         }
+
+        message.setText(BOOKING_CANCELLATION_GUEST_BODY.render(
+            booking.getGuestName() != null ? booking.getGuestName() : "Guest",
+            cancelledByText,
+            booking.getAccommodationUnit().getName(),
+            booking.getAccommodationUnit().getLocation(),
+            booking.getCheckInDate(),
+            booking.getCheckOutDate(),
+            booking.getNumberOfGuests() != null ? booking.getNumberOfGuests() : 1,
+            money(booking.getTotalPrice()),
+            booking.getId(),
+            baseUrl
+        ));
+        emailOutbox.enqueue("BOOKING_CANCELLATION_GUEST", message);
+
+        logger.info("✅ Booking cancellation email queued to guest: {}", booking.getGuestEmail());
     }
 
+    private static final EmailTemplate BOOKING_CANCELLATION_OWNER_BODY = EmailTemplate.compile(
+            "Dear {{ownerName}},\n\n" +
+            "{{cancelledBy}} cancelled a booking for your property: {{unitName}}.\n\n" +
+            "BOOKING DETAILS:\n" +
+            DETAILS_RULE +
+            "🏨 Property: {{unitName}}\n" +
+            "👤 Guest: {{guestName}}\n" +
+            "📧 Guest Email: {{guestEmail}}\n" +
+            "📞 Guest Phone: {{guestPhone}}\n" +
+            "📅 Check-in: {{checkIn}}\n" +
+            "📅 Check-out: {{checkOut}}\n" +
+            "👥 Guests: {{guests}}\n" +
+            "💰 Total Amount: {{totalPrice}} RON\n" +
+            "🆔 Booking ID: {{bookingId}}\n" +
+            "❌ Status: CANCELLED\n" +
+            DETAILS_RULE + "\n" +
+            "{{specialRequests}}\n\n" +
+            "Please update your availability calendar accordingly.\n\n" +
+            "Best regards,\n" +
+            "TurismApp Team\n" +
+            "{{baseUrl}}");
+
+    private static final EmailTemplate DIGEST_CANCELLATION_LINE = EmailTemplate.compile(
+            "❌ Cancelled booking #{{bookingId}} - {{unitName}} ({{cancelledBy}} cancelled)\n" +
+            "   {{guestName}} ({{guestEmail}}) • {{checkIn}} → {{checkOut}} • {{totalPrice}} RON\n");
+
     /**
-     * Send booking cancellation notification email to the property owner
+     * Send booking cancellation notification email to the property owner (or add it to the owner's digest)
      */
     public void sendBookingCancellationToOwner(Booking booking, User cancelledBy) {
         logger.info("=== SENDING BOOKING CANCELLATION EMAIL TO OWNER ===");
@@ -721,70 +789,58 @@ public class EmailService {
             return;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(owner.getEmail());
-            message.setSubject("Booking Cancelled - " + booking.getAccommodationUnit().getName());
-
-            // Determine who cancelled the booking
-            String cancelledByText;
-            if (cancelledBy.getEmail().equals(booking.getGuestEmail())) {
-                cancelledByText = "The guest has";
-            } else if (owner.getId().equals(cancelledBy.getId())) {
-                cancelledByText = "You have";
-            } else {
-                cancelledByText = "An administrator has";
-            }
-
-            String emailBody = String.format(
-                "Dear %s,\n\n" +
-                "%s cancelled a booking for your property: %s.\n\n" +
-                "BOOKING DETAILS:\n" +
-                "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-                "🏨 Property: %s\n" +
-                "👤 Guest: %s\n" +
-                "📧 Guest Email: %s\n" +
-                "📞 Guest Phone: %s\n" +
-                "📅 Check-in: %s\n" +
-                "📅 Check-out: %s\n" +
-                "👥 Guests: %d\n" +
-                "💰 Total Amount: %.2f RON\n" +
-                "🆔 Booking ID: %d\n" +
-                "❌ Status: CANCELLED\n" +
-                "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-                "%s\n\n" +
-                "Please update your availability calendar accordingly.\n\n" +
-                "Best regards,\n" +
-                "TurismApp Team\n" +
-                "%s",
-                owner.getFirstName() != null ? owner.getFirstName() : "Property Owner",
-                cancelledByText,
-                booking.getAccommodationUnit().getName(),
-                booking.getAccommodationUnit().getName(),
-                booking.getGuestName() != null ? booking.getGuestName() : "N/A",
-                booking.getGuestEmail(),
-                booking.getGuestPhone() != null ? booking.getGuestPhone() : "N/A",
-                booking.getCheckInDate(),
-                booking.getCheckOutDate(),
-                booking.getNumberOfGuests() != null ? booking.getNumberOfGuests() : 1,
-                booking.getTotalPrice() != null ? booking.getTotalPrice() : 0.0,
-                booking.getId(),
-                booking.getSpecialRequests() != null && !booking.getSpecialRequests().trim().isEmpty() 
-                    ? "Special Requests: " + booking.getSpecialRequests() 
-                    : "No special requests.",
-                baseUrl
-            );
-
-            message.setText(emailBody);
-            mailSender.send(message);
-
-            logger.info("✅ Booking cancellation email sent successfully to owner: {}", owner.getEmail());
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(owner.getEmail());
+        message.setSubject("Booking Cancelled - " + booking.getAccommodationUnit().getName());
+
+        // Determine who cancelled the booking (sentence start for the email, short label for the digest line)
+        String cancelledByText;
+        String cancelledByLabel;
+        if (cancelledBy.getEmail().equals(booking.getGuestEmail())) {
+            cancelledByText = "The guest has";
+            cancelledByLabel = "the guest";
+        } else if (owner.getId().equals(cancelledBy.getId())) {
+            cancelledByText = "You have";
+            cancelledByLabel = "you";
+        } else {
+            cancelledByText = "An administrator has";
+            cancelledByLabel = "an administrator";
+        }
 
-        } catch (Exception e) {
-            logger.error("❌ FAILED TO SEND BOOKING CANCELLATION EMAIL to owner: {}", owner.getEmail());
-            logger.error("Error details: {}", e.getMessage());
-            // Don't throw exception to avoid breaking the cancellation process
+        if (ownerDigests.isDigested(owner, booking)) {
+            ownerDigests.add(owner, booking, OwnerDigestEvent.CANCELLATION, DIGEST_CANCELLATION_LINE.render(
+                    booking.getId(),
+                    booking.getAccommodationUnit().getName(),
+                    cancelledByLabel,
+                    booking.getGuestName() != null ? booking.getGuestName() : "N/A",
+                    booking.getGuestEmail(),
+                    booking.getCheckInDate(),
+                    booking.getCheckOutDate(),
+                    money(booking.getTotalPrice())));
+            logger.info("✅ Booking cancellation added to the digest of owner: {}", owner.getEmail());
+            return;
         }
+
+        message.setText(BOOKING_CANCELLATION_OWNER_BODY.render(
+            owner.getFirstName() != null ? owner.getFirstName() : "Property Owner",
+            cancelledByText,
+            booking.getAccommodationUnit().getName(),
+            booking.getGuestName() != null ? booking.getGuestName() : "N/A",
+            booking.getGuestEmail(),
+            booking.getGuestPhone() != null ? booking.getGuestPhone() : "N/A",
+            booking.getCheckInDate(),
+            booking.getCheckOutDate(),
+            booking.getNumberOfGuests() != null ? booking.getNumberOfGuests() : 1,
+            money(booking.getTotalPrice()),
+            booking.getId(),
+            booking.getSpecialRequests() != null && !booking.getSpecialRequests().trim().isEmpty() 
+                ? "Special Requests: " + booking.getSpecialRequests() 
+                : "No special requests.",
+            baseUrl
+        ));
+        emailOutbox.enqueue("BOOKING_CANCELLATION_OWNER", message);
+
+        logger.info("✅ Booking cancellation email queued to owner: {}", owner.getEmail());
     }
 }
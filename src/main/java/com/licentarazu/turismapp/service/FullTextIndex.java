@@ -0,0 +1,120 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.licentarazu.turismapp.util.TextNormalizer;
+
+/**
+ * Inverted index of folded word tokens to posting lists of slots, scored with BM25.
+ *
+ * Not thread-safe: owned by CatalogIndexService and only used under its lock.
+ * Every query word matches as a prefix ("bras" finds "brasov"); a slot must match
+ * all query words. Prefix expansions score less than exact word matches.
+ */
+class FullTextIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // term -> (slot -> term frequency); sorted so prefix lookups are a subMap
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, Map<String, Integer>> termsBySlot = new HashMap<>();
+    private final Map<Integer, Integer> lengthsBySlot = new HashMap<>();
+    private long totalLength = 0;
+
+    void put(int slot, String... fields) {
+        remove(slot);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String field : fields) {
+            for (String token : TextNormalizer.tokenize(field)) {
+                frequencies.merge(token, 1, Integer::sum);
+                length++;
+            }
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(slot, entry.getValue());
+        }
+        termsBySlot.put(slot, frequencies);
+        lengthsBySlot.put(slot, length);
+        totalLength += length;
+    }
+
+    void remove(int slot) {
+        Map<String, Integer> terms = termsBySlot.remove(slot);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Integer, Integer> posting = postings.get(term);
+            posting.remove(slot);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengthsBySlot.remove(slot);
+    }
+
+    void clear() {
+        postings.clear();
+        termsBySlot.clear();
+        lengthsBySlot.clear();
+        totalLength = 0;
+    }
+
+    /**
+     * BM25 score of every slot matching all words of the query. An empty map means no match;
+     * a query without any word yields null (no text filter).
+     */
+    Map<Integer, Double> search(String query) {
+        List<String> words = TextNormalizer.tokenize(query);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        int documents = lengthsBySlot.size();
+        double averageLength = documents > 0 ? (double) totalLength / documents : 0;
+
+        Map<Integer, Double> scores = null;
+        for (String word : words) {
+            // Best-scoring expansion of this word per slot
+            Map<Integer, Double> wordScores = new HashMap<>();
+            for (Map.Entry<String, Map<Integer, Integer>> entry
+                    : postings.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+                String term = entry.getKey();
+                Map<Integer, Integer> posting = entry.getValue();
+                double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+                double weight = (double) word.length() / term.length();
+                for (Map.Entry<Integer, Integer> hit : posting.entrySet()) {
+                    int slot = hit.getKey();
+                    if (scores != null && !scores.containsKey(slot)) {
+                        continue;
+                    }
+                    double tf = hit.getValue();
+                    double norm = 1 - B + B * lengthsBySlot.get(slot) / averageLength;
+                    double score = weight * idf * tf * (K1 + 1) / (tf + K1 * norm);
+                    wordScores.merge(slot, score, Math::max);
+                }
+            }
+
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Integer, Double> combined = new HashMap<>();
+                for (Map.Entry<Integer, Double> entry : wordScores.entrySet()) {
+                    combined.put(entry.getKey(), scores.get(entry.getKey()) + entry.getValue());
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+}
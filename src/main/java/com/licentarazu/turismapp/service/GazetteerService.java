@@ -0,0 +1,258 @@
+package com.licentarazu.turismapp.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import com.licentarazu.turismapp.util.TextNormalizer;
+
+/**
+ * Offline gazetteer of Romanian localities and counties, read once at startup from
+ * a bundled TSV file into a LocalityTrie.
+ *
+ * Names are matched in their folded form (case, diacritics and punctuation ignored, so
+ * "Cluj Napoca", "cluj-napoca" and "CLUJ-NAPOCA" are the same key). Entries are ranked by
+ * kind (capital, county seats, counties, municipalities, towns, resorts, communes,
+ * villages), so "bra" suggests Brașov and Brăila before any village.
+ */
+@Service
+public class GazetteerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GazetteerService.class);
+
+    // Keys shorter than this are too ambiguous for fuzzy matching
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_GEOCODE_WORDS = 3;
+
+    public enum Kind {
+        CAPITALA, RESEDINTA, JUDET, MUNICIPIU, ORAS, STATIUNE, COMUNA, SAT
+    }
+
+    private final List<Locality> localities;
+    private final LocalityTrie trie;
+
+    @Autowired
+    public GazetteerService(@Value("${app.gazetteer.resource:gazetteer/ro-localities.tsv}") String resource) {
+        this(load(resource));
+    }
+
+    GazetteerService(List<Locality> loaded) {
+        long start = System.currentTimeMillis();
+        loaded = new ArrayList<>(loaded);
+        // Trie ids are ranks: best kind first, then shorter names
+        loaded.sort(Comparator.comparing(Locality::getKind)
+                .thenComparingInt(locality -> locality.key.length())
+                .thenComparing(locality -> locality.key));
+        this.localities = Collections.unmodifiableList(loaded);
+        this.trie = new LocalityTrie(loaded.stream().map(locality -> locality.key).toList());
+        logger.info("✅ Gazetteer loaded with {} localities ({} trie nodes) in {} ms",
+                localities.size(), trie.nodeCount(), System.currentTimeMillis() - start);
+    }
+
+    // ===== LOOKUPS =====
+
+    /**
+     * Autocomplete: localities whose name starts with q, then (for longer input) names
+     * one typo away from a prefix of q, best-ranked first.
+     */
+    public List<Locality> suggest(String q, int limit) {
+        String key = TextNormalizer.normalizeLocation(q);
+        if (key == null || limit <= 0) {
+            return List.of();
+        }
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (int id : trie.prefix(key)) {
+            ids.add(id);
+        }
+        if (ids.size() < limit && key.length() >= MIN_FUZZY_LENGTH) {
+            ids.addAll(trie.fuzzy(key, true).keySet());
+        }
+        return ids.stream().limit(limit).map(localities::get).toList();
+    }
+
+    /**
+     * The best-ranked locality named name, or one typo away from it; null if none.
+     */
+    public Locality resolve(String name) {
+        String key = TextNormalizer.normalizeLocation(name);
+        if (key == null) {
+            return null;
+        }
+        int[] exact = trie.exact(key);
+        if (exact.length > 0) {
+            return localities.get(exact[0]);
+        }
+        if (key.length() < MIN_FUZZY_LENGTH) {
+            return null;
+        }
+        Map<Integer, Integer> fuzzy = trie.fuzzy(key, false);
+        return fuzzy.isEmpty() ? null : localities.get(fuzzy.keySet().iterator().next());
+    }
+
+    /**
+     * Coordinates for a unit address such as "Str. Principală 12, Sinaia" in county "Prahova".
+     * Tries the comma-separated parts of the address (last first), then runs of up to
+     * MAX_GEOCODE_WORDS words inside it, preferring localities of the given county; falls
+     * back to the county itself. Returns null if nothing matches.
+     */
+    public double[] geocode(String location, String county) {
+        String countyKey = TextNormalizer.normalizeLocation(county);
+
+        List<String> candidates = new ArrayList<>();
+        if (location != null) {
+            String[] parts = location.split(",");
+            for (int i = parts.length - 1; i >= 0; i--) {
+                candidates.add(parts[i]);
+            }
+        }
+        Locality match = bestExact(candidates, countyKey, false);
+
+        // Word runs produce false positives ("Strada Mare"), so they need the county to agree
+        if (match == null && countyKey != null && location != null) {
+            List<String> words = TextNormalizer.tokenize(location);
+            List<String> runs = new ArrayList<>();
+            for (int length = Math.min(MAX_GEOCODE_WORDS, words.size()); length >= 1; length--) {
+                for (int from = words.size() - length; from >= 0; from--) {
+                    runs.add(String.join(" ", words.subList(from, from + length)));
+                }
+            }
+            match = bestExact(runs, countyKey, true);
+        }
+
+        if (match == null && countyKey != null) {
+            for (int id : trie.exact(countyKey)) {
+                if (localities.get(id).getKind() == Kind.JUDET) {
+                    match = localities.get(id);
+                    break;
+                }
+            }
+        }
+        return match == null ? null : new double[]{match.getLatitude(), match.getLongitude()};
+    }
+
+    // First candidate with an exact match; a match in the county wins over the best-ranked one
+    private Locality bestExact(List<String> candidates, String countyKey, boolean sameCountyOnly) {
+        for (String candidate : candidates) {
+            String key = TextNormalizer.normalizeLocation(candidate);
+            if (key == null) {
+                continue;
+            }
+            int[] ids = trie.exact(key);
+            Locality fallback = null;
+            for (int id : ids) {
+                Locality locality = localities.get(id);
+                if (locality.getKind() == Kind.JUDET) {
+                    continue;
+                }
+                if (countyKey != null && countyKey.equals(locality.countyKey)) {
+                    return locality;
+                }
+                if (fallback == null) {
+                    fallback = locality;
+                }
+            }
+            if (fallback != null && !sameCountyOnly) {
+                return fallback;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return localities.size();
+    }
+
+    // ===== LOADING =====
+
+    private static List<Locality> load(String resource) {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            return read(new InputStreamReader(in, StandardCharsets.UTF_8), resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read gazetteer " + resource, e);
+        }
+    }
+
+    // Rows of the TSV format described in ro-localities.tsv; source only names it in errors
+    static List<Locality> read(Reader tsv, String source) throws IOException {
+        List<Locality> loaded = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(tsv);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            if (columns.length != 5) {
+                throw new IllegalStateException("Gazetteer " + source + " line " + lineNumber
+                        + ": expected 5 columns, found " + columns.length);
+            }
+            loaded.add(new Locality(columns[0].trim(), columns[1].trim(), Kind.valueOf(columns[2].trim()),
+                    Double.parseDouble(columns[3].trim()), Double.parseDouble(columns[4].trim())));
+        }
+        return loaded;
+    }
+
+    /**
+     * A locality or county with the coordinates used for proximity search.
+     */
+    public static class Locality {
+        private final String name;
+        private final String county;
+        private final Kind kind;
+        private final double latitude;
+        private final double longitude;
+
+        private final String key;
+        private final String countyKey;
+
+        Locality(String name, String county, Kind kind, double latitude, double longitude) {
+            this.name = name;
+            this.county = county;
+            this.kind = kind;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.key = TextNormalizer.normalizeLocation(name);
+            this.countyKey = TextNormalizer.normalizeLocation(county);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCounty() {
+            return county;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+    }
+}
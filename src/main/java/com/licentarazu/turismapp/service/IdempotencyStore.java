@@ -0,0 +1,214 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded, expiring store of the responses to requests sent with an Idempotency-Key.
+ *
+ * The first request with a key claims it and runs; later requests with the same key get
+ * its stored response instead of running again, or, while it is still running, wait for
+ * it. A key is bound to the request body it was first used with: reusing it for a
+ * different body is a client error. Entries are dropped ttl-ms after they were stored
+ * (or first claimed) and, oldest first, beyond max-entries; a request whose response was
+ * not stored (server error, too large) releases its key, so a retry runs again.
+ *
+ * The store is in memory: keys are only recognised by the instance that saw them.
+ */
+@Service
+public class IdempotencyStore {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final int maxResponseBytes;
+
+    // Insertion order = expiry order, since every entry lives ttlMillis
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private long claims = 0;
+    private long replays = 0;
+    private long waits = 0;
+    private long mismatches = 0;
+    private long evictions = 0;
+
+    @Autowired
+    public IdempotencyStore(@Value("${app.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${app.idempotency.ttl-ms:86400000}") long ttlMillis,
+            @Value("${app.idempotency.max-response-bytes:65536}") int maxResponseBytes) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * Claim key for a request whose body hashes to fingerprint. The result is exactly one of:
+     * owner (run the request, then complete or release the claim), mismatch (key used for a
+     * different body), or a duplicate holding the first request's response, possibly still
+     * in flight.
+     */
+    public synchronized Claim claim(String key, byte[] fingerprint) {
+        long now = System.currentTimeMillis();
+        expire(now);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(fingerprint, now);
+            entries.put(key, entry);
+            evictOverflow();
+            claims++;
+            return new Claim(key, true, false, entry);
+        }
+        if (!Arrays.equals(entry.fingerprint, fingerprint)) {
+            mismatches++;
+            return new Claim(key, false, true, null);
+        }
+        if (entry.response.isDone()) {
+            replays++;
+        } else {
+            waits++;
+        }
+        return new Claim(key, false, false, entry);
+    }
+
+    /**
+     * Store the response of an owner claim and hand it to the waiting duplicates. Returns
+     * false (and releases the key) if the response is too large to keep.
+     */
+    public boolean complete(Claim claim, StoredResponse response) {
+        if (response.getBody().length > maxResponseBytes) {
+            release(claim);
+            return false;
+        }
+        synchronized (this) {
+            // Unless it was evicted (and maybe claimed again) meanwhile
+            if (entries.get(claim.key) == claim.entry) {
+                // The TTL counts from now, and the entry moves to the young end
+                entries.remove(claim.key);
+                claim.entry.createdMillis = System.currentTimeMillis();
+                entries.put(claim.key, claim.entry);
+            }
+        }
+        claim.entry.response.complete(response);
+        return true;
+    }
+
+    /**
+     * Forget an owner claim without a response; waiting duplicates get null and should tell
+     * the client to retry.
+     */
+    public void release(Claim claim) {
+        synchronized (this) {
+            entries.remove(claim.key, claim.entry);
+        }
+        claim.entry.response.complete(null);
+    }
+
+    private void expire(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (now - entry.createdMillis < ttlMillis) {
+                return;
+            }
+            // An in-flight request outliving the TTL keeps running; its duplicates still hold the future
+            oldest.remove();
+            evictions++;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (entries.size() > maxEntries && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("claims", claims);
+        stats.put("replays", replays);
+        stats.put("waits", waits);
+        stats.put("mismatches", mismatches);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    /**
+     * What a replay sends back: status, content type and body of the first response.
+     */
+    public static final class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * Outcome of claim(): owner, mismatch, or a duplicate whose getResponse() completes with
+     * the first request's response (or null when that request released the key).
+     */
+    public static final class Claim {
+        private final String key;
+        private final boolean owner;
+        private final boolean mismatch;
+        private final Entry entry;
+
+        private Claim(String key, boolean owner, boolean mismatch, Entry entry) {
+            this.key = key;
+            this.owner = owner;
+            this.mismatch = mismatch;
+            this.entry = entry;
+        }
+
+        public boolean isOwner() {
+            return owner;
+        }
+
+        public boolean isMismatch() {
+            return mismatch;
+        }
+
+        public CompletableFuture<StoredResponse> getResponse() {
+            return entry.response;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private long createdMillis;
+
+        private Entry(byte[] fingerprint, long createdMillis) {
+            this.fingerprint = fingerprint;
+            this.createdMillis = createdMillis;
+        }
+    }
+}
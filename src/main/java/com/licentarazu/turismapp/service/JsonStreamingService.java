@@ -0,0 +1,80 @@
+package com.licentarazu.turismapp.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes a repository Stream<> query as a JSON array, one row at a time.
+ *
+ * The query runs in its own read-only transaction on the response thread; each row is
+ * serialised with the application's ObjectMapper (same JSON as a List response) and then
+ * detached, and the persistence context is cleared every BATCH_SIZE rows so associations
+ * loaded for earlier rows are released too. Memory per request stays bounded by the
+ * JDBC fetch size of the query, not by the number of rows.
+ */
+@Service
+public class JsonStreamingService {
+
+    // Matches the fetch size hint on the streaming repository queries
+    private static final int BATCH_SIZE = 200;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JsonStreamingService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 200 response streaming the rows of query, which must return a repository Stream<>.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> jsonArray(Supplier<Stream<T>> query, Class<T> rowType) {
+        StreamingResponseBody body = out -> readOnlyTransaction.executeWithoutResult(status -> {
+            ObjectWriter writer = objectMapper.writerFor(rowType)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (Stream<T> rows = query.get();
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                int written = 0;
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    writer.writeValue(generator, row);
+                    entityManager.detach(row);
+                    if (++written % BATCH_SIZE == 0) {
+                        entityManager.clear();
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
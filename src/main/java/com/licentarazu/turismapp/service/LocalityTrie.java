@@ -0,0 +1,253 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable trie over folded locality names, frozen into flat arrays.
+ *
+ * Nodes are numbered breadth-first, so the children of node n are the contiguous range
+ * [firstChild[n], firstChild[n + 1]) with their edge characters sorted: a child step is a
+ * binary search, and the whole trie is a handful of primitive arrays. Every node also
+ * keeps the TOP_K best entry ids of its subtree (ids are ranks: lower is better), so a
+ * prefix lookup is one walk down the key and a copy. Fuzzy lookups walk the trie once
+ * with an edit budget of one (substitution, insertion, deletion or adjacent swap).
+ *
+ * Built once by GazetteerService; safe to share between threads.
+ */
+class LocalityTrie {
+
+    static final int TOP_K = 16;
+
+    private final char[] label;
+    private final int[] firstChild;
+    private final int[] entryStart;
+    private final int[] entries;
+    private final int[] topStart;
+    private final int[] top;
+
+    /**
+     * keys[i] is the folded name of entry i; entries must already be ordered by rank.
+     */
+    LocalityTrie(List<String> keys) {
+        BuildNode root = new BuildNode();
+        for (int id = 0; id < keys.size(); id++) {
+            BuildNode node = root;
+            for (char c : keys.get(id).toCharArray()) {
+                node = node.children.computeIfAbsent(c, k -> new BuildNode());
+            }
+            node.entries.add(id);
+        }
+
+        // Breadth-first numbering keeps each node's children contiguous
+        List<BuildNode> order = new ArrayList<>();
+        ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            BuildNode node = queue.poll();
+            order.add(node);
+            queue.addAll(node.children.values());
+        }
+        int size = order.size();
+
+        label = new char[size];
+        firstChild = new int[size + 1];
+        entryStart = new int[size + 1];
+        topStart = new int[size + 1];
+
+        // Subtree tops, children before parents
+        for (int n = size - 1; n >= 0; n--) {
+            BuildNode node = order.get(n);
+            int[] merged = mergeTop(node.entries.stream().mapToInt(Integer::intValue).toArray(), new int[0]);
+            for (BuildNode child : node.children.values()) {
+                merged = mergeTop(merged, child.top);
+            }
+            node.top = merged;
+        }
+
+        int nextChild = 1;
+        int entryCount = 0;
+        int topCount = 0;
+        for (int n = 0; n < size; n++) {
+            BuildNode node = order.get(n);
+            firstChild[n] = nextChild;
+            for (char c : node.children.keySet()) {
+                label[nextChild++] = c;
+            }
+            entryStart[n] = entryCount;
+            entryCount += node.entries.size();
+            topStart[n] = topCount;
+            topCount += node.top.length;
+        }
+        firstChild[size] = nextChild;
+        entryStart[size] = entryCount;
+        topStart[size] = topCount;
+
+        entries = new int[entryCount];
+        top = new int[topCount];
+        for (int n = 0; n < size; n++) {
+            BuildNode node = order.get(n);
+            for (int i = 0; i < node.entries.size(); i++) {
+                entries[entryStart[n] + i] = node.entries.get(i);
+            }
+            System.arraycopy(node.top, 0, top, topStart[n], node.top.length);
+        }
+    }
+
+    int nodeCount() {
+        return label.length;
+    }
+
+    // ===== LOOKUPS =====
+
+    /**
+     * Entry ids whose key is exactly key, best first.
+     */
+    int[] exact(String key) {
+        int node = walk(key);
+        return node < 0 ? new int[0] : Arrays.copyOfRange(entries, entryStart[node], entryStart[node + 1]);
+    }
+
+    /**
+     * Best entry ids (at most TOP_K) whose key starts with prefix.
+     */
+    int[] prefix(String prefix) {
+        int node = walk(prefix);
+        return node < 0 ? new int[0] : top(node);
+    }
+
+    /**
+     * Entry ids whose key is within one edit of key, mapped to their distance (0 or 1),
+     * best distance first. With asPrefix, key only has to be within one edit of a prefix
+     * of the entry's key, and each matching node contributes its subtree tops.
+     */
+    Map<Integer, Integer> fuzzy(String key, boolean asPrefix) {
+        Map<Integer, Integer> nodes = new LinkedHashMap<>();
+        search(0, key, 0, 1, asPrefix, nodes);
+
+        Map<Integer, Integer> byDistance = new TreeMap<>();
+        Map<Integer, Integer> result = new LinkedHashMap<>();
+        for (int distance = 0; distance <= 1; distance++) {
+            for (Map.Entry<Integer, Integer> match : nodes.entrySet()) {
+                if (match.getValue() != distance) {
+                    continue;
+                }
+                int node = match.getKey();
+                int[] ids = asPrefix ? top(node)
+                        : Arrays.copyOfRange(entries, entryStart[node], entryStart[node + 1]);
+                for (int id : ids) {
+                    byDistance.putIfAbsent(id, distance);
+                }
+            }
+            // Within one distance, better-ranked (lower) ids first
+            for (Map.Entry<Integer, Integer> id : byDistance.entrySet()) {
+                result.putIfAbsent(id.getKey(), id.getValue());
+            }
+            byDistance.clear();
+        }
+        return result;
+    }
+
+    private void search(int node, String key, int i, int budget, boolean asPrefix, Map<Integer, Integer> matches) {
+        int used = 1 - budget;
+        if (i == key.length()) {
+            if (asPrefix || entryStart[node] < entryStart[node + 1]) {
+                matches.merge(node, used, Math::min);
+            }
+            if (!asPrefix && budget > 0) {
+                // Trailing character missing from the key
+                for (int child = firstChild[node]; child < firstChild[node + 1]; child++) {
+                    search(child, key, i, budget - 1, false, matches);
+                }
+            }
+            return;
+        }
+        char c = key.charAt(i);
+        int next = child(node, c);
+        if (next >= 0) {
+            search(next, key, i + 1, budget, asPrefix, matches);
+        }
+        if (budget == 0) {
+            return;
+        }
+        // Extra character in the key
+        search(node, key, i + 1, budget - 1, asPrefix, matches);
+        for (int child = firstChild[node]; child < firstChild[node + 1]; child++) {
+            if (label[child] != c) {
+                // Wrong character, or a character missing from the key
+                search(child, key, i + 1, budget - 1, asPrefix, matches);
+                search(child, key, i, budget - 1, asPrefix, matches);
+            }
+        }
+        // Two adjacent characters swapped
+        if (i + 1 < key.length() && key.charAt(i + 1) != c) {
+            int swapped = child(node, key.charAt(i + 1));
+            if (swapped >= 0) {
+                int after = child(swapped, c);
+                if (after >= 0) {
+                    search(after, key, i + 2, budget - 1, asPrefix, matches);
+                }
+            }
+        }
+    }
+
+    private int walk(String key) {
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        return node;
+    }
+
+    // Binary search over the sorted edge labels of node's children; -1 if there is none for c
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = firstChild[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (label[mid] < c) {
+                low = mid + 1;
+            } else if (label[mid] > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int[] top(int node) {
+        return Arrays.copyOfRange(top, topStart[node], topStart[node + 1]);
+    }
+
+    // Union of two ascending id lists, truncated to TOP_K
+    private static int[] mergeTop(int[] a, int[] b) {
+        int[] merged = new int[Math.min(TOP_K, a.length + b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (n < merged.length && (i < a.length || j < b.length)) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (n == 0 || merged[n - 1] != next) {
+                merged[n++] = next;
+            }
+        }
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+
+    private static class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> entries = new ArrayList<>();
+        private int[] top;
+    }
+}
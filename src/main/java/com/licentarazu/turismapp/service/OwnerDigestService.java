@@ -0,0 +1,259 @@
+package com.licentarazu.turismapp.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.licentarazu.turismapp.model.Booking;
+import com.licentarazu.turismapp.model.EmailDigestMode;
+import com.licentarazu.turismapp.model.OwnerDigestEvent;
+import com.licentarazu.turismapp.model.User;
+import com.licentarazu.turismapp.repository.OwnerDigestEventRepository;
+import com.licentarazu.turismapp.repository.UserRepository;
+import com.licentarazu.turismapp.util.EmailTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
+/**
+ * Owner booking and cancellation notifications grouped into one summary email.
+ *
+ * For an owner whose emailDigestMode is HOURLY or DAILY, EmailService stores each event
+ * here (in the booking's transaction) instead of queueing an email. An owner's events are
+ * sent as one digest when the oldest has waited for the mode's period, or as soon as
+ * max-events are pending. Events whose check-in is within urgent-days of today (by default:
+ * today) are never held back and go out as individual emails.
+ */
+@Service
+public class OwnerDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerDigestService.class);
+
+    private final OwnerDigestEventRepository digestEventRepository;
+    private final UserRepository userRepository;
+    private final EmailOutboxService emailOutbox;
+    private final TransactionTemplate transaction;
+    private final int maxEvents;
+    private final int urgentDays;
+
+    // Flushes of full batches, off the request thread and after the booking has committed
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "owner-digest-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong digestsSent = new AtomicLong();
+    private final AtomicLong eventsDigested = new AtomicLong();
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Autowired
+    public OwnerDigestService(OwnerDigestEventRepository digestEventRepository, UserRepository userRepository,
+            EmailOutboxService emailOutbox, PlatformTransactionManager transactionManager,
+            @Value("${app.email.digest.max-events:20}") int maxEvents,
+            @Value("${app.email.digest.urgent-days:0}") int urgentDays) {
+        this.digestEventRepository = digestEventRepository;
+        this.userRepository = userRepository;
+        this.emailOutbox = emailOutbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxEvents = Math.max(1, maxEvents);
+        this.urgentDays = Math.max(0, urgentDays);
+    }
+
+    // ===== BUFFERING =====
+
+    /**
+     * Whether the owner's notification about booking waits for the next digest.
+     */
+    public boolean isDigested(User owner, Booking booking) {
+        if (owner.getEmailDigestMode() == EmailDigestMode.OFF) {
+            return false;
+        }
+        LocalDate checkIn = booking.getCheckInDate();
+        return checkIn != null && checkIn.isAfter(LocalDate.now().plusDays(urgentDays));
+    }
+
+    /**
+     * Buffer a pre-rendered digest line for owner; kind is OwnerDigestEvent.BOOKING or CANCELLATION.
+     */
+    @Transactional
+    public void add(User owner, Booking booking, String kind, String line) {
+        digestEventRepository.save(new OwnerDigestEvent(owner.getId(), booking.getId(), kind, line));
+        if (digestEventRepository.countByOwnerId(owner.getId()) >= maxEvents) {
+            Long ownerId = owner.getId();
+            afterCommit(() -> flushExecutor.submit(() -> flushQuietly(ownerId)));
+        }
+    }
+
+    // ===== FLUSHING =====
+
+    /**
+     * Queue one digest email with all pending events of the owner, and drop the events.
+     * Returns the number of events sent.
+     */
+    public int flushOwner(Long ownerId) {
+        Integer flushed = transaction.execute(status -> {
+            List<OwnerDigestEvent> events = digestEventRepository.lockByOwnerId(ownerId);
+            if (events.isEmpty()) {
+                return 0;   // flushed concurrently
+            }
+            User owner = userRepository.findById(ownerId).orElse(null);
+            if (owner == null || owner.getEmail() == null) {
+                logger.warn("⚠️ Dropping {} digest events of missing owner {}", events.size(), ownerId);
+            } else {
+                emailOutbox.enqueue("OWNER_DIGEST", digestMessage(owner, events));
+            }
+            digestEventRepository.deleteAllInBatch(events);
+            return owner == null || owner.getEmail() == null ? 0 : events.size();
+        });
+        if (flushed != null && flushed > 0) {
+            digestsSent.incrementAndGet();
+            eventsDigested.addAndGet(flushed);
+            logger.info("✅ Owner digest with {} updates queued for owner {}", flushed, ownerId);
+        }
+        return flushed != null ? flushed : 0;
+    }
+
+    private void flushQuietly(Long ownerId) {
+        try {
+            flushOwner(ownerId);
+        } catch (Exception e) {
+            // The events stay pending; the scheduled flush retries them
+            logger.error("❌ Failed to flush digest of owner {}: {}", ownerId, e.getMessage());
+        }
+    }
+
+    // Digests whose oldest event has waited for the owner's period
+    @Scheduled(fixedDelayString = "${app.email.digest.check-interval-ms:300000}")
+    public void flushDue() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : digestEventRepository.findPendingOwners()) {
+            Long ownerId = (Long) row[0];
+            LocalDateTime oldest = (LocalDateTime) row[1];
+            EmailDigestMode mode = userRepository.findById(ownerId)
+                    .map(User::getEmailDigestMode)
+                    .orElse(EmailDigestMode.OFF);
+            if (!oldest.plus(period(mode)).isAfter(now)) {
+                flushQuietly(ownerId);
+            }
+        }
+    }
+
+    // OFF: events left from before the owner switched digests off go out at once
+    private static Duration period(EmailDigestMode mode) {
+        return switch (mode) {
+            case HOURLY -> Duration.ofHours(1);
+            case DAILY -> Duration.ofDays(1);
+            case OFF -> Duration.ZERO;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Unflushed events are in the database; the next scheduled flush sends them
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // ===== SETTINGS =====
+
+    /**
+     * Change the digest mode of the user with email; switching to OFF sends what is pending.
+     *
+     * @throws IllegalArgumentException if mode is not one of OFF, HOURLY, DAILY
+     */
+    @Transactional
+    public EmailDigestMode updateMode(String email, String mode) {
+        EmailDigestMode digestMode;
+        try {
+            digestMode = EmailDigestMode.valueOf(mode == null ? "" : mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid digest mode: " + mode + " (expected OFF, HOURLY or DAILY)");
+        }
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setEmailDigestMode(digestMode);
+        if (digestMode == EmailDigestMode.OFF) {
+            Long ownerId = user.getId();
+            afterCommit(() -> flushExecutor.submit(() -> flushQuietly(ownerId)));
+        }
+        logger.info("✅ Email digest mode of {} set to {}", email, digestMode);
+        return digestMode;
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending(Long ownerId) {
+        return digestEventRepository.countByOwnerId(ownerId);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> stats() {
+        List<Object[]> owners = digestEventRepository.findPendingOwners();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingEvents", digestEventRepository.count());
+        stats.put("ownersWaiting", owners.size());
+        stats.put("digestsSent", digestsSent.get());
+        stats.put("eventsDigested", eventsDigested.get());
+        stats.put("maxEvents", maxEvents);
+        return stats;
+    }
+
+    // ===== EMAIL =====
+
+    private static final EmailTemplate DIGEST_BODY = EmailTemplate.compile(
+            "Dear {{ownerName}},\n\n" +
+            "Here is the latest activity on your properties: {{bookings}} new booking(s) and " +
+            "{{cancellations}} cancellation(s).\n\n" +
+            "{{lines}}" +
+            "Bookings and cancellations for imminent check-ins are still emailed to you right away.\n" +
+            "You can change how often you receive these summaries from your account settings.\n\n" +
+            "Best regards,\n" +
+            "The Tourism App Team\n" +
+            "{{baseUrl}}");
+
+    private SimpleMailMessage digestMessage(User owner, List<OwnerDigestEvent> events) {
+        int bookings = 0;
+        StringBuilder lines = new StringBuilder();
+        for (OwnerDigestEvent event : events) {
+            if (OwnerDigestEvent.BOOKING.equals(event.getKind())) {
+                bookings++;
+            }
+            lines.append(event.getLine()).append('\n');
+        }
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(owner.getEmail());
+        message.setSubject("Activity summary - " + events.size() + " updates for your properties");
+        message.setText(DIGEST_BODY.render(
+                owner.getFirstName() != null ? owner.getFirstName() : "Property Owner",
+                bookings,
+                events.size() - bookings,
+                lines,
+                baseUrl));
+        return message;
+    }
+}
@@ -16,6 +16,9 @@ public class PasswordResetService {
     @Autowired
     private PasswordResetTokenRepository passwordResetTokenRepository;
 
+    @Autowired
+    private EmailService emailService;
+
     @Transactional
     public PasswordResetToken createPasswordResetToken(User user) {
         // Invalidate any existing tokens for this user
@@ -26,6 +29,14 @@ public class PasswordResetService {
         return passwordResetTokenRepository.save(token);
     }
 
+    // Token and reset email in one transaction: the email is queued only if the token is saved
+    @Transactional
+    public PasswordResetToken requestPasswordReset(User user) {
+        PasswordResetToken token = createPasswordResetToken(user);
+        emailService.sendPasswordResetEmail(user.getEmail(), token.getToken());
+        return token;
+    }
+
     public Optional<PasswordResetToken> getPasswordResetToken(String token) {
         return passwordResetTokenRepository.findByToken(token);
     }
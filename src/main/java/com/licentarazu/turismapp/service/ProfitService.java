@@ -4,6 +4,7 @@ import com.licentarazu.turismapp.model.Booking;
 import com.licentarazu.turismapp.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -22,6 +23,7 @@ public class ProfitService {
      * Enhanced AI-powered profit prediction using multiple algorithms
      * Combines linear regression, seasonal analysis, and growth patterns
      */
+    @Transactional(readOnly = true)
     public double predictProfit(int monthsAhead) {
         Map<YearMonth, Double> profitByMonth = bookingRepository.findAll().stream()
                 .filter(b -> b.getCheckInDate() != null && b.getCheckOutDate() != null)
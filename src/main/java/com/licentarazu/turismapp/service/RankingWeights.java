@@ -0,0 +1,54 @@
+package com.licentarazu.turismapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Weights of the "rank" sort of the catalog (see CatalogIndexService). Each signal is
+ * scaled to [0, 1] before weighting; signals a query does not have (no search term, no
+ * location) drop out and the remaining weights are rescaled, so scores stay comparable.
+ */
+@Component
+public class RankingWeights {
+
+    private final double text;
+    private final double rating;
+    private final double reviews;
+    private final double price;
+    private final double distance;
+
+    public RankingWeights(@Value("${app.ranking.weight.text:0.35}") double text,
+            @Value("${app.ranking.weight.rating:0.25}") double rating,
+            @Value("${app.ranking.weight.reviews:0.10}") double reviews,
+            @Value("${app.ranking.weight.price:0.15}") double price,
+            @Value("${app.ranking.weight.distance:0.15}") double distance) {
+        if (text < 0 || rating < 0 || reviews < 0 || price < 0 || distance < 0) {
+            throw new IllegalArgumentException("Ranking weights must not be negative");
+        }
+        this.text = text;
+        this.rating = rating;
+        this.reviews = reviews;
+        this.price = price;
+        this.distance = distance;
+    }
+
+    public double getText() {
+        return text;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public double getReviews() {
+        return reviews;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+}
@@ -27,6 +27,15 @@ public class ReservationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private UnitLockService unitLocks;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
     // Creează o rezervare cu validare de suprapunere
     public Reservation createReservation(Reservation reservation) {
         // Încarcă unitatea și utilizatorul
@@ -38,21 +47,22 @@ public class ReservationService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Utilizator inexistent"));
 
-        // Verificare suprapunere rezervări
-        List<Reservation> overlapping = reservationRepository
-                .findByUnitIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                        unitId, reservation.getEndDate(), reservation.getStartDate());
-
-        if (!overlapping.isEmpty()) {
-            throw new ReservationConflictException("Unitatea este deja rezervată în perioada aleasă.");
-        }
-
-        // Setează entitățile corecte
-        reservation.setUnit(unit);
-        reservation.setUser(user);
-        reservation.setStatus(ReservationStatus.PENDING);
-
-        return reservationRepository.save(reservation);
+        // Verificare suprapunere + salvare sub lock-ul unității (fără rezervări duble la cereri simultane)
+        return unitLocks.withUnitLocked(unitId, () -> {
+            // Aceeași regulă de admitere ca la booking: rezervările PENDING ocupă și ele perioada, interval [start, end)
+            if (!availabilityService.isUnitAvailable(unitId, reservation.getStartDate(), reservation.getEndDate())) {
+                throw new ReservationConflictException("Unitatea este deja rezervată în perioada aleasă.");
+            }
+
+            // Setează entitățile corecte
+            reservation.setUnit(unit);
+            reservation.setUser(user);
+            reservation.setStatus(ReservationStatus.PENDING);
+
+            Reservation savedReservation = reservationRepository.save(reservation);
+            availabilityCalendar.reservationSaved(savedReservation);
+            return savedReservation;
+        });
     }
 
     // Găsește toate rezervările unui utilizator
@@ -65,18 +75,37 @@ public class ReservationService {
         return reservationRepository.findByUnitId(unitId);
     }
 
-    // Actualizează statusul unei rezervări
+    // Actualizează statusul unei rezervări; confirmarea (sau reactivarea) verifică din nou suprapunerea
     public Optional<Reservation> updateStatus(Long reservationId, ReservationStatus status) {
         Optional<Reservation> reservation = reservationRepository.findById(reservationId);
-        reservation.ifPresent(r -> {
+        if (reservation.isEmpty()) {
+            return reservation;
+        }
+        Reservation r = reservation.get();
+        if (!AvailabilityService.ADMISSION_RESERVATION_STATUSES.contains(status)) {
             r.setStatus(status);
             reservationRepository.save(r);
-        });
-        return reservation;
+            availabilityCalendar.reservationSaved(r);
+            return reservation;
+        }
+
+        Long unitId = r.getUnit().getId();
+        return Optional.of(unitLocks.withUnitLocked(unitId, () -> {
+            // Aceeași regulă ca la creare, fără rezervarea însăși
+            if (!availabilityService.isUnitAvailable(unitId, r.getStartDate(), r.getEndDate(), r.getId())) {
+                throw new ReservationConflictException("Unitatea este deja rezervată în perioada aleasă.");
+            }
+            r.setStatus(status);
+            Reservation savedReservation = reservationRepository.save(r);
+            availabilityCalendar.reservationSaved(savedReservation);
+            return savedReservation;
+        }));
     }
 
     // Șterge o rezervare
     public void deleteReservation(Long reservationId) {
+        Optional<Reservation> reservation = reservationRepository.findById(reservationId);
         reservationRepository.deleteById(reservationId);
+        reservation.ifPresent(r -> availabilityCalendar.refreshUnit(r.getUnit().getId(), r.getStartDate(), r.getEndDate()));
     }
 }
@@ -8,28 +8,35 @@ import com.licentarazu.turismapp.repository.ReviewRepository;
 import com.licentarazu.turismapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
 @Service
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final AccommodationUnitRepository accommodationUnitRepository;
     private final UserRepository userRepository;
+    private final CatalogIndexService catalogIndex;
 
     @Autowired
     public ReviewService(ReviewRepository reviewRepository,
                          AccommodationUnitRepository accommodationUnitRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         CatalogIndexService catalogIndex) {
         this.reviewRepository = reviewRepository;
         this.accommodationUnitRepository = accommodationUnitRepository;
         this.userRepository = userRepository;
+        this.catalogIndex = catalogIndex;
     }
 
-    // Creează o recenzie nouă
+    // Creează o recenzie nouă; agregatele de rating ale unității se actualizează în aceeași tranzacție
+    @Transactional
     public Review createReview(Long userId, Long unitId, int rating, String comment) {
         Optional<User> userOpt = userRepository.findById(userId);
         Optional<AccommodationUnit> unitOpt = accommodationUnitRepository.findById(unitId);
@@ -45,10 +52,57 @@ public class ReviewService {
         review.setComment(comment);
         review.setCreatedAt(LocalDate.now());
 
-        return reviewRepository.save(review);
+        Review savedReview = reviewRepository.save(review);
+        applyToRating(unitId, rating, 1);
+
+        return savedReview;
+    }
+
+    // Șterge o recenzie (doar autorul ei)
+    @Transactional
+    public void deleteReview(Long reviewId, Long userId) {
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Recenzia nu a fost găsită."));
+        if (!review.getUser().getId().equals(userId)) {
+            throw new IllegalStateException("Doar autorul poate șterge recenzia.");
+        }
+
+        Long unitId = review.getAccommodationUnit().getId();
+        reviewRepository.delete(review);
+        applyToRating(unitId, -review.getRating(), -1);
+    }
+
+    /**
+     * Take reviews out of their units' rating aggregates before they are removed by a cascade
+     * (e.g. when the author's account is deleted).
+     */
+    @Transactional
+    public void subtractFromRatings(List<Review> reviews) {
+        for (Review review : reviews) {
+            applyToRating(review.getAccommodationUnit().getId(), -review.getRating(), -1);
+        }
+    }
+
+    /**
+     * One-off rebuild of rating sum, count and average for every unit from the reviews table,
+     * for data written before the aggregates were maintained.
+     */
+    @Transactional
+    public int rebuildRatingAggregates() {
+        int updated = accommodationUnitRepository.rebuildRatingAggregates();
+        afterCommit(catalogIndex::rebuild);
+        return updated;
+    }
+
+    // Single increment UPDATE on the unit row, then keep the catalog index rating filter in sync
+    private void applyToRating(Long unitId, long ratingDelta, int countDelta) {
+        accommodationUnitRepository.applyRatingDelta(unitId, ratingDelta, countDelta);
+        Double averageRating = accommodationUnitRepository.findRatingById(unitId);
+        catalogIndex.updateRating(unitId, averageRating != null ? averageRating : 0.0, countDelta);
     }
 
     // Toate recenziile pentru o unitate
+    @Transactional(readOnly = true)
     public List<Review> getReviewsByUnit(Long unitId) {
         Optional<AccommodationUnit> unit = accommodationUnitRepository.findById(unitId);
         return unit.map(reviewRepository::findByAccommodationUnit)
@@ -56,6 +110,7 @@ public class ReviewService {
     }
 
     // Media ratingului pentru o unitate
+    @Transactional(readOnly = true)
     public Double getAverageRatingForUnit(Long unitId) {
         Optional<AccommodationUnit> unit = accommodationUnitRepository.findById(unitId);
         return unit.map(reviewRepository::findAverageRatingByAccommodationUnit)
@@ -63,6 +118,7 @@ public class ReviewService {
     }
 
     // Get reviews by user
+    @Transactional(readOnly = true)
     public List<Review> getReviewsByUser(Long userId) {
         Optional<User> user = userRepository.findById(userId);
         return user.map(reviewRepository::findByUser)
@@ -74,6 +130,7 @@ public class ReviewService {
     /**
      * Get average rating for all units owned by a specific user
      */
+    @Transactional(readOnly = true)
     public double getAverageRatingByOwner(User owner) {
         Double averageRating = reviewRepository.findAverageRatingByOwner(owner);
         return averageRating != null ? averageRating : 0.0;
@@ -82,6 +139,7 @@ public class ReviewService {
     /**
      * Calculate guest satisfaction score based on ratings distribution
      */
+    @Transactional(readOnly = true)
     public double getGuestSatisfactionScore(User owner) {
         List<Review> ownerReviews = reviewRepository.findByAccommodationUnitOwner(owner);
         
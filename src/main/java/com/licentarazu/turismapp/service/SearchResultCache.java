@@ -0,0 +1,269 @@
+package com.licentarazu.turismapp.service;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.licentarazu.turismapp.config.ReadReplicaMonitor;
+import com.licentarazu.turismapp.dto.UnitSearchCriteria;
+import com.licentarazu.turismapp.util.TextNormalizer;
+
+/**
+ * Bounded LRU cache of public search results, keyed by the normalised filter tuple.
+ *
+ * Price bounds are widened to PRICE_BUCKET steps in the key, so "100-250" and "120-240"
+ * share one entry; callers load with the widened bounds and narrow the cached list to
+ * the exact range on every read. Unit writes drop every entry (through the catalog
+ * index), booking and reservation writes only drop entries whose stay window overlaps
+ * the changed nights (through the availability calendar). A load that raced with an
+ * invalidation is returned but not stored; with a read replica, neither is a load that
+ * started so soon after the last invalidation that the replica may not have the change.
+ */
+@Service
+public class SearchResultCache {
+
+    static final double PRICE_BUCKET = 50.0;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxEntries;
+    private final ReadReplicaMonitor replicas;
+
+    private final LinkedHashMap<Key, List<?>> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    // Bumped by every invalidation; a load only stores its result if nothing changed meanwhile
+    private long generation = 0;
+    private long lastInvalidationMillis = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    public SearchResultCache(@Value("${app.search-cache.max-entries:1000}") int maxEntries,
+            ReadReplicaMonitor replicas) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.replicas = replicas;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Key key, Supplier<List<T>> loader) {
+        long loadGeneration;
+        long loadStartMillis = System.currentTimeMillis();
+        synchronized (this) {
+            List<?> cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return (List<T>) cached;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        List<T> loaded = List.copyOf(loader.get());
+
+        synchronized (this) {
+            boolean replicaMayBeStale = loadStartMillis - lastInvalidationMillis < replicas.staleReadWindowMillis();
+            if (generation == loadGeneration && !replicaMayBeStale) {
+                entries.put(key, loaded);
+                while (entries.size() > maxEntries) {
+                    Iterator<Key> eldest = entries.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // ===== INVALIDATION =====
+
+    /**
+     * A unit was created, changed or removed: every cached result may be affected.
+     */
+    public synchronized void invalidateCatalog() {
+        generation++;
+        lastInvalidationMillis = System.currentTimeMillis();
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * Nights [from, to) of some unit were booked or freed. Only date-filtered entries whose
+     * window overlaps them are dropped; null bounds mean "unknown", i.e. every dated entry.
+     */
+    public synchronized void invalidateDates(LocalDate from, LocalDate to) {
+        generation++;
+        lastInvalidationMillis = System.currentTimeMillis();
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            Key key = keys.next();
+            if (key.checkIn == null || key.checkOut == null) {
+                continue;
+            }
+            boolean overlaps = (from == null || key.checkOut.isAfter(from))
+                    && (to == null || key.checkIn.isBefore(to));
+            if (overlaps) {
+                keys.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        long lookups = hits + misses;
+        stats.put("hitRatio", lookups > 0 ? (double) hits / lookups : 0.0);
+        return stats;
+    }
+
+    // ===== KEY NORMALISATION =====
+
+    /**
+     * The criteria a cache miss is loaded with: the same strings the key was built from
+     * (trimmed, whitespace collapsed) and the bucketed price bounds.
+     */
+    static UnitSearchCriteria widen(UnitSearchCriteria criteria) {
+        UnitSearchCriteria widened = new UnitSearchCriteria(clean(criteria.getSearch()), clean(criteria.getLocation()),
+                clean(criteria.getCounty()), clean(criteria.getType()), bucketFloor(criteria.getMinPrice()),
+                bucketCeil(criteria.getMaxPrice()), criteria.getCapacity(), criteria.getMinRating());
+        widened.setMaxCapacity(criteria.getMaxCapacity());
+        widened.setAmenities(criteria.getAmenities());
+        widened.setCheckIn(criteria.getCheckIn());
+        widened.setCheckOut(criteria.getCheckOut());
+        return widened;
+    }
+
+    static String clean(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ");
+    }
+
+    // ===== PRICE BUCKETS =====
+
+    static Double bucketFloor(Double minPrice) {
+        return minPrice == null ? null : Math.floor(minPrice / PRICE_BUCKET) * PRICE_BUCKET;
+    }
+
+    static Double bucketCeil(Double maxPrice) {
+        return maxPrice == null ? null : Math.ceil(maxPrice / PRICE_BUCKET) * PRICE_BUCKET;
+    }
+
+    /**
+     * Narrow a result loaded with bucketed price bounds to the exact requested range.
+     */
+    static <T> List<T> narrowToPrice(List<T> items, Function<T, Double> price, Double minPrice, Double maxPrice) {
+        boolean exactMin = minPrice == null || minPrice.equals(bucketFloor(minPrice));
+        boolean exactMax = maxPrice == null || maxPrice.equals(bucketCeil(maxPrice));
+        if (exactMin && exactMax) {
+            return items;
+        }
+        // A missing price fails every bound, like NULL in SQL
+        return items.stream()
+                .filter(item -> {
+                    Double value = price.apply(item);
+                    return value != null
+                            && (minPrice == null || value >= minPrice)
+                            && (maxPrice == null || value <= maxPrice);
+                })
+                .toList();
+    }
+
+    /**
+     * Normalised filter tuple. Strings are trimmed with their whitespace collapsed, text and
+     * location are also folded (case and diacritics); price bounds are bucketed.
+     */
+    public static final class Key {
+        private final String scope;
+        private final String text;
+        private final String location;
+        private final String type;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private final Integer minCapacity;
+        private final Integer maxCapacity;
+        private final Double minRating;
+        private final long amenityMask;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        public Key(String scope, String text, String location, String type, Double minPrice, Double maxPrice,
+                Integer minCapacity, Integer maxCapacity, Double minRating, long amenityMask,
+                LocalDate checkIn, LocalDate checkOut) {
+            this.scope = scope;
+            this.text = fold(text);
+            this.location = fold(location);
+            // Types compare case-insensitively but not accent-insensitively
+            this.type = type == null || type.isBlank() ? null : clean(type).toLowerCase(Locale.ROOT);
+            this.minPrice = bucketFloor(minPrice);
+            this.maxPrice = bucketCeil(maxPrice);
+            this.minCapacity = minCapacity;
+            this.maxCapacity = maxCapacity;
+            this.minRating = minRating;
+            this.amenityMask = amenityMask;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        // Build from widen(criteria), so the key and the loaded result agree on every filter
+        public static Key of(String scope, UnitSearchCriteria criteria) {
+            return new Key(scope, criteria.getTextFilter(), criteria.getLocationFilter(), criteria.getType(),
+                    criteria.getMinPrice(), criteria.getMaxPrice(), criteria.getCapacity(),
+                    criteria.getMaxCapacity(), criteria.getMinRating(), criteria.getAmenityMask(),
+                    criteria.getCheckIn(), criteria.getCheckOut());
+        }
+
+        private static String fold(String value) {
+            String cleaned = clean(value);
+            return cleaned == null ? null : TextNormalizer.fold(cleaned);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return amenityMask == other.amenityMask
+                    && scope.equals(other.scope)
+                    && Objects.equals(text, other.text)
+                    && Objects.equals(location, other.location)
+                    && Objects.equals(type, other.type)
+                    && Objects.equals(minPrice, other.minPrice)
+                    && Objects.equals(maxPrice, other.maxPrice)
+                    && Objects.equals(minCapacity, other.minCapacity)
+                    && Objects.equals(maxCapacity, other.maxCapacity)
+                    && Objects.equals(minRating, other.minRating)
+                    && Objects.equals(checkIn, other.checkIn)
+                    && Objects.equals(checkOut, other.checkOut);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, text, location, type, minPrice, maxPrice, minCapacity, maxCapacity,
+                    minRating, amenityMask, checkIn, checkOut);
+        }
+    }
+}
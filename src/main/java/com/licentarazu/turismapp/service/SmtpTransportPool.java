@@ -0,0 +1,227 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Connected, authenticated SMTP transports kept open between sends.
+ *
+ * JavaMailSender.send opens a connection (TCP, EHLO, STARTTLS, AUTH) for every call; a
+ * dispatch worker instead borrows a Connection for its whole batch and sends each message
+ * on it, and the connection goes back to the pool for the next batch. A connection is
+ * replaced after max-messages-per-connection messages (providers cap it) or when it has
+ * been idle longer than idle-timeout-ms (servers drop idle clients); at most pool-size
+ * idle connections are kept.
+ */
+@Service
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final int poolSize;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMillis;
+
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    @Autowired
+    public SmtpTransportPool(JavaMailSender mailSender,
+            @Value("${app.email.smtp.pool-size:${app.email.outbox.workers:2}}") int poolSize,
+            @Value("${app.email.smtp.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${app.email.smtp.idle-timeout-ms:60000}") long idleTimeoutMillis) {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            throw new IllegalStateException("SMTP pooling needs a JavaMailSenderImpl, got " + mailSender.getClass().getName());
+        }
+        this.mailSender = (JavaMailSenderImpl) mailSender;
+        this.poolSize = Math.max(0, poolSize);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * An idle connection, or a new one. close() the result to give it back.
+     */
+    public Connection borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Connection connection;
+            synchronized (idle) {
+                // Most recently used first: the likeliest to still be open
+                connection = idle.pollFirst();
+            }
+            if (connection == null) {
+                break;
+            }
+            if (now - connection.idleSince > idleTimeoutMillis) {
+                connection.disconnect();
+                continue;
+            }
+            connection.resumed = true;
+            return connection;
+        }
+        return new Connection(connect());
+    }
+
+    /**
+     * Build the MIME message sent for message. A failure here is a defect of the message
+     * itself (e.g. a malformed address) and will not go away on retry.
+     */
+    public MimeMessage prepare(SimpleMailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = new MimeMessage(mailSender.getSession());
+        try {
+            message.copyTo(new MimeMailMessage(new MimeMessageHelper(mimeMessage, mailSender.getDefaultEncoding())));
+        } catch (MailException e) {
+            throw new MessagingException(e.getMessage(), e);
+        }
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private Transport connect() throws MessagingException {
+        // Protocol resolved as in JavaMailSenderImpl.getTransport
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        }
+        Transport transport = mailSender.getSession().getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsOpened.incrementAndGet();
+        return transport;
+    }
+
+    private void release(Connection connection) {
+        if (!connection.broken && connection.sent < maxMessagesPerConnection) {
+            connection.idleSince = System.currentTimeMillis();
+            synchronized (idle) {
+                if (idle.size() < poolSize) {
+                    idle.addFirst(connection);
+                    return;
+                }
+            }
+        }
+        connection.disconnect();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        synchronized (idle) {
+            idle.forEach(Connection::disconnect);
+            idle.clear();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (idle) {
+            stats.put("idleConnections", idle.size());
+        }
+        stats.put("connectionsOpened", connectionsOpened.get());
+        stats.put("messagesSent", messagesSent.get());
+        stats.put("reconnects", reconnects.get());
+        long opened = connectionsOpened.get();
+        stats.put("messagesPerConnection", opened == 0 ? 0.0 : Math.round(messagesSent.get() * 10.0 / opened) / 10.0);
+        return stats;
+    }
+
+    /**
+     * One SMTP connection, used by a single thread between borrow() and close().
+     */
+    public final class Connection implements AutoCloseable {
+
+        private Transport transport;
+        private int sent = 0;
+        private boolean broken = false;
+        private boolean resumed = false;   // taken from the pool, not used since: the server may have dropped it
+        private long idleSince;
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Send on this connection. A pooled connection that fails at the transport level is
+         * replaced and the message sent once more; rejected recipients are not retried. After
+         * max-messages-per-connection messages, or a failed send, the next message goes out
+         * on a new connection.
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            if (broken || sent >= maxMessagesPerConnection) {
+                replace();
+            }
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                if (transport.isConnected()) {
+                    // The server refused this message (e.g. a recipient); the connection is fine
+                    throw e;
+                }
+                if (!resumed) {
+                    broken = true;
+                    throw e;
+                }
+                logger.info("SMTP connection closed by the server while idle, reconnecting");
+                reconnects.incrementAndGet();
+                replace();
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException retryError) {
+                    broken = !transport.isConnected();
+                    throw retryError;
+                }
+            }
+            resumed = false;
+            sent++;
+            messagesSent.incrementAndGet();
+        }
+
+        private void replace() throws MessagingException {
+            disconnect();
+            broken = true;   // until connected again
+            resumed = false;
+            sent = 0;
+            transport = connect();
+            broken = false;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        private void disconnect() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
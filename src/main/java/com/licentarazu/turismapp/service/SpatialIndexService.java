@@ -0,0 +1,331 @@
+package com.licentarazu.turismapp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.licentarazu.turismapp.model.AccommodationUnit;
+import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
+import com.licentarazu.turismapp.util.GeoUtils;
+
+import static com.licentarazu.turismapp.util.TransactionUtils.afterCommit;
+
+/**
+ * Uniform lat/lon grid over the coordinates of all units that have them.
+ *
+ * Radius queries only visit the grid cells overlapping the circle's bounding box and
+ * reject points outside that box before computing the exact haversine distance.
+ * Nearest-neighbour queries scan rings of cells outward from the centre and stop once
+ * no unvisited cell can hold anything closer than the current k-th result. The grid is
+ * built at startup and kept up to date by the unit write paths, after commit.
+ */
+@Service
+public class SpatialIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialIndexService.class);
+
+    // ~11 km of latitude per cell; a city-sized radius touches a handful of cells
+    private static final double CELL_DEGREES = 0.1;
+    private static final double KM_PER_DEGREE = Math.PI * 6371 / 180;
+
+    private final AccommodationUnitRepository accommodationUnitRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, double[]> coordinatesByUnitId = new HashMap<>();
+    private final Map<Long, List<Long>> unitIdsByCell = new HashMap<>();
+
+    // Bounds of the occupied cells, so ring scans know when they have covered everything
+    private int minLatCell = Integer.MAX_VALUE;
+    private int maxLatCell = Integer.MIN_VALUE;
+    private int minLonCell = Integer.MAX_VALUE;
+    private int maxLonCell = Integer.MIN_VALUE;
+
+    private volatile boolean ready = false;
+
+    public SpatialIndexService(AccommodationUnitRepository accommodationUnitRepository) {
+        this.accommodationUnitRepository = accommodationUnitRepository;
+    }
+
+    // ===== BUILD =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = accommodationUnitRepository.findAllCoordinates();
+
+        lock.writeLock().lock();
+        try {
+            coordinatesByUnitId.clear();
+            unitIdsByCell.clear();
+            minLatCell = minLonCell = Integer.MAX_VALUE;
+            maxLatCell = maxLonCell = Integer.MIN_VALUE;
+            for (Object[] row : rows) {
+                put((Long) row[0], (Double) row[1], (Double) row[2]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("✅ Spatial index built with {} units in {} cells", coordinatesByUnitId.size(), unitIdsByCell.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== MAINTENANCE (applied after the surrounding transaction commits) =====
+
+    public void upsert(AccommodationUnit unit) {
+        if (unit == null || unit.getId() == null) {
+            return;
+        }
+        Long unitId = unit.getId();
+        Double latitude = unit.getLatitude();
+        Double longitude = unit.getLongitude();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(unitId);
+                put(unitId, latitude, longitude);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long unitId) {
+        if (unitId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(unitId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAll(Collection<AccommodationUnit> units) {
+        for (AccommodationUnit unit : units) {
+            remove(unit.getId());
+        }
+    }
+
+    private void put(Long unitId, Double latitude, Double longitude) {
+        if (unitId == null || latitude == null || longitude == null) {
+            return;
+        }
+        int latCell = latCell(latitude);
+        int lonCell = lonCell(longitude);
+        coordinatesByUnitId.put(unitId, new double[]{latitude, longitude});
+        unitIdsByCell.computeIfAbsent(cellKey(latCell, lonCell), key -> new ArrayList<>()).add(unitId);
+        minLatCell = Math.min(minLatCell, latCell);
+        maxLatCell = Math.max(maxLatCell, latCell);
+        minLonCell = Math.min(minLonCell, lonCell);
+        maxLonCell = Math.max(maxLonCell, lonCell);
+    }
+
+    private void delete(Long unitId) {
+        double[] coordinates = coordinatesByUnitId.remove(unitId);
+        if (coordinates == null) {
+            return;
+        }
+        long key = cellKey(latCell(coordinates[0]), lonCell(coordinates[1]));
+        List<Long> cell = unitIdsByCell.get(key);
+        if (cell != null) {
+            cell.remove(unitId);
+            if (cell.isEmpty()) {
+                unitIdsByCell.remove(key);
+            }
+        }
+    }
+
+    // ===== QUERIES =====
+
+    /**
+     * Units within radiusKm of (latitude, longitude), in no particular order.
+     */
+    public List<Neighbor> withinRadius(double latitude, double longitude, double radiusKm) {
+        List<Neighbor> result = new ArrayList<>();
+        if (radiusKm < 0) {
+            return result;
+        }
+
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lonDelta = lonDelta(latitude, latDelta);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+
+        lock.readLock().lock();
+        try {
+            int fromLat = Math.max(latCell(minLat), minLatCell);
+            int toLat = Math.min(latCell(maxLat), maxLatCell);
+            int fromLon = Math.max(lonCell(minLon), minLonCell);
+            int toLon = Math.min(lonCell(maxLon), maxLonCell);
+
+            for (int latCell = fromLat; latCell <= toLat; latCell++) {
+                for (int lonCell = fromLon; lonCell <= toLon; lonCell++) {
+                    List<Long> cell = unitIdsByCell.get(cellKey(latCell, lonCell));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Long unitId : cell) {
+                        double[] point = coordinatesByUnitId.get(unitId);
+                        // Bounding-box test first; haversine only for points that pass it
+                        if (point[0] < minLat || point[0] > maxLat || point[1] < minLon || point[1] > maxLon) {
+                            continue;
+                        }
+                        double distance = GeoUtils.distanceInKm(latitude, longitude, point[0], point[1]);
+                        if (distance <= radiusKm) {
+                            result.add(new Neighbor(unitId, distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * The k units closest to (latitude, longitude), nearest first. When maxRadiusKm is
+     * not null, units further away than that are left out.
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, int k, Double maxRadiusKm) {
+        List<Neighbor> result = new ArrayList<>();
+        if (k <= 0) {
+            return result;
+        }
+        double limit = maxRadiusKm != null ? maxRadiusKm : Double.MAX_VALUE;
+
+        // Max-heap on distance holding the best k seen so far
+        PriorityQueue<Neighbor> best = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::getDistanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            if (coordinatesByUnitId.isEmpty()) {
+                return result;
+            }
+            int centerLat = latCell(latitude);
+            int centerLon = lonCell(longitude);
+            int maxRing = Math.max(
+                    Math.max(Math.abs(centerLat - minLatCell), Math.abs(maxLatCell - centerLat)),
+                    Math.max(Math.abs(centerLon - minLonCell), Math.abs(maxLonCell - centerLon)));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int latCell = centerLat - ring; latCell <= centerLat + ring; latCell++) {
+                    boolean edgeRow = latCell == centerLat - ring || latCell == centerLat + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int lonCell = centerLon - ring; lonCell <= centerLon + ring; lonCell += Math.max(step, 1)) {
+                        List<Long> cell = unitIdsByCell.get(cellKey(latCell, lonCell));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (Long unitId : cell) {
+                            double[] point = coordinatesByUnitId.get(unitId);
+                            double distance = GeoUtils.distanceInKm(latitude, longitude, point[0], point[1]);
+                            if (distance > limit) {
+                                continue;
+                            }
+                            if (best.size() < k) {
+                                best.add(new Neighbor(unitId, distance));
+                            } else if (distance < best.peek().getDistanceKm()) {
+                                best.poll();
+                                best.add(new Neighbor(unitId, distance));
+                            }
+                        }
+                    }
+                }
+
+                // Anything in a further ring is at least this far away
+                double nextRingKm = distanceToRingBoundary(latitude, longitude, centerLat, centerLon, ring);
+                if (nextRingKm > limit) {
+                    break;
+                }
+                if (best.size() == k && best.peek().getDistanceKm() <= nextRingKm) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        result.addAll(best);
+        result.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+        return result;
+    }
+
+    // ===== GRID HELPERS =====
+
+    // Lower bound on the distance from the centre to any point outside the (2*ring+1)^2 block of cells
+    private static double distanceToRingBoundary(double latitude, double longitude, int centerLat, int centerLon, int ring) {
+        double southEdge = (centerLat - ring) * CELL_DEGREES;
+        double northEdge = (centerLat + ring + 1) * CELL_DEGREES;
+        double westEdge = (centerLon - ring) * CELL_DEGREES;
+        double eastEdge = (centerLon + ring + 1) * CELL_DEGREES;
+
+        double latKm = Math.min(latitude - southEdge, northEdge - latitude) * KM_PER_DEGREE;
+        double widestLat = Math.min(90, Math.max(Math.abs(southEdge), Math.abs(northEdge)));
+        double lonKm = Math.min(longitude - westEdge, eastEdge - longitude) * KM_PER_DEGREE
+                * Math.cos(Math.toRadians(widestLat));
+        return Math.min(latKm, lonKm);
+    }
+
+    // Longitude half-width of the bounding box, widened for the latitude furthest from the equator
+    private static double lonDelta(double latitude, double latDelta) {
+        double widestLat = Math.abs(latitude) + latDelta;
+        if (widestLat >= 90) {
+            return 180;
+        }
+        return Math.min(180, latDelta / Math.cos(Math.toRadians(widestLat)));
+    }
+
+    private static int latCell(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int lonCell(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    /**
+     * A unit id with its distance from the query point.
+     */
+    public static class Neighbor {
+        private final Long unitId;
+        private final double distanceKm;
+
+        public Neighbor(Long unitId, double distanceKm) {
+            this.unitId = unitId;
+            this.distanceKm = distanceKm;
+        }
+
+        public Long getUnitId() {
+            return unitId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
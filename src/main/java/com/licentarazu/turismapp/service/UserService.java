@@ -2,6 +2,7 @@ package com.licentarazu.turismapp.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +21,7 @@ import com.licentarazu.turismapp.repository.BookingRepository;
 import com.licentarazu.turismapp.repository.ConfirmationTokenRepository;
 import com.licentarazu.turismapp.repository.OwnerApplicationRepository;
 import com.licentarazu.turismapp.repository.PasswordResetTokenRepository;
+import com.licentarazu.turismapp.repository.ReviewRepository;
 import com.licentarazu.turismapp.repository.UserRepository;
 
 @Service
@@ -34,6 +36,11 @@ public class UserService {
     private final OwnerApplicationRepository ownerApplicationRepository;
     private final ConfirmationTokenRepository confirmationTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final CatalogIndexService catalogIndex;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final SpatialIndexService spatialIndex;
+    private final ReviewService reviewService;
+    private final ReviewRepository reviewRepository;
 
     @Autowired
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
@@ -41,7 +48,12 @@ public class UserService {
                       BookingRepository bookingRepository,
                       OwnerApplicationRepository ownerApplicationRepository,
                       ConfirmationTokenRepository confirmationTokenRepository,
-                      PasswordResetTokenRepository passwordResetTokenRepository) {
+                      PasswordResetTokenRepository passwordResetTokenRepository,
+                      CatalogIndexService catalogIndex,
+                      AvailabilityCalendar availabilityCalendar,
+                      SpatialIndexService spatialIndex,
+                      ReviewService reviewService,
+                      ReviewRepository reviewRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder; // TODO: Now using injected PasswordEncoder from SecurityConfig
         this.accommodationUnitRepository = accommodationUnitRepository;
@@ -49,6 +61,11 @@ public class UserService {
         this.ownerApplicationRepository = ownerApplicationRepository;
         this.confirmationTokenRepository = confirmationTokenRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.catalogIndex = catalogIndex;
+        this.availabilityCalendar = availabilityCalendar;
+        this.spatialIndex = spatialIndex;
+        this.reviewService = reviewService;
+        this.reviewRepository = reviewRepository;
     }
 
     // Obține toți utilizatorii
@@ -56,6 +73,11 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    // Toți utilizatorii ca Stream (se consumă într-o tranzacție, vezi JsonStreamingService)
+    public Stream<User> streamAllUsers() {
+        return userRepository.streamAll();
+    }
+
     // Înregistrează un utilizator nou (cu parolă hashuită)
     public User registerUser(User user) {
         Optional<User> existingUser = userRepository.findByEmail(user.getEmail());
@@ -132,6 +154,8 @@ public class UserService {
             List<Booking> userBookings = bookingRepository.findByGuestEmail(user.getEmail());
             if (!userBookings.isEmpty()) {
                 bookingRepository.deleteAll(userBookings);
+                userBookings.forEach(booking -> availabilityCalendar.refreshUnit(booking.getAccommodationUnit().getId(),
+                        booking.getCheckInDate(), booking.getCheckOutDate()));
                 logger.info("✅ Deleted {} bookings made by user as guest", userBookings.size());
             } else {
                 logger.info("ℹ️ No guest bookings found");
@@ -144,6 +168,9 @@ public class UserService {
             logger.info("Found {} accommodation units to delete", userUnits.size());
             if (!userUnits.isEmpty()) {
                 accommodationUnitRepository.deleteAll(userUnits);
+                catalogIndex.removeAll(userUnits);
+                spatialIndex.removeAll(userUnits);
+                userUnits.forEach(unit -> availabilityCalendar.removeUnit(unit.getId()));
                 logger.info("✅ Deleted {} accommodation units", userUnits.size());
             }
             
@@ -172,7 +199,9 @@ public class UserService {
             logger.info("✅ Deleted password reset tokens");
             
             // 6. Finally delete the user
-            // This will cascade delete: reviews written by the user (due to CascadeType.ALL in User entity)
+            // This will cascade delete: reviews written by the user (due to CascadeType.ALL in User entity),
+            // so take them out of the rating aggregates of the units they were written for first
+            reviewService.subtractFromRatings(reviewRepository.findByUser(user));
             logger.info("👤 Deleting user account...");
             userRepository.delete(user);
             logger.info("✅ USER ACCOUNT DELETED SUCCESSFULLY: {}", email);
@@ -0,0 +1,91 @@
+package com.licentarazu.turismapp.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A text template with {{name}} slots, split once into literal fragments and slot indices.
+ *
+ * Rendering only appends fragments and values into a buffer of the right size: no parsing,
+ * no format specifiers. Values are passed in the order the names first appear in the
+ * template; a name used twice is filled from the same value.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;   // literals[i] precedes slot i; the last one ends the text
+    private final int[] slots;         // value index of each slot
+    private final List<String> placeholders;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, int[] slots, List<String> placeholders) {
+        this.literals = literals;
+        this.slots = slots;
+        this.placeholders = Collections.unmodifiableList(placeholders);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+            int index = placeholders.indexOf(name);
+            if (index < 0) {
+                index = placeholders.size();
+                placeholders.add(name);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(index);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(), placeholders);
+    }
+
+    /**
+     * Fill the slots; values[i] replaces placeholders().get(i) (null renders as "null",
+     * like String.format).
+     */
+    public String render(Object... values) {
+        if (values.length != placeholders.size()) {
+            throw new IllegalArgumentException("Template expects " + placeholders.size() + " values "
+                    + placeholders + ", got " + values.length);
+        }
+        String[] text = new String[values.length];
+        int length = literalLength;
+        for (int i = 0; i < values.length; i++) {
+            text[i] = String.valueOf(values[i]);
+        }
+        for (int slot : slots) {
+            length += text[slot].length();
+        }
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(text[slots[i]]);
+        }
+        return out.append(literals[slots.length]).toString();
+    }
+
+    public List<String> placeholders() {
+        return placeholders;
+    }
+}
@@ -0,0 +1,45 @@
+package com.licentarazu.turismapp.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // Lowercase and strip diacritics: "Brașov" / "Braşov" / "BRASOV" -> "brasov"
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    // Comparable form of an address: "  Str. Ștefan cel Mare, nr.5 " -> "str stefan cel mare nr 5".
+    // Punctuation becomes a word break and whitespace runs collapse; null for a blank location
+    public static String normalizeLocation(String location) {
+        List<String> words = tokenize(location);
+        return words.isEmpty() ? null : String.join(" ", words);
+    }
+
+    // Folded words of the text; anything that is not a letter or digit separates words
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,124 @@
+package com.licentarazu.turismapp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing between two local databases standing in for the primary and the replica: each
+ * holds a single row naming itself, so a query shows which pool served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReadReplicaMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        monitor = new ReadReplicaMonitor(replica, 5, 60_000, 100);
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, monitor));
+
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        monitor.recordProbe(0L, true);
+
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    void replicaIsBypassedUntilItIsKnownToBeHealthy() {
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        monitor.recordProbe(60L, true);
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        monitor.recordProbe(null, true);
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        // Standalone second instance: nothing to measure, usable
+        monitor.recordProbe(null, false);
+        assertEquals("replica", readOnly.execute(status -> node()));
+
+        assertEquals(3L, monitor.stats().get("lagFallbackReads"));
+        assertEquals(60L, monitor.stats().get("maxObservedLagSeconds"));
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        monitor.recordProbe(0L, true);
+
+        signIn("owner@test.ro");
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO node (name) VALUES ('written')"));
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        signIn("guest@test.ro");
+        assertEquals("replica", readOnly.execute(status -> node()));
+
+        SecurityContextHolder.clearContext();
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPin() {
+        monitor.recordProbe(0L, true);
+
+        signIn("owner@test.ro");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO node (name) VALUES ('discarded')");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals(0L, monitor.stats().get("pinnedWrites"));
+    }
+
+    // ===== HELPERS =====
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node ORDER BY name LIMIT 1", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE node (name VARCHAR(20))");
+        setup.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
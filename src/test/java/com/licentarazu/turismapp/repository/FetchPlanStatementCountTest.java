@@ -0,0 +1,184 @@
+package com.licentarazu.turismapp.repository;
+
+import com.licentarazu.turismapp.dto.AccommodationUnitWithPhotosDTO;
+import com.licentarazu.turismapp.dto.BookingResponseDTO;
+import com.licentarazu.turismapp.model.*;
+import com.licentarazu.turismapp.service.BookingService;
+import com.licentarazu.turismapp.util.AccommodationUnitMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every list read path must issue the same number of SQL statements for 3 rows as for 30:
+ * entity graphs join the to-one associations, batch fetching loads the collections.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class FetchPlanStatementCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccommodationUnitRepository unitRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void unitCardListIsConstant() {
+        assertConstant(() -> AccommodationUnitMapper.toDTOList(unitRepository.findAllActiveUnits()).size());
+    }
+
+    @Test
+    void filteredUnitListIsConstant() {
+        assertConstant(() -> {
+            List<AccommodationUnit> units = unitRepository.findByFiltersWithRating(
+                    "", 0.0, 10_000.0, 1, 10, "", 0.0, 0L);
+            return AccommodationUnitMapper.toDTOList(units).size();
+        });
+    }
+
+    @Test
+    void ownerDashboardIsConstant() {
+        assertConstant(() -> {
+            User owner = entityManager.getEntityManager()
+                    .createQuery("SELECT u FROM User u WHERE u.email = 'owner@test.ro'", User.class)
+                    .getSingleResult();
+            return AccommodationUnitMapper.toDTOList(unitRepository.findByOwner(owner)).size();
+        });
+    }
+
+    @Test
+    void guestBookingListIsConstant() {
+        BookingService bookingService = new BookingService(bookingRepository, null, null, null, null);
+        assertConstant(() -> {
+            List<BookingResponseDTO> bookings = bookingService.getUserBookingsAsDTO("guest@test.ro");
+            return bookings.size();
+        });
+    }
+
+    @Test
+    void allBookingsListIsConstant() {
+        assertConstant(() -> {
+            List<Booking> bookings = bookingRepository.findAll();
+            bookings.forEach(b -> b.getAccommodationUnit().getOwner().getEmail());
+            return bookings.size();
+        });
+    }
+
+    @Test
+    void unitDetailIsOneStatement() {
+        Long id = seed(1).get(0);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        AccommodationUnit unit = unitRepository.findDetailById(id).orElseThrow();
+        new AccommodationUnitWithPhotosDTO(unit, List.of());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ===== HELPERS =====
+
+    private void assertConstant(Supplier<Integer> readPath) {
+        seed(FEW);
+        long few = countStatements(readPath, FEW);
+
+        seed(MANY - FEW);
+        long many = countStatements(readPath, MANY);
+
+        assertEquals(few, many, "statement count grew with the number of rows");
+    }
+
+    private long countStatements(Supplier<Integer> readPath, int expectedRows) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        int rows = readPath.get();
+
+        assertTrue(rows >= expectedRows, "expected at least " + expectedRows + " rows, got " + rows);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // n units of one owner, each with images, amenities, a photo and two bookings of one guest
+    private List<Long> seed(int n) {
+        User owner = findOrCreateOwner();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            AccommodationUnit unit = new AccommodationUnit();
+            unit.setName("Unit " + i);
+            unit.setLocation("Strada Test " + System.nanoTime());
+            unit.setCounty("Brașov");
+            unit.setPricePerNight(100.0 + i);
+            unit.setCapacity(2);
+            unit.setType("Cabană");
+            unit.setCreatedAt(LocalDate.now());
+            unit.setOwner(owner);
+            unit.setImages(new ArrayList<>(List.of("a.jpg", "b.jpg")));
+            unit.setAmenities(new ArrayList<>(List.of("WiFi", "Parcare")));
+            entityManager.persist(unit);
+
+            entityManager.persist(new AccommodationPhoto(unit.getId(), "photo-" + unit.getId() + ".jpg"));
+
+            for (int b = 0; b < 2; b++) {
+                Booking booking = new Booking();
+                booking.setAccommodationUnit(unit);
+                booking.setCheckInDate(LocalDate.now().plusDays(10L * b + 1));
+                booking.setCheckOutDate(LocalDate.now().plusDays(10L * b + 3));
+                booking.setGuestName("Guest");
+                booking.setGuestEmail("guest@test.ro");
+                booking.setTotalPrice(200.0);
+                entityManager.persist(booking);
+            }
+            ids.add(unit.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private User findOrCreateOwner() {
+        List<User> owners = entityManager.getEntityManager()
+                .createQuery("SELECT u FROM User u WHERE u.email = 'owner@test.ro'", User.class)
+                .getResultList();
+        if (!owners.isEmpty()) {
+            return owners.get(0);
+        }
+        User owner = new User();
+        owner.setFirstName("Ion");
+        owner.setLastName("Popescu");
+        owner.setEmail("owner@test.ro");
+        owner.setPassword("secret");
+        owner.setEnabled(true);
+        owner.setRole(Role.OWNER);
+        return entityManager.persist(owner);
+    }
+}
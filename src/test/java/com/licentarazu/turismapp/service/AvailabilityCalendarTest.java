@@ -0,0 +1,134 @@
+package com.licentarazu.turismapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Word-level bit operations behind the availability calendar, around the 64-night word
+ * edges and the window edges.
+ */
+class AvailabilityCalendarTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void rangeInsideOneWord() {
+        long[] bits = new long[3];
+        AvailabilityCalendar.setRange(bits, 3, 6);
+
+        assertEquals(0b111000L, bits[0]);
+        assertFalse(AvailabilityCalendar.anySet(bits, 0, 3));
+        assertTrue(AvailabilityCalendar.anySet(bits, 5, 6));
+        assertFalse(AvailabilityCalendar.anySet(bits, 6, 192));
+    }
+
+    @Test
+    void rangeCrossingWordBoundary() {
+        long[] bits = new long[3];
+        AvailabilityCalendar.setRange(bits, 62, 66);
+
+        assertEquals(0b11L << 62, bits[0]);
+        assertEquals(0b11L, bits[1]);
+        assertTrue(AvailabilityCalendar.isSet(bits, 63));
+        assertTrue(AvailabilityCalendar.isSet(bits, 64));
+        assertFalse(AvailabilityCalendar.isSet(bits, 66));
+        assertFalse(AvailabilityCalendar.anySet(bits, 0, 62));
+        assertFalse(AvailabilityCalendar.anySet(bits, 66, 192));
+        assertTrue(AvailabilityCalendar.anySet(bits, 60, 63));
+        assertTrue(AvailabilityCalendar.anySet(bits, 65, 70));
+    }
+
+    @Test
+    void rangeEndingExactlyOnWordBoundary() {
+        long[] bits = new long[3];
+        AvailabilityCalendar.setRange(bits, 60, 64);
+
+        assertEquals(0xFL << 60, bits[0]);
+        assertEquals(0L, bits[1]);
+        assertFalse(AvailabilityCalendar.anySet(bits, 64, 128));
+        assertTrue(AvailabilityCalendar.anySet(bits, 63, 64));
+        assertTrue(AvailabilityCalendar.anySet(bits, 0, 64));
+    }
+
+    @Test
+    void rangeSpanningWholeWords() {
+        long[] bits = new long[4];
+        AvailabilityCalendar.setRange(bits, 64, 192);
+
+        assertEquals(0L, bits[0]);
+        assertEquals(-1L, bits[1]);
+        assertEquals(-1L, bits[2]);
+        assertEquals(0L, bits[3]);
+        assertTrue(AvailabilityCalendar.anySet(bits, 0, 65));
+        assertFalse(AvailabilityCalendar.anySet(bits, 192, 256));
+        // Only the middle words are set: the loop over inner words must find them
+        assertTrue(AvailabilityCalendar.anySet(bits, 10, 250));
+    }
+
+    @Test
+    void emptyAndShortBitmaps() {
+        assertFalse(AvailabilityCalendar.anySet(new long[0], 0, 100));
+        assertFalse(AvailabilityCalendar.anySet(new long[1], 5, 5));
+        assertFalse(AvailabilityCalendar.isSet(new long[1], 64));
+
+        long[] bits = new long[1];
+        AvailabilityCalendar.setRange(bits, 63, 64);
+        // Query past the end of the array
+        assertTrue(AvailabilityCalendar.anySet(bits, 63, 200));
+        assertFalse(AvailabilityCalendar.anySet(bits, 64, 200));
+    }
+
+    @Test
+    void staysAreClippedToTheWindow() {
+        AvailabilityCalendar.Window window = new AvailabilityCalendar.Window(START, START.plusDays(100));
+        long[] bits = new long[window.words];
+
+        // Starts before the window: nights from the window start are set
+        assertTrue(window.setStay(bits, START.minusDays(2), START.plusDays(1)));
+        // Ends after the window: nights up to the window end are set
+        assertTrue(window.setStay(bits, START.plusDays(98), START.plusDays(105)));
+        // Entirely outside
+        assertFalse(window.setStay(bits, START.minusDays(10), START));
+        assertFalse(window.setStay(bits, START.plusDays(100), START.plusDays(102)));
+
+        assertEquals(List.of(0, 1, 97, 2, 28), AvailabilityCalendar.encodeRuns(bits, 0, 128));
+    }
+
+    @Test
+    void markOutsideWindowLeavesUnitFree() {
+        AvailabilityCalendar.Window window = new AvailabilityCalendar.Window(START, START.plusDays(100));
+
+        window.mark(1L, START.minusDays(5), START);
+        assertNull(window.bookedNights.get(1L));
+
+        window.mark(1L, START.plusDays(63), START.plusDays(65));
+        long[] first = window.bookedNights.get(1L);
+        window.mark(1L, START.plusDays(2), START.plusDays(3));
+
+        // Copy-on-write: the array a reader already holds is not changed
+        assertNotSame(first, window.bookedNights.get(1L));
+        assertFalse(AvailabilityCalendar.isSet(first, 2));
+        assertEquals(List.of(2, 1, 60, 2, 35),
+                AvailabilityCalendar.encodeRuns(window.bookedNights.get(1L), 0, 100));
+    }
+
+    @Test
+    void runLengthEncoding() {
+        long[] bits = new long[2];
+        AvailabilityCalendar.setRange(bits, 0, 2);
+        AvailabilityCalendar.setRange(bits, 64, 66);
+
+        // Starts booked: the leading free run is empty
+        assertEquals(List.of(0, 2, 62, 2, 4), AvailabilityCalendar.encodeRuns(bits, 0, 70));
+        // Offset into the bitmap, ending inside a booked run
+        assertEquals(List.of(2, 1), AvailabilityCalendar.encodeRuns(bits, 62, 3));
+        // Nothing booked
+        assertEquals(List.of(10), AvailabilityCalendar.encodeRuns(new long[0], 0, 10));
+        // Empty range
+        assertEquals(List.of(0), AvailabilityCalendar.encodeRuns(bits, 0, 0));
+    }
+}
@@ -0,0 +1,216 @@
+package com.licentarazu.turismapp.service;
+
+import com.licentarazu.turismapp.exception.ReservationConflictException;
+import com.licentarazu.turismapp.model.*;
+import com.licentarazu.turismapp.repository.AccommodationUnitRepository;
+import com.licentarazu.turismapp.repository.BookingRepository;
+import com.licentarazu.turismapp.repository.ReservationRepository;
+import com.licentarazu.turismapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Booking and reservation admission share one rule: CONFIRMED/PENDING bookings and
+ * CONFIRMED/PENDING reservations block, over [checkIn, checkOut). Confirming a reservation
+ * re-checks it against everything but itself.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class BookingAdmissionTest {
+
+    private static final LocalDate IN = LocalDate.now().plusDays(10);
+    private static final LocalDate OUT = IN.plusDays(3);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccommodationUnitRepository unitRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingService bookingService;
+    private ReservationService reservationService;
+    private AccommodationUnit unit;
+    private User guest;
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityService availabilityService = new AvailabilityService(unitRepository, null);
+        UnitLockService unitLocks = new UnitLockService(unitRepository, transactionManager, 16, 1000);
+        AvailabilityCalendar calendar = mock(AvailabilityCalendar.class);
+
+        bookingService = new BookingService(bookingRepository, mock(EmailService.class), calendar,
+                unitLocks, availabilityService);
+
+        reservationService = new ReservationService();
+        ReflectionTestUtils.setField(reservationService, "reservationRepository", reservationRepository);
+        ReflectionTestUtils.setField(reservationService, "unitRepository", unitRepository);
+        ReflectionTestUtils.setField(reservationService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(reservationService, "availabilityCalendar", calendar);
+        ReflectionTestUtils.setField(reservationService, "unitLocks", unitLocks);
+        ReflectionTestUtils.setField(reservationService, "availabilityService", availabilityService);
+
+        User owner = user("owner@test.ro", Role.OWNER);
+        guest = user("guest@test.ro", Role.GUEST);
+
+        unit = new AccommodationUnit();
+        unit.setName("Cabana Bradul");
+        unit.setLocation("Strada Test 1");
+        unit.setCounty("Brașov");
+        unit.setPricePerNight(100.0);
+        unit.setCapacity(2);
+        unit.setType("Cabană");
+        unit.setCreatedAt(LocalDate.now());
+        unit.setOwner(owner);
+        entityManager.persist(unit);
+        entityManager.flush();
+    }
+
+    @Test
+    void bookingOverlappingConfirmedReservationIsRejected() {
+        reservation(IN.plusDays(1), OUT.plusDays(1), ReservationStatus.CONFIRMED);
+
+        assertFalse(bookingService.createBooking(booking(IN, OUT)));
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void bookingOverPendingReservationIsRejected() {
+        reservation(IN, OUT, ReservationStatus.PENDING);
+
+        assertFalse(bookingService.createBooking(booking(IN, OUT)));
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void nightsOfCancelledBookingCanBeBookedAgain() {
+        Booking cancelled = booking(IN, OUT);
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        entityManager.persist(cancelled);
+        entityManager.flush();
+
+        assertTrue(bookingService.createBooking(booking(IN, OUT)));
+    }
+
+    @Test
+    void bookingStartingOnAnotherCheckOutIsAdmitted() {
+        entityManager.persist(booking(IN, OUT));
+        entityManager.flush();
+
+        assertTrue(bookingService.createBooking(booking(OUT, OUT.plusDays(2))));
+        assertFalse(bookingService.createBooking(booking(OUT.minusDays(1), OUT.plusDays(1))));
+    }
+
+    @Test
+    void reservationOverlappingPendingBookingIsRejected() {
+        entityManager.persist(booking(IN, OUT));
+        entityManager.flush();
+
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.createReservation(newReservation(IN.plusDays(2), OUT.plusDays(2))));
+    }
+
+    @Test
+    void secondOverlappingReservationIsRejected() {
+        assertNotNull(reservationService.createReservation(newReservation(IN, OUT)));
+
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.createReservation(newReservation(IN.plusDays(1), OUT.plusDays(1))));
+        assertEquals(1, reservationRepository.count());
+    }
+
+    @Test
+    void confirmingOverlappingReservationIsRejected() {
+        // Both pending nights were admitted before PENDING reservations counted as taken
+        reservation(IN, OUT, ReservationStatus.CONFIRMED);
+        Reservation overlapping = reservation(IN.plusDays(1), OUT.plusDays(1), ReservationStatus.PENDING);
+
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.updateStatus(overlapping.getId(), ReservationStatus.CONFIRMED));
+        assertEquals(ReservationStatus.PENDING,
+                reservationRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void confirmingReservationDoesNotConflictWithItself() {
+        Reservation pending = reservationService.createReservation(newReservation(IN, OUT));
+
+        Reservation confirmed = reservationService.updateStatus(pending.getId(), ReservationStatus.CONFIRMED).orElseThrow();
+        assertEquals(ReservationStatus.CONFIRMED, confirmed.getStatus());
+    }
+
+    @Test
+    void reservationAdjacentToConfirmedReservationIsAdmitted() {
+        reservation(IN, OUT, ReservationStatus.CONFIRMED);
+
+        assertNotNull(reservationService.createReservation(newReservation(OUT, OUT.plusDays(2))));
+        assertNotNull(reservationService.createReservation(newReservation(IN.minusDays(2), IN)));
+    }
+
+    // ===== HELPERS =====
+
+    private Booking booking(LocalDate checkIn, LocalDate checkOut) {
+        Booking booking = new Booking();
+        booking.setAccommodationUnit(unit);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestName("Guest");
+        booking.setGuestEmail("guest@test.ro");
+        booking.setTotalPrice(300.0);
+        return booking;
+    }
+
+    private Reservation reservation(LocalDate start, LocalDate end, ReservationStatus status) {
+        Reservation reservation = newReservation(start, end);
+        reservation.setStatus(status);
+        entityManager.persist(reservation);
+        entityManager.flush();
+        return reservation;
+    }
+
+    private Reservation newReservation(LocalDate start, LocalDate end) {
+        Reservation reservation = new Reservation();
+        reservation.setUnit(unit);
+        reservation.setUser(guest);
+        reservation.setStartDate(start);
+        reservation.setEndDate(end);
+        reservation.setNumberOfGuests(2);
+        return reservation;
+    }
+
+    private User user(String email, Role role) {
+        User user = new User();
+        user.setFirstName("Ion");
+        user.setLastName("Popescu");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setEnabled(true);
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,136 @@
+package com.licentarazu.turismapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerServiceTest {
+
+    private static final String TSV = String.join("\n",
+            "# name\tcounty\tkind\tlatitude\tlongitude",
+            "București\tBucurești\tCAPITALA\t44.4268\t26.1025",
+            "Brașov\tBrașov\tJUDET\t45.6579\t25.6012",
+            "Cluj\tCluj\tJUDET\t46.7712\t23.6236",
+            "Prahova\tPrahova\tJUDET\t44.9364\t26.0134",
+            "",
+            "Brașov\tBrașov\tRESEDINTA\t45.6579\t25.6012",
+            "Brăila\tBrăila\tRESEDINTA\t45.2692\t27.9575",
+            "Cluj-Napoca\tCluj\tRESEDINTA\t46.7712\t23.6236",
+            "Sinaia\tPrahova\tORAS\t45.3500\t25.5500",
+            "Bran\tBrașov\tCOMUNA\t45.5150\t25.3672",
+            "Poiana\tBrașov\tSAT\t45.6000\t25.5000",
+            "Poiana\tPrahova\tSAT\t45.0500\t25.9500");
+
+    private final GazetteerService gazetteer = gazetteer(TSV);
+
+    // ===== RESOLVE / SUGGEST =====
+
+    @Test
+    void namesMatchWithoutDiacriticsCaseOrPunctuation() {
+        GazetteerService.Locality brasov = gazetteer.resolve("brasov");
+        assertEquals("Brașov", brasov.getName());
+        assertEquals(GazetteerService.Kind.RESEDINTA, brasov.getKind());
+
+        assertEquals("Cluj-Napoca", gazetteer.resolve("CLUJ NAPOCA").getName());
+        assertEquals("Brăila", gazetteer.resolve("Braila").getName());
+    }
+
+    @Test
+    void resolveAcceptsOneTypo() {
+        assertEquals("Sinaia", gazetteer.resolve("sinaai").getName());   // swapped pair
+        assertEquals("Brașov", gazetteer.resolve("barsov").getName());   // swapped pair
+        assertEquals("Sinaia", gazetteer.resolve("sinaja").getName());   // substitution
+        assertNull(gazetteer.resolve("sniaai"));
+    }
+
+    @Test
+    void shortKeysAreNotMatchedFuzzily() {
+        assertNull(gazetteer.resolve("br"));
+        assertTrue(gazetteer.suggest("cj", 5).isEmpty());
+        assertEquals("Bran", gazetteer.resolve("brn").getName());
+    }
+
+    @Test
+    void suggestRanksByKindThenLength() {
+        List<GazetteerService.Locality> suggestions = gazetteer.suggest("bra", 10);
+
+        // Prefix hits first, then names one typo away ("pra")
+        assertEquals(List.of("Brăila", "Brașov", "Brașov", "Bran", "Prahova"),
+                suggestions.stream().map(GazetteerService.Locality::getName).toList());
+        assertEquals(GazetteerService.Kind.JUDET, suggestions.get(2).getKind());
+        assertEquals(2, gazetteer.suggest("bra", 2).size());
+    }
+
+    @Test
+    void suggestFoldsDiacriticsInTheQuery() {
+        assertEquals("Brașov", gazetteer.suggest("Brașo", 5).get(0).getName());
+    }
+
+    @Test
+    void suggestCompletesATypoInThePrefix() {
+        List<GazetteerService.Locality> suggestions = gazetteer.suggest("clj", 5);
+
+        assertEquals("Cluj-Napoca", suggestions.get(0).getName());
+        assertEquals("Cluj", suggestions.get(1).getName());
+    }
+
+    // ===== GEOCODE =====
+
+    @Test
+    void geocodeUsesTheLastCommaSeparatedPartFirst() {
+        assertArrayEquals(new double[]{45.35, 25.55},
+                gazetteer.geocode("Str. Principală 12, Sinaia", "Prahova"), 1e-9);
+    }
+
+    @Test
+    void geocodePrefersTheLocalityInTheUnitsCounty() {
+        assertArrayEquals(new double[]{45.05, 25.95}, gazetteer.geocode("Str. Mare 3, Poiana", "Prahova"), 1e-9);
+        assertArrayEquals(new double[]{45.60, 25.50}, gazetteer.geocode("Str. Mare 3, Poiana", "Brașov"), 1e-9);
+        // Without a county, the best-ranked one
+        assertArrayEquals(new double[]{45.60, 25.50}, gazetteer.geocode("Str. Mare 3, Poiana", null), 1e-9);
+    }
+
+    @Test
+    void geocodeFindsALocalityInsideTheAddressOnlyInItsCounty() {
+        assertArrayEquals(new double[]{45.35, 25.55},
+                gazetteer.geocode("Strada Principală 5 Sinaia", "Prahova"), 1e-9);
+        // The word run matches a locality of another county: the county itself is used
+        assertArrayEquals(new double[]{46.7712, 23.6236},
+                gazetteer.geocode("Strada Principală 5 Sinaia", "Cluj"), 1e-9);
+        // No county to confirm the word run
+        assertNull(gazetteer.geocode("Strada Principală 5 Sinaia", null));
+    }
+
+    @Test
+    void geocodeFallsBackToTheCounty() {
+        assertArrayEquals(new double[]{45.6579, 25.6012}, gazetteer.geocode("Strada Necunoscută 1", "brasov"), 1e-9);
+        assertArrayEquals(new double[]{44.9364, 26.0134}, gazetteer.geocode(null, "Prahova"), 1e-9);
+        assertNull(gazetteer.geocode("Strada Necunoscută 1", "Atlantida"));
+    }
+
+    // ===== LOADING =====
+
+    @Test
+    void commentsAndBlankLinesAreSkipped() {
+        assertEquals(11, gazetteer.size());
+    }
+
+    @Test
+    void malformedLineIsReportedWithItsNumber() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> gazetteer("Sinaia\tPrahova\tORAS\t45.35\t25.55\nBran\tBrașov\tCOMUNA\t45.51"));
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+
+    private static GazetteerService gazetteer(String tsv) {
+        try {
+            return new GazetteerService(GazetteerService.read(new StringReader(tsv), "test"));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.licentarazu.turismapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private static final byte[] BODY = "{\"accommodationUnitId\":1}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void completedResponseIsReplayed() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(100, 60_000, 1024);
+
+        IdempotencyStore.Claim first = store.claim("guest@test.ro|/api/bookings|k1", BODY);
+        assertTrue(first.isOwner());
+        store.complete(first, response(200, "{\"id\":7}"));
+
+        IdempotencyStore.Claim retry = store.claim("guest@test.ro|/api/bookings|k1", BODY);
+        assertFalse(retry.isOwner());
+        assertFalse(retry.isMismatch());
+        assertEquals("{\"id\":7}", new String(retry.getResponse().get().getBody(), StandardCharsets.UTF_8));
+        assertEquals(1L, store.stats().get("replays"));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstRequest() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(100, 60_000, 1024);
+        IdempotencyStore.Claim first = store.claim("k", BODY);
+
+        IdempotencyStore.Claim duplicate = store.claim("k", BODY);
+        CompletableFuture<IdempotencyStore.StoredResponse> waiting = duplicate.getResponse();
+        assertFalse(waiting.isDone());
+
+        store.complete(first, response(201, "created"));
+        assertEquals(201, waiting.get(1, TimeUnit.SECONDS).getStatus());
+        assertEquals(1L, store.stats().get("waits"));
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyIsAMismatch() {
+        IdempotencyStore store = new IdempotencyStore(100, 60_000, 1024);
+        store.complete(store.claim("k", BODY), response(200, "ok"));
+
+        IdempotencyStore.Claim other = store.claim("k", "{\"accommodationUnitId\":2}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(other.isMismatch());
+    }
+
+    @Test
+    void releasedKeyRunsAgainAndWakesWaiters() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(100, 60_000, 1024);
+        IdempotencyStore.Claim first = store.claim("k", BODY);
+        IdempotencyStore.Claim duplicate = store.claim("k", BODY);
+
+        store.release(first);
+
+        assertNull(duplicate.getResponse().get(1, TimeUnit.SECONDS));
+        assertTrue(store.claim("k", BODY).isOwner());
+    }
+
+    @Test
+    void oversizedResponseIsNotKept() {
+        IdempotencyStore store = new IdempotencyStore(100, 60_000, 4);
+        assertFalse(store.complete(store.claim("k", BODY), response(200, "too long")));
+        assertTrue(store.claim("k", BODY).isOwner());
+    }
+
+    @Test
+    void oldestKeysAreEvictedBeyondTheBound() {
+        IdempotencyStore store = new IdempotencyStore(2, 60_000, 1024);
+        for (String key : new String[] {"a", "b", "c"}) {
+            store.complete(store.claim(key, BODY), response(200, key));
+        }
+
+        assertEquals(2, store.stats().get("size"));
+        assertTrue(store.claim("a", BODY).isOwner());
+        assertFalse(store.claim("c", BODY).isOwner());
+    }
+
+    @Test
+    void expiredKeysRunAgain() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(100, 20, 1024);
+        store.complete(store.claim("k", BODY), response(200, "ok"));
+
+        Thread.sleep(40);
+
+        assertTrue(store.claim("k", BODY).isOwner());
+    }
+
+    // Evicted while in flight: a duplicate that was already waiting still gets the response
+    @Test
+    void evictedInFlightClaimStillCompletesItsWaiters() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(1, 60_000, 1024);
+        IdempotencyStore.Claim first = store.claim("a", BODY);
+        IdempotencyStore.Claim duplicate = store.claim("a", BODY);
+        store.claim("b", BODY);
+
+        store.complete(first, response(200, "ok"));
+
+        assertEquals(200, duplicate.getResponse().get(1, TimeUnit.SECONDS).getStatus());
+        assertEquals(1, store.stats().get("size"));
+    }
+
+    private static IdempotencyStore.StoredResponse response(int status, String body) {
+        return new IdempotencyStore.StoredResponse(status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,101 @@
+package com.licentarazu.turismapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalityTrieTest {
+
+    // Ids are ranks: "sibiu" (0) is the best entry, "sibiel" (5) the worst
+    private static final List<String> KEYS = List.of("sibiu", "sinaia", "brad", "bran", "arad", "sibiel");
+
+    private final LocalityTrie trie = new LocalityTrie(KEYS);
+
+    @Test
+    void exactMatchesWholeKeysOnly() {
+        assertArrayEquals(new int[]{3}, trie.exact("bran"));
+        assertArrayEquals(new int[0], trie.exact("bra"));
+        assertArrayEquals(new int[0], trie.exact("brasov"));
+    }
+
+    @Test
+    void duplicateKeysKeepRankOrder() {
+        LocalityTrie duplicates = new LocalityTrie(List.of("sat nou", "sat nou", "sat"));
+
+        assertArrayEquals(new int[]{0, 1}, duplicates.exact("sat nou"));
+    }
+
+    @Test
+    void prefixReturnsSubtreeBestFirst() {
+        assertArrayEquals(new int[]{0, 1, 5}, trie.prefix("si"));
+        assertArrayEquals(new int[]{2, 3}, trie.prefix("bra"));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, trie.prefix(""));
+        assertArrayEquals(new int[0], trie.prefix("cluj"));
+    }
+
+    @Test
+    void prefixKeepsOnlyTheTopRanked() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < LocalityTrie.TOP_K + 10; i++) {
+            keys.add("sat " + (char) ('a' + i));
+        }
+        int[] top = new LocalityTrie(keys).prefix("sat");
+
+        assertEquals(LocalityTrie.TOP_K, top.length);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(i, top[i]);
+        }
+    }
+
+    @Test
+    void substitutionIsOneEdit() {
+        assertEquals(Map.of(0, 1), trie.fuzzy("sibiv", false));
+    }
+
+    @Test
+    void extraCharacterInKeyIsOneEdit() {
+        assertEquals(Map.of(0, 1), trie.fuzzy("sibbiu", false));
+        assertEquals(Map.of(0, 1), trie.fuzzy("sibiuu", false));
+    }
+
+    @Test
+    void missingCharacterInKeyIsOneEdit() {
+        assertEquals(Map.of(0, 1), trie.fuzzy("sbiu", false));
+        // Missing last character
+        assertEquals(Map.of(0, 1), trie.fuzzy("sibi", false));
+    }
+
+    @Test
+    void adjacentSwapIsOneEdit() {
+        assertEquals(Map.of(1, 1), trie.fuzzy("siniaa", false));
+        assertEquals(Map.of(4, 1), trie.fuzzy("arda", false));
+    }
+
+    @Test
+    void twoEditsDoNotMatch() {
+        assertTrue(trie.fuzzy("sbiv", false).isEmpty());
+        assertTrue(trie.fuzzy("isbiv", false).isEmpty());
+    }
+
+    @Test
+    void exactHitComesBeforeNeighboursOneEditAway() {
+        Map<Integer, Integer> matches = trie.fuzzy("brad", false);
+
+        assertEquals(List.of(2, 3, 4), new ArrayList<>(matches.keySet()));
+        assertEquals(0, matches.get(2));
+        assertEquals(1, matches.get(3));   // bran
+        assertEquals(1, matches.get(4));   // arad
+    }
+
+    @Test
+    void fuzzyPrefixMatchesTyposInTheTypedPart() {
+        // "sna" is one character short of "sina", a prefix of sinaia
+        assertEquals(List.of(1), new ArrayList<>(trie.fuzzy("sna", true).keySet()));
+        // "sinia" is "sinai" with the last two characters swapped
+        assertEquals(List.of(1), new ArrayList<>(trie.fuzzy("sinia", true).keySet()));
+    }
+}
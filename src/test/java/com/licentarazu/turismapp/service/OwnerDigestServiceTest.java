@@ -0,0 +1,246 @@
+package com.licentarazu.turismapp.service;
+
+import com.licentarazu.turismapp.model.Booking;
+import com.licentarazu.turismapp.model.EmailDigestMode;
+import com.licentarazu.turismapp.model.OwnerDigestEvent;
+import com.licentarazu.turismapp.model.User;
+import com.licentarazu.turismapp.repository.OwnerDigestEventRepository;
+import com.licentarazu.turismapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerDigestServiceTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @Mock
+    private OwnerDigestEventRepository digestEventRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EmailOutboxService emailOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OwnerDigestService digestService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (digestService != null) {
+            digestService.shutdown();
+        }
+    }
+
+    // ===== FULL BATCH =====
+
+    @Test
+    void fullBatchIsFlushedWithoutWaitingForThePeriod() {
+        digestService = service(3, 0);
+        User owner = owner(OWNER_ID, EmailDigestMode.DAILY);
+        List<OwnerDigestEvent> events = events(3);
+        when(digestEventRepository.countByOwnerId(OWNER_ID)).thenReturn(3L);
+        when(digestEventRepository.lockByOwnerId(OWNER_ID)).thenReturn(events);
+        when(userRepository.findById(OWNER_ID)).thenReturn(Optional.of(owner));
+
+        digestService.add(owner, booking(LocalDate.now().plusDays(10)), OwnerDigestEvent.BOOKING, "line");
+
+        ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(emailOutbox, timeout(1000)).enqueue(eq("OWNER_DIGEST"), message.capture());
+        verify(digestEventRepository, timeout(1000)).deleteAllInBatch(events);
+        assertEquals("owner@test.ro", message.getValue().getTo()[0]);
+        assertTrue(message.getValue().getSubject().contains("3 updates"));
+    }
+
+    @Test
+    void batchBelowMaxWaitsForTheScheduledFlush() {
+        digestService = service(3, 0);
+        User owner = owner(OWNER_ID, EmailDigestMode.DAILY);
+        when(digestEventRepository.countByOwnerId(OWNER_ID)).thenReturn(2L);
+
+        digestService.add(owner, booking(LocalDate.now().plusDays(10)), OwnerDigestEvent.BOOKING, "line");
+
+        verify(digestEventRepository).save(any(OwnerDigestEvent.class));
+        verify(digestEventRepository, after(200).never()).lockByOwnerId(anyLong());
+        verifyNoInteractions(emailOutbox);
+    }
+
+    // ===== PERIOD PER MODE =====
+
+    @Test
+    void dueDigestsFollowTheOwnersMode() {
+        digestService = service(20, 0);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> pending = new ArrayList<>();
+        pending.add(new Object[]{1L, now.minusMinutes(61)});   // HOURLY, due
+        pending.add(new Object[]{2L, now.minusMinutes(30)});   // HOURLY, not yet
+        pending.add(new Object[]{3L, now.minusHours(25)});     // DAILY, due
+        pending.add(new Object[]{4L, now.minusHours(2)});      // DAILY, not yet
+        pending.add(new Object[]{5L, now});                    // OFF: left over, sent at once
+        pending.add(new Object[]{6L, now});                    // owner deleted: treated as OFF
+        when(digestEventRepository.findPendingOwners()).thenReturn(pending);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner(1L, EmailDigestMode.HOURLY)));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(owner(2L, EmailDigestMode.HOURLY)));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(owner(3L, EmailDigestMode.DAILY)));
+        when(userRepository.findById(4L)).thenReturn(Optional.of(owner(4L, EmailDigestMode.DAILY)));
+        when(userRepository.findById(5L)).thenReturn(Optional.of(owner(5L, EmailDigestMode.OFF)));
+        when(userRepository.findById(6L)).thenReturn(Optional.empty());
+
+        digestService.flushDue();
+
+        verify(digestEventRepository).lockByOwnerId(1L);
+        verify(digestEventRepository).lockByOwnerId(3L);
+        verify(digestEventRepository).lockByOwnerId(5L);
+        verify(digestEventRepository).lockByOwnerId(6L);
+        verify(digestEventRepository, never()).lockByOwnerId(2L);
+        verify(digestEventRepository, never()).lockByOwnerId(4L);
+    }
+
+    // ===== URGENT BYPASS =====
+
+    @Test
+    void imminentCheckInsAreNotDigested() {
+        digestService = service(20, 0);
+        User owner = owner(OWNER_ID, EmailDigestMode.DAILY);
+
+        assertFalse(digestService.isDigested(owner, booking(LocalDate.now())));
+        assertTrue(digestService.isDigested(owner, booking(LocalDate.now().plusDays(1))));
+        assertFalse(digestService.isDigested(owner, booking(null)));
+    }
+
+    @Test
+    void urgentDaysWidenTheBypass() {
+        digestService = service(20, 2);
+        User owner = owner(OWNER_ID, EmailDigestMode.HOURLY);
+
+        assertFalse(digestService.isDigested(owner, booking(LocalDate.now().plusDays(2))));
+        assertTrue(digestService.isDigested(owner, booking(LocalDate.now().plusDays(3))));
+    }
+
+    @Test
+    void ownersWithDigestsOffAreNeverDigested() {
+        digestService = service(20, 0);
+
+        assertFalse(digestService.isDigested(owner(OWNER_ID, EmailDigestMode.OFF),
+                booking(LocalDate.now().plusDays(30))));
+    }
+
+    // ===== CONCURRENT FLUSHES =====
+
+    @Test
+    void concurrentFlushesSendTheEventsOnce() throws Exception {
+        digestService = service(20, 0);
+        List<OwnerDigestEvent> pending = new CopyOnWriteArrayList<>(events(3));
+
+        // Stand-in for the FOR UPDATE row lock: taken by lockByOwnerId, released when the transaction ends
+        ReentrantLock rowLock = new ReentrantLock();
+        Answer<Void> endTransaction = invocation -> {
+            if (rowLock.isHeldByCurrentThread()) {
+                rowLock.unlock();
+            }
+            return null;
+        };
+        doAnswer(endTransaction).when(transactionManager).commit(any());
+        lenient().doAnswer(endTransaction).when(transactionManager).rollback(any());
+        when(digestEventRepository.lockByOwnerId(OWNER_ID)).thenAnswer(invocation -> {
+            rowLock.lock();
+            return new ArrayList<>(pending);
+        });
+        doAnswer(invocation -> {
+            pending.clear();
+            return null;
+        }).when(digestEventRepository).deleteAllInBatch(anyList());
+        when(userRepository.findById(OWNER_ID)).thenReturn(Optional.of(owner(OWNER_ID, EmailDigestMode.DAILY)));
+        // The first flush holds the lock until the second is waiting for it
+        when(emailOutbox.enqueue(eq("OWNER_DIGEST"), any(SimpleMailMessage.class))).thenAnswer(invocation -> {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!rowLock.hasQueuedThreads() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            return null;
+        });
+
+        ExecutorService flushers = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<Integer> first = flushers.submit(() -> {
+                start.await();
+                return digestService.flushOwner(OWNER_ID);
+            });
+            Future<Integer> second = flushers.submit(() -> {
+                start.await();
+                return digestService.flushOwner(OWNER_ID);
+            });
+            start.countDown();
+
+            int a = first.get(10, TimeUnit.SECONDS);
+            int b = second.get(10, TimeUnit.SECONDS);
+            assertEquals(3, a + b);
+            assertEquals(0, Math.min(a, b));
+        } finally {
+            flushers.shutdownNow();
+        }
+
+        verify(emailOutbox, times(1)).enqueue(eq("OWNER_DIGEST"), any(SimpleMailMessage.class));
+        assertEquals(1L, digestService.stats().get("digestsSent"));
+        assertEquals(3L, digestService.stats().get("eventsDigested"));
+    }
+
+    // ===== HELPERS =====
+
+    private OwnerDigestService service(int maxEvents, int urgentDays) {
+        return new OwnerDigestService(digestEventRepository, userRepository, emailOutbox, transactionManager,
+                maxEvents, urgentDays);
+    }
+
+    private static User owner(Long id, EmailDigestMode mode) {
+        User owner = new User();
+        owner.setId(id);
+        owner.setEmail("owner@test.ro");
+        owner.setFirstName("Ion");
+        owner.setEmailDigestMode(mode);
+        return owner;
+    }
+
+    private static Booking booking(LocalDate checkIn) {
+        Booking booking = new Booking();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn != null ? checkIn.plusDays(2) : null);
+        return booking;
+    }
+
+    private static List<OwnerDigestEvent> events(int count) {
+        List<OwnerDigestEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new OwnerDigestEvent(OWNER_ID, 11L + i, OwnerDigestEvent.BOOKING, "booking " + i));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,234 @@
+package com.licentarazu.turismapp.service;
+
+import jakarta.mail.SendFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pooled sending against a local SMTP stand-in whose connection setup takes a fixed delay,
+ * like the TCP + STARTTLS + AUTH round trips of a real provider.
+ */
+class SmtpTransportPoolTest {
+
+    private static final int HANDSHAKE_MILLIS = 10;
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer(HANDSHAKE_MILLIS);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+        mailSender.setDefaultEncoding("UTF-8");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void connectionIsReusedAcrossBatches() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 100, 60_000);
+
+        sendBatches(pool, 3, 10);
+
+        assertEquals(30, server.messages.get());
+        assertEquals(1, server.connections.get());
+        assertEquals(1L, pool.stats().get("connectionsOpened"));
+        pool.closeAll();
+    }
+
+    @Test
+    void connectionIsReplacedAfterMaxMessages() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 5, 60_000);
+
+        sendBatches(pool, 3, 4);
+
+        assertEquals(12, server.messages.get());
+        assertEquals(3, server.connections.get());
+        pool.closeAll();
+    }
+
+    @Test
+    void connectionDroppedWhileIdleIsReplaced() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 100, 60_000);
+        sendBatches(pool, 1, 2);
+
+        server.dropConnections();
+        sendBatches(pool, 1, 2);
+
+        assertEquals(4, server.messages.get());
+        assertEquals(2, server.connections.get());
+        assertEquals(1L, pool.stats().get("reconnects"));
+        pool.closeAll();
+    }
+
+    @Test
+    void rejectedRecipientKeepsTheConnection() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 100, 60_000);
+
+        try (SmtpTransportPool.Connection smtp = pool.borrow()) {
+            assertThrows(SendFailedException.class, () -> smtp.send(pool.prepare(message("unknown@test.ro"))));
+            smtp.send(pool.prepare(message("guest@test.ro")));
+        }
+
+        assertEquals(1, server.messages.get());
+        assertEquals(1, server.connections.get());
+        pool.closeAll();
+    }
+
+    // JavaMailSender.send opens a connection per message; the pool opens one per max-messages-per-connection
+    @Test
+    void pooledSendingOpensFarFewerConnectionsThanSendPerMessage() throws Exception {
+        int count = 200;
+
+        for (int i = 0; i < count; i++) {
+            mailSender.send(message("guest" + i + "@test.ro"));
+        }
+        assertEquals(count, server.connections.get());
+
+        server.connections.set(0);
+        server.messages.set(0);
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 100, 60_000);
+        sendBatches(pool, count / 10, 10);
+        pool.closeAll();
+
+        assertEquals(count, server.messages.get());
+        assertEquals(2, server.connections.get());
+    }
+
+    // ===== HELPERS =====
+
+    private static void sendBatches(SmtpTransportPool pool, int batches, int batchSize) throws Exception {
+        int n = 0;
+        for (int b = 0; b < batches; b++) {
+            try (SmtpTransportPool.Connection smtp = pool.borrow()) {
+                for (int i = 0; i < batchSize; i++) {
+                    smtp.send(pool.prepare(message("guest" + (n++) + "@test.ro")));
+                }
+            }
+        }
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@test.ro");
+        message.setTo(to);
+        message.setSubject("Booking Confirmation - Cabana Bradul");
+        message.setText("Dear Guest,\n\nYour booking has been confirmed! 🏠\n\nThe Tourism App Team");
+        return message;
+    }
+
+    /**
+     * Minimal SMTP server: accepts everything except recipients starting with "unknown".
+     */
+    private static class FakeSmtpServer implements AutoCloseable {
+
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger messages = new AtomicInteger();
+
+        private final ServerSocket serverSocket;
+        private final long handshakeMillis;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+
+        FakeSmtpServer(long handshakeMillis) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.handshakeMillis = handshakeMillis;
+            executor.submit(this::acceptLoop);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        void dropConnections() throws IOException {
+            for (Socket socket : open) {
+                socket.close();
+            }
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    socket.setTcpNoDelay(true);
+                    connections.incrementAndGet();
+                    open.add(socket);
+                    executor.submit(() -> session(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void session(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+                Thread.sleep(handshakeMillis);
+                reply(out, "220 localhost fake SMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                        case "HELO", "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                        case "RCPT" -> reply(out, line.toLowerCase().contains("<unknown") ? "550 5.1.1 No such user" : "250 OK");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // message content
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK queued");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // client or test closed the connection
+            } finally {
+                open.remove(socket);
+            }
+        }
+
+        private static void reply(Writer out, String response) throws IOException {
+            out.write(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            dropConnections();
+            executor.shutdownNow();
+        }
+    }
+}